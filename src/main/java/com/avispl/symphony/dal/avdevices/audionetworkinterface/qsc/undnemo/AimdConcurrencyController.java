@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+/**
+ * Additive-increase/multiplicative-decrease window of requests that may be outstanding to one device.
+ * The window grows by one request every time a full window is answered on time and is halved every time a window times out,
+ * so responsive devices are swept with many datagrams in flight while slow or lossy links fall back to one request at a time.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class AimdConcurrencyController {
+
+	private static final int MIN_WINDOW = 1;
+
+	private int maxWindow;
+	private int window;
+	private long increaseCount;
+	private long decreaseCount;
+
+	/**
+	 * AimdConcurrencyController with args constructor
+	 *
+	 * @param initialWindow window used until the first reply is received
+	 * @param maxWindow upper bound of the window
+	 */
+	public AimdConcurrencyController(int initialWindow, int maxWindow) {
+		this.maxWindow = Math.max(MIN_WINDOW, maxWindow);
+		this.window = clamp(initialWindow);
+	}
+
+	/**
+	 * Retrieves current window
+	 *
+	 * @return number of requests that may be outstanding
+	 */
+	public synchronized int getWindow() {
+		return window;
+	}
+
+	/**
+	 * Retrieves {@code {@link #maxWindow}}
+	 *
+	 * @return value of {@link #maxWindow}
+	 */
+	public synchronized int getMaxWindow() {
+		return maxWindow;
+	}
+
+	/**
+	 * Sets {@code maxWindow}, the current window is clamped to the new bound
+	 *
+	 * @param maxWindow the {@code int} field
+	 */
+	public synchronized void setMaxWindow(int maxWindow) {
+		this.maxWindow = Math.max(MIN_WINDOW, maxWindow);
+		this.window = clamp(window);
+	}
+
+	/**
+	 * Retrieves number of times the window grew
+	 *
+	 * @return increase count
+	 */
+	public synchronized long getIncreaseCount() {
+		return increaseCount;
+	}
+
+	/**
+	 * Retrieves number of times the window was halved
+	 *
+	 * @return decrease count
+	 */
+	public synchronized long getDecreaseCount() {
+		return decreaseCount;
+	}
+
+	/**
+	 * Record that every request of a window of the given size was answered before its deadline.
+	 * Windows smaller than the current window (e.g. the tail of a sweep) do not prove the link can take more and are ignored.
+	 *
+	 * @param windowSize number of requests that were in flight
+	 */
+	public synchronized void onWindowCompleted(int windowSize) {
+		if (windowSize >= window && window < maxWindow) {
+			window++;
+			increaseCount++;
+		}
+	}
+
+	/**
+	 * Record that at least one request of a window was not answered before its deadline
+	 */
+	public synchronized void onTimeout() {
+		window = clamp(window / 2);
+		decreaseCount++;
+	}
+
+	/**
+	 * Clamp a window to [{@link #MIN_WINDOW}, {@link #maxWindow}]
+	 *
+	 * @param value window to clamp
+	 * @return clamped window
+	 */
+	private int clamp(int value) {
+		return Math.min(maxWindow, Math.max(MIN_WINDOW, value));
+	}
+}
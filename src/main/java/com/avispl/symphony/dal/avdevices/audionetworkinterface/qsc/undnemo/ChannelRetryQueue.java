@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.util.Arrays;
+
+/**
+ * Retry queue of the channel indexes that could not be retrieved (no reply, NACK or malformed reply).
+ * A failed index is requested again once its backoff has elapsed, the backoff doubles on every consecutive failure up to a maximum,
+ * so a channel lost to a transient drop costs one extra datagram while a channel the device keeps refusing is only asked now and then.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class ChannelRetryQueue {
+
+	private final long initialBackoff;
+	private final long maxBackoff;
+	private final int[] consecutiveFailures;
+	private final long[] nextAttemptTimes;
+	private int pendingCount;
+	private long failureCount;
+	private long retryCount;
+	private long recoveredCount;
+
+	/**
+	 * ChannelRetryQueue with args constructor
+	 *
+	 * @param maxIndex highest channel index
+	 * @param initialBackoff delay in milliseconds before the first retry of an index
+	 * @param maxBackoff upper bound in milliseconds of the delay between two retries of an index
+	 */
+	public ChannelRetryQueue(int maxIndex, long initialBackoff, long maxBackoff) {
+		this.initialBackoff = Math.max(0, initialBackoff);
+		this.maxBackoff = Math.max(this.initialBackoff, maxBackoff);
+		this.consecutiveFailures = new int[maxIndex + 1];
+		this.nextAttemptTimes = new long[maxIndex + 1];
+	}
+
+	/**
+	 * Check whether an index is waiting for a retry
+	 *
+	 * @param index channel index
+	 * @return true if the last attempt of the index failed
+	 */
+	public synchronized boolean isPending(int index) {
+		return consecutiveFailures[index] > 0;
+	}
+
+	/**
+	 * Take a pending index whose backoff has elapsed, the retry is counted
+	 *
+	 * @param index channel index
+	 * @param now current time in milliseconds
+	 * @return true if the index must be requested again now
+	 */
+	public synchronized boolean pollDue(int index, long now) {
+		if (consecutiveFailures[index] == 0 || now < nextAttemptTimes[index]) {
+			return false;
+		}
+		retryCount++;
+		return true;
+	}
+
+	/**
+	 * Record that an index could not be retrieved, it is queued or its backoff is doubled
+	 *
+	 * @param index channel index
+	 * @param now current time in milliseconds
+	 */
+	public synchronized void onFailure(int index, long now) {
+		if (consecutiveFailures[index] == 0) {
+			pendingCount++;
+		}
+		consecutiveFailures[index]++;
+		failureCount++;
+		nextAttemptTimes[index] = now + getBackoff(consecutiveFailures[index]);
+	}
+
+	/**
+	 * Record that an index was retrieved, it leaves the queue
+	 *
+	 * @param index channel index
+	 */
+	public synchronized void onSuccess(int index) {
+		if (consecutiveFailures[index] > 0) {
+			consecutiveFailures[index] = 0;
+			nextAttemptTimes[index] = 0;
+			pendingCount--;
+			recoveredCount++;
+		}
+	}
+
+	/**
+	 * Remove an index that is no longer monitored, it is not counted as recovered
+	 *
+	 * @param index channel index
+	 */
+	public synchronized void remove(int index) {
+		if (consecutiveFailures[index] > 0) {
+			consecutiveFailures[index] = 0;
+			nextAttemptTimes[index] = 0;
+			pendingCount--;
+		}
+	}
+
+	/**
+	 * Remove every pending index, counters are kept
+	 */
+	public synchronized void clear() {
+		Arrays.fill(consecutiveFailures, 0);
+		Arrays.fill(nextAttemptTimes, 0);
+		pendingCount = 0;
+	}
+
+	/**
+	 * Retrieves number of indexes waiting for a retry
+	 *
+	 * @return pending count
+	 */
+	public synchronized int getPendingCount() {
+		return pendingCount;
+	}
+
+	/**
+	 * Retrieves number of failed attempts
+	 *
+	 * @return failure count
+	 */
+	public synchronized long getFailureCount() {
+		return failureCount;
+	}
+
+	/**
+	 * Retrieves number of retries handed out by {@link #pollDue(int, long)}
+	 *
+	 * @return retry count
+	 */
+	public synchronized long getRetryCount() {
+		return retryCount;
+	}
+
+	/**
+	 * Retrieves number of indexes retrieved after at least one failure
+	 *
+	 * @return recovered count
+	 */
+	public synchronized long getRecoveredCount() {
+		return recoveredCount;
+	}
+
+	/**
+	 * Get the delay before the next attempt of an index
+	 *
+	 * @param failures consecutive failures of the index
+	 * @return backoff in milliseconds
+	 */
+	private long getBackoff(int failures) {
+		long backoff = initialBackoff << Math.min(failures - 1, 30);
+		return backoff < 0 ? maxBackoff : Math.min(maxBackoff, backoff);
+	}
+}
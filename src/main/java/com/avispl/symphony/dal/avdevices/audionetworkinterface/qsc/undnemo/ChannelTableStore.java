@@ -0,0 +1,310 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto.ChannelInfo;
+
+/**
+ * Memory-mapped file holding the last good channel table and scalar statistics of one device, so an adapter can serve them right after a restart.
+ * <p>
+ * Layout, big endian:
+ * <ul>
+ * 	<li>header: magic (int), format version (int), payload length (int), CRC32 of the payload (int), save time (long)</li>
+ * 	<li>payload: statistic count (short) then name and value of each statistic,
+ * 	channel count (short) then index, enable state, device name, channel name, display name (strings) and retrieval time (long) of each channel</li>
+ * 	<li>strings: UTF-8 length (unsigned short, 0xFFFF for null) then bytes</li>
+ * </ul>
+ * The file is mapped once and rewritten in place, the header is written after the payload and a file whose CRC does not match
+ * (e.g. the process died while saving) or whose version is unknown is ignored.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class ChannelTableStore implements Closeable {
+
+	/**
+	 * Content of the file
+	 */
+	public static final class Snapshot {
+
+		private final long savedAt;
+		private final Map<String, String> statistics;
+		private final List<ChannelInfo> channels;
+
+		/**
+		 * Snapshot with args constructor
+		 *
+		 * @param savedAt time the snapshot was saved, in milliseconds
+		 * @param statistics scalar statistics by name
+		 * @param channels channel table
+		 */
+		Snapshot(long savedAt, Map<String, String> statistics, List<ChannelInfo> channels) {
+			this.savedAt = savedAt;
+			this.statistics = statistics;
+			this.channels = channels;
+		}
+
+		/**
+		 * Retrieves {@code {@link #savedAt}}
+		 *
+		 * @return value of {@link #savedAt}
+		 */
+		public long getSavedAt() {
+			return savedAt;
+		}
+
+		/**
+		 * Retrieves {@code {@link #statistics}}
+		 *
+		 * @return value of {@link #statistics}
+		 */
+		public Map<String, String> getStatistics() {
+			return statistics;
+		}
+
+		/**
+		 * Retrieves {@code {@link #channels}}
+		 *
+		 * @return value of {@link #channels}
+		 */
+		public List<ChannelInfo> getChannels() {
+			return channels;
+		}
+	}
+
+	/**
+	 * "QUND" in ASCII
+	 */
+	static final int MAGIC = 0x51554E44;
+	static final int VERSION = 1;
+	private static final int HEADER_LENGTH = 24;
+	private static final int MIN_MAPPED_LENGTH = 16 * 1024;
+	private static final int NULL_STRING = 0xFFFF;
+
+	private final Path path;
+	private FileChannel fileChannel;
+	private MappedByteBuffer mappedBuffer;
+	private ByteBuffer payloadBuffer = ByteBuffer.allocate(MIN_MAPPED_LENGTH);
+	private final CRC32 crc = new CRC32();
+
+	/**
+	 * ChannelTableStore with args constructor
+	 *
+	 * @param path file of the device
+	 */
+	public ChannelTableStore(Path path) {
+		this.path = path;
+	}
+
+	/**
+	 * Retrieves {@code {@link #path}}
+	 *
+	 * @return value of {@link #path}
+	 */
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * Read the file
+	 *
+	 * @return content of the file, null if there is no file or it is invalid
+	 * @throws IOException if the file cannot be read
+	 */
+	public synchronized Snapshot load() throws IOException {
+		if (!Files.isRegularFile(path) || Files.size(path) < HEADER_LENGTH) {
+			return null;
+		}
+		map(0);
+		ByteBuffer buffer = mappedBuffer.duplicate();
+		buffer.position(0);
+		if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+			return null;
+		}
+		int payloadLength = buffer.getInt();
+		int expectedCrc = buffer.getInt();
+		long savedAt = buffer.getLong();
+		if (payloadLength < 0 || HEADER_LENGTH + payloadLength > buffer.capacity()) {
+			return null;
+		}
+		ByteBuffer payload = buffer.slice();
+		payload.limit(payloadLength);
+		crc.reset();
+		crc.update(payload.duplicate());
+		if ((int) crc.getValue() != expectedCrc) {
+			return null;
+		}
+		try {
+			Map<String, String> statistics = new LinkedHashMap<>();
+			int statisticCount = payload.getShort() & 0xFFFF;
+			for (int i = 0; i < statisticCount; i++) {
+				statistics.put(readString(payload), readString(payload));
+			}
+			int channelCount = payload.getShort() & 0xFFFF;
+			List<ChannelInfo> channels = new ArrayList<>(channelCount);
+			for (int i = 0; i < channelCount; i++) {
+				ChannelInfo channelInfo = new ChannelInfo(readString(payload), readString(payload), readString(payload), readString(payload), readString(payload));
+				channelInfo.setLastUpdated(payload.getLong());
+				channels.add(channelInfo);
+			}
+			return new Snapshot(savedAt, statistics, channels);
+		} catch (BufferUnderflowException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Write the file, replacing its content
+	 *
+	 * @param statistics scalar statistics by name
+	 * @param channels channel table
+	 * @throws IOException if the file cannot be written
+	 */
+	public synchronized void save(Map<String, String> statistics, Collection<ChannelInfo> channels) throws IOException {
+		payloadBuffer.clear();
+		putShort(statistics.size());
+		for (Map.Entry<String, String> statistic : statistics.entrySet()) {
+			putString(statistic.getKey());
+			putString(statistic.getValue());
+		}
+		putShort(channels.size());
+		for (ChannelInfo channelInfo : channels) {
+			putString(channelInfo.getChannelInfoIndex());
+			putString(channelInfo.getEnableState());
+			putString(channelInfo.getDeviceName());
+			putString(channelInfo.getChannelName());
+			putString(channelInfo.getDisplayName());
+			ensurePayloadCapacity(Long.BYTES);
+			payloadBuffer.putLong(channelInfo.getLastUpdated());
+		}
+		payloadBuffer.flip();
+		int payloadLength = payloadBuffer.remaining();
+		crc.reset();
+		crc.update(payloadBuffer.duplicate());
+
+		map(HEADER_LENGTH + payloadLength);
+		// Invalidate the header first so a crash while the payload is written leaves a file that is ignored
+		mappedBuffer.putInt(0, 0);
+		mappedBuffer.position(HEADER_LENGTH);
+		mappedBuffer.put(payloadBuffer);
+		mappedBuffer.putInt(4, VERSION);
+		mappedBuffer.putInt(8, payloadLength);
+		mappedBuffer.putInt(12, (int) crc.getValue());
+		mappedBuffer.putLong(16, System.currentTimeMillis());
+		mappedBuffer.putInt(0, MAGIC);
+		mappedBuffer.force();
+	}
+
+	/**
+	 * Release the file, the mapping itself is released by the garbage collector
+	 */
+	@Override
+	public synchronized void close() {
+		mappedBuffer = null;
+		if (fileChannel != null) {
+			try {
+				fileChannel.close();
+			} catch (IOException e) {
+				// Nothing left to release
+			}
+			fileChannel = null;
+		}
+	}
+
+	/**
+	 * Map the file read-write with at least the given length, the mapping is reused while it is large enough
+	 *
+	 * @param length minimum length in bytes
+	 * @throws IOException if the file cannot be mapped
+	 */
+	private void map(int length) throws IOException {
+		if (mappedBuffer != null && mappedBuffer.capacity() >= length) {
+			return;
+		}
+		if (fileChannel == null) {
+			Path directory = path.toAbsolutePath().getParent();
+			if (directory != null) {
+				Files.createDirectories(directory);
+			}
+			fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		}
+		long size = Math.max(Math.max(fileChannel.size(), MIN_MAPPED_LENGTH), length);
+		mappedBuffer = fileChannel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+	}
+
+	/**
+	 * Append an unsigned short to the payload
+	 *
+	 * @param value value to append
+	 */
+	private void putShort(int value) {
+		ensurePayloadCapacity(Short.BYTES);
+		payloadBuffer.putShort((short) value);
+	}
+
+	/**
+	 * Append a string to the payload
+	 *
+	 * @param value value to append, may be null
+	 */
+	private void putString(String value) {
+		if (value == null) {
+			putShort(NULL_STRING);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		int length = Math.min(bytes.length, NULL_STRING - 1);
+		putShort(length);
+		ensurePayloadCapacity(length);
+		payloadBuffer.put(bytes, 0, length);
+	}
+
+	/**
+	 * Read a string written by {@link #putString(String)}
+	 *
+	 * @param buffer buffer to read
+	 * @return the string, may be null
+	 */
+	private static String readString(ByteBuffer buffer) {
+		int length = buffer.getShort() & 0xFFFF;
+		if (length == NULL_STRING) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Grow the payload buffer so it can take more bytes
+	 *
+	 * @param length number of bytes about to be appended
+	 */
+	private void ensurePayloadCapacity(int length) {
+		if (payloadBuffer.remaining() < length) {
+			ByteBuffer grown = ByteBuffer.allocate(Math.max(payloadBuffer.capacity() * 2, payloadBuffer.position() + length));
+			payloadBuffer.flip();
+			grown.put(payloadBuffer);
+			payloadBuffer = grown;
+		}
+	}
+}
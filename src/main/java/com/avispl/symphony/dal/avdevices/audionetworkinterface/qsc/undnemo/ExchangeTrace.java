@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fixed-size ring buffer of the last exchanges with a device: raw request and reply bytes, time, duration and outcome.
+ * Recording copies the bytes into preallocated slots without locking or allocating, text is only built when {@link #dump()} is called,
+ * so the trace can stay on in production where building hex strings for every datagram would not be affordable.
+ * <p>
+ * A slot is claimed with an atomic sequence and published by a volatile write of its sequence number once filled.
+ * {@link #dump()} is best-effort: it skips a slot whose sequence changed while it was read, but the memory model lets the plain writes of a slot
+ * being reused become visible before its unpublishing write (Java 8 has no store fence outside {@code sun.misc.Unsafe}), so a line may rarely
+ * mix fields of two exchanges when the ring wraps around during the dump. A trace is a diagnostic aid, this is not worth a lock on the recording path.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class ExchangeTrace {
+
+	/**
+	 * Outcome of an exchange
+	 */
+	public enum Outcome {
+		/**
+		 * The request was answered by the reply
+		 */
+		ANSWERED,
+		/**
+		 * The reply did not belong to a pending request and was discarded
+		 */
+		DISCARDED,
+		/**
+		 * The reply was an error that could not be attributed to a request
+		 */
+		FAILED,
+		/**
+		 * The request was not answered before the timeout
+		 */
+		TIMEOUT,
+		/**
+		 * The socket failed while the request was pending
+		 */
+		ERROR,
+		/**
+		 * The request was sent again before the timeout because its reply was later than the hedging percentile
+		 */
+		HEDGED
+	}
+
+	/**
+	 * Maximum number of bytes kept of a request or a reply, longer datagrams are cut in the trace
+	 */
+	public static final int MAX_TRACED_BYTES = 128;
+
+	/**
+	 * One recorded exchange, reused when the ring wraps around
+	 */
+	private static final class Slot {
+
+		private volatile long sequence = -1;
+		private long timestamp;
+		private long durationNanos;
+		private Outcome outcome;
+		private final byte[] request = new byte[MAX_TRACED_BYTES];
+		private int requestLength = -1;
+		private final byte[] response = new byte[MAX_TRACED_BYTES];
+		private int responseLength = -1;
+	}
+
+	private final Slot[] slots;
+	private final int mask;
+	private final AtomicLong nextSequence = new AtomicLong();
+
+	/**
+	 * ExchangeTrace with args constructor
+	 *
+	 * @param capacity number of exchanges kept, rounded up to a power of two
+	 */
+	public ExchangeTrace(int capacity) {
+		int size = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+		slots = new Slot[size];
+		for (int i = 0; i < size; i++) {
+			slots[i] = new Slot();
+		}
+		mask = size - 1;
+	}
+
+	/**
+	 * Retrieves number of exchanges kept
+	 *
+	 * @return capacity of the ring
+	 */
+	public int getCapacity() {
+		return slots.length;
+	}
+
+	/**
+	 * Retrieves number of exchanges recorded since the trace was created, including the ones overwritten since
+	 *
+	 * @return recorded count
+	 */
+	public long getRecordedCount() {
+		return nextSequence.get();
+	}
+
+	/**
+	 * Record an exchange
+	 *
+	 * @param request buffer holding the request, null if the exchange has no request (e.g. a discarded reply)
+	 * @param requestOffset offset of the first byte of the request
+	 * @param requestLength number of bytes of the request
+	 * @param response buffer holding the reply, null if no reply was received
+	 * @param responseOffset offset of the first byte of the reply
+	 * @param responseLength number of bytes of the reply
+	 * @param startNanos {@link System#nanoTime()} when the request was sent
+	 * @param outcome outcome of the exchange
+	 */
+	public void record(byte[] request, int requestOffset, int requestLength, byte[] response, int responseOffset, int responseLength, long startNanos, Outcome outcome) {
+		long sequence = nextSequence.getAndIncrement();
+		Slot slot = slots[(int) (sequence & mask)];
+		// Unpublish the slot while it is written. Without a store fence the writes below may still be seen before this one, see dump()
+		slot.sequence = -1;
+		slot.timestamp = System.currentTimeMillis();
+		slot.durationNanos = System.nanoTime() - startNanos;
+		slot.outcome = outcome;
+		slot.requestLength = copy(request, requestOffset, requestLength, slot.request);
+		slot.responseLength = copy(response, responseOffset, responseLength, slot.response);
+		slot.sequence = sequence;
+	}
+
+	/**
+	 * Render the exchanges kept, oldest first.
+	 * Each line holds the time, the duration, the outcome, the request after {@code >} and the reply after {@code <},
+	 * printable ASCII is kept as is and other bytes are escaped.
+	 * <p>
+	 * Best-effort while exchanges are recorded: a slot rewritten during the dump is usually skipped, but a line may hold fields
+	 * of two exchanges, see the class documentation.
+	 *
+	 * @return one line per exchange
+	 */
+	public String dump() {
+		long last = nextSequence.get();
+		long first = Math.max(0, last - slots.length);
+		SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+		StringBuilder builder = new StringBuilder();
+		byte[] request = new byte[MAX_TRACED_BYTES];
+		byte[] response = new byte[MAX_TRACED_BYTES];
+		for (long sequence = first; sequence < last; sequence++) {
+			Slot slot = slots[(int) (sequence & mask)];
+			if (slot.sequence != sequence) {
+				continue;
+			}
+			long timestamp = slot.timestamp;
+			long durationNanos = slot.durationNanos;
+			Outcome outcome = slot.outcome;
+			int requestLength = slot.requestLength;
+			int responseLength = slot.responseLength;
+			System.arraycopy(slot.request, 0, request, 0, MAX_TRACED_BYTES);
+			System.arraycopy(slot.response, 0, response, 0, MAX_TRACED_BYTES);
+			if (slot.sequence != sequence) {
+				// Overwritten while it was read
+				continue;
+			}
+			builder.append(dateFormat.format(new Date(timestamp)))
+					.append(String.format(" %8.3fms ", durationNanos / 1e6))
+					.append(String.format("%-9s", outcome));
+			if (requestLength >= 0) {
+				builder.append(" > ");
+				appendEscaped(builder, request, requestLength);
+			}
+			if (responseLength >= 0) {
+				builder.append(" < ");
+				appendEscaped(builder, response, responseLength);
+			}
+			builder.append('\n');
+		}
+		return builder.toString();
+	}
+
+	/**
+	 * Copy a datagram into a slot buffer, cut to {@link #MAX_TRACED_BYTES}
+	 *
+	 * @return length of the datagram, -1 if there is none
+	 */
+	private static int copy(byte[] source, int offset, int length, byte[] target) {
+		if (source == null) {
+			return -1;
+		}
+		System.arraycopy(source, offset, target, 0, Math.min(length, MAX_TRACED_BYTES));
+		return length;
+	}
+
+	/**
+	 * Append a datagram as printable text
+	 *
+	 * @param builder builder to append to
+	 * @param bytes buffer holding the datagram
+	 * @param length length of the datagram, may exceed {@link #MAX_TRACED_BYTES}
+	 */
+	private static void appendEscaped(StringBuilder builder, byte[] bytes, int length) {
+		int traced = Math.min(length, MAX_TRACED_BYTES);
+		for (int i = 0; i < traced; i++) {
+			int value = bytes[i] & 0xFF;
+			if (value == '\r') {
+				builder.append("\\r");
+			} else if (value == '\n') {
+				builder.append("\\n");
+			} else if (value == '\\') {
+				builder.append("\\\\");
+			} else if (value >= 0x20 && value < 0x7F) {
+				builder.append((char) value);
+			} else {
+				builder.append("\\x").append(UDPCommunicator.hexArray[value >> 4]).append(UDPCommunicator.hexArray[value & 0x0F]);
+			}
+		}
+		if (length > traced) {
+			builder.append(String.format("...(%d bytes)", length));
+		}
+	}
+}
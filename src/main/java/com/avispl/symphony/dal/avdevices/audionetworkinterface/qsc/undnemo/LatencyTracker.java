@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.util.Arrays;
+
+/**
+ * Latency of the last exchanges with a device, used to derive a percentile of the reply time.
+ * Samples are kept in a fixed ring and the percentile is only computed again every {@link #RECOMPUTE_EVERY} samples,
+ * so recording a sample does not allocate or sort.
+ * <p>
+ * Not thread safe: the transport only uses it while holding its write lock.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class LatencyTracker {
+
+	private static final int RECOMPUTE_EVERY = 16;
+
+	private final long[] samples;
+	private final long[] sorted;
+	private int count;
+	private int next;
+	private int sinceRecompute;
+	private int cachedPercentile = -1;
+	private long cachedNanos;
+
+	/**
+	 * LatencyTracker with args constructor
+	 *
+	 * @param capacity number of samples kept
+	 */
+	public LatencyTracker(int capacity) {
+		samples = new long[capacity];
+		sorted = new long[capacity];
+	}
+
+	/**
+	 * Record the latency of an exchange
+	 *
+	 * @param nanos latency in nanoseconds
+	 */
+	public void record(long nanos) {
+		samples[next] = nanos;
+		next = (next + 1) % samples.length;
+		if (count < samples.length) {
+			count++;
+		}
+		sinceRecompute++;
+	}
+
+	/**
+	 * Forget every sample, e.g. once the latencies measured belong to another device
+	 */
+	public void clear() {
+		count = 0;
+		next = 0;
+		sinceRecompute = 0;
+		cachedPercentile = -1;
+	}
+
+	/**
+	 * Retrieves number of samples kept
+	 *
+	 * @return sample count, up to the capacity
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Get a percentile of the latencies kept
+	 *
+	 * @param percentile percentile, 1 to 99
+	 * @param minSamples number of samples needed for the percentile to be meaningful
+	 * @return latency in nanoseconds, -1 while fewer samples are kept
+	 */
+	public long getPercentileNanos(int percentile, int minSamples) {
+		if (count < minSamples || count == 0) {
+			return -1;
+		}
+		if (percentile != cachedPercentile || sinceRecompute >= RECOMPUTE_EVERY) {
+			System.arraycopy(samples, 0, sorted, 0, count);
+			Arrays.sort(sorted, 0, count);
+			cachedNanos = sorted[Math.min(count - 1, (int) Math.ceil(count * percentile / 100.0) - 1)];
+			cachedPercentile = percentile;
+			sinceRecompute = 0;
+		}
+		return cachedNanos;
+	}
+}
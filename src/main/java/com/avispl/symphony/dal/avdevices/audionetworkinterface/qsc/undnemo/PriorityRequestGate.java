@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Gate giving one sender at a time access to the device, control requests first.
+ * A monitoring request waits while any control request is waiting, so a control waits at most for the exchange in progress
+ * (one request or one pipelined window) instead of the rest of a channel info sweep.
+ * Requests of the same priority pass in arrival order.
+ * <p>
+ * The time each request waits at the gate is recorded per priority.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class PriorityRequestGate {
+
+	/**
+	 * Priority of a request, in passing order
+	 */
+	public enum Priority {
+		/**
+		 * Request changing the device state on behalf of an operator
+		 */
+		CONTROL,
+		/**
+		 * Request reading the device state for monitoring
+		 */
+		MONITORING
+	}
+
+	private static final int PRIORITY_COUNT = Priority.values().length;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition released = lock.newCondition();
+	private boolean busy;
+	private final long[] nextTicket = new long[PRIORITY_COUNT];
+	private final long[] servedTicket = new long[PRIORITY_COUNT];
+	private final long[] totalWaitNanos = new long[PRIORITY_COUNT];
+	private final long[] maxWaitNanos = new long[PRIORITY_COUNT];
+
+	/**
+	 * Wait until the request may be sent. Like {@link java.util.concurrent.locks.Lock#lock()}, the wait is not interrupted,
+	 * an interrupt is kept for the caller to handle.
+	 *
+	 * @param priority priority of the request
+	 */
+	public void acquire(Priority priority) {
+		int ordinal = priority.ordinal();
+		long start = System.nanoTime();
+		lock.lock();
+		try {
+			long ticket = nextTicket[ordinal]++;
+			while (busy || servedTicket[ordinal] != ticket || hasHigherPriorityWaiting(ordinal)) {
+				released.awaitUninterruptibly();
+			}
+			servedTicket[ordinal]++;
+			busy = true;
+			long waitNanos = System.nanoTime() - start;
+			totalWaitNanos[ordinal] += waitNanos;
+			if (waitNanos > maxWaitNanos[ordinal]) {
+				maxWaitNanos[ordinal] = waitNanos;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Let the next request pass, must be called once by the thread that acquired the gate
+	 */
+	public void release() {
+		lock.lock();
+		try {
+			busy = false;
+			released.signalAll();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves number of requests of a priority that passed the gate
+	 *
+	 * @param priority priority of the requests
+	 * @return request count
+	 */
+	public long getPassedCount(Priority priority) {
+		lock.lock();
+		try {
+			return servedTicket[priority.ordinal()];
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves number of requests of a priority waiting at the gate
+	 *
+	 * @param priority priority of the requests
+	 * @return waiting count
+	 */
+	public int getWaitingCount(Priority priority) {
+		lock.lock();
+		try {
+			return (int) (nextTicket[priority.ordinal()] - servedTicket[priority.ordinal()]);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves average time the requests of a priority waited at the gate
+	 *
+	 * @param priority priority of the requests
+	 * @return wait in milliseconds, 0 before the first request
+	 */
+	public double getAverageWaitMs(Priority priority) {
+		lock.lock();
+		try {
+			long count = servedTicket[priority.ordinal()];
+			return count == 0 ? 0 : totalWaitNanos[priority.ordinal()] / 1e6 / count;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Retrieves longest time a request of a priority waited at the gate
+	 *
+	 * @param priority priority of the requests
+	 * @return wait in milliseconds
+	 */
+	public double getMaxWaitMs(Priority priority) {
+		lock.lock();
+		try {
+			return maxWaitNanos[priority.ordinal()] / 1e6;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Check whether a request of a higher priority is waiting, must be called while holding {@link #lock}
+	 *
+	 * @param ordinal ordinal of the priority of the request
+	 * @return true if a request of a higher priority is waiting
+	 */
+	private boolean hasHigherPriorityWaiting(int ordinal) {
+		for (int higher = 0; higher < ordinal; higher++) {
+			if (nextTicket[higher] != servedTicket[higher]) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
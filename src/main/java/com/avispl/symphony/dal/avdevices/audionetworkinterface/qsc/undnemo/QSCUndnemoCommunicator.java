@@ -3,26 +3,42 @@
  */
 package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
 
+import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
 import java.time.temporal.ValueRange;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.IntStream;
 
+import javax.management.JMException;
+
 import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto.ChannelInfo;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto.ChannelTableStatistics;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoCommandEncoder;
 import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoConstant;
 import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoMetric;
 import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoUDPCommand;
 
+import org.icmp4j.IcmpPingResponse;
+import org.icmp4j.IcmpPingUtil;
 import org.springframework.util.CollectionUtils;
 
 import com.avispl.symphony.api.dal.control.Controller;
@@ -42,14 +58,20 @@ import com.avispl.symphony.dal.util.StringUtils;
  * <ul>
  * 	<li>Online / Offline Status</li>
  * 	<li>Version Info</li>
- * 	<li>Channel Info (channels 1-64)</li>
+ * 	<li>Channel Info (channels 1-64) with the age of the data of each channel</li>
  * 	<li>Active Channel Index (1-64)</li>
  * 	<li>Speaker Mute (On/Off)</li>
  * 	<li>Volume (1-10)</li>
  * 	<li>Button Brightness (0-10)</li>
  * 	<li>Display Brightness (0-10)</li>
+ * 	<li>Channel Info retry counters (pending, failures, attempts, recovered)</li>
  * </ul>
  * <p>
+ * Runtime state (cycle durations, requests in flight, sockets, cache hit ratio, last error) is exposed through JMX, see {@link QSCUndnemoRuntimeMXBean}.
+ * <p>
+ * The last good channel table and scalar statistics are saved to {@link #getWarmStartDirectory()} after every complete sweep and loaded on init,
+ * so they are served right after a restart and the first resweep of each device is spread over {@link #getChannelInfoRefreshInterval()}.
+ * <p>
  * Controlling:
  * <ul>
  * 	<li>Set Active Channel Index (1-64)</li>
@@ -67,7 +89,9 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 
 	/**
 	 * Process that is running whenever {@link QSCUndnemoCommunicator#getMultipleStatistics()} is called to fetch all 64 channel information.
-	 * - The worker thread will be destroyed when all 64 channels are fetched successfully or {@link QSCUndnemoCommunicator#internalDestroy()} is called.
+	 * - Requests are pipelined in windows sized by the adaptive request window of the device, see {@link UDPCommunicator#sendPipelined(List, PipelinedResponseHandler)}.
+	 * - Only channels that are missing or older than {@link #getChannelInfoRefreshInterval()} are requested, channels that cannot be retrieved keep their previous data.
+	 * - The worker thread will be destroyed when the sweep is finished or {@link QSCUndnemoCommunicator#internalDestroy()} is called.
 	 *
 	 * @author Maksym.Rossiytsev, Duy Nguyen
 	 * @since 1.0.0
@@ -75,6 +99,7 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	class QSCChannelDataLoader implements Runnable {
 
 		private final List<Integer> listIndexes;
+		private final long endpointChange;
 
 		/**
 		 * QSCChannelDataLoader with args constructor
@@ -83,17 +108,39 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 		 */
 		public QSCChannelDataLoader(List<Integer> indexes) {
 			listIndexes = indexes;
+			endpointChange = endpointChangeCount.get();
 		}
 
 		@Override
 		public void run() {
+			long start = System.currentTimeMillis();
 			try {
-				retrieveChannelInfo(listIndexes);
+				List<Integer> failedIndexes = retrieveChannelInfo(listIndexes);
+				if (failedIndexes.isEmpty()) {
+					// After an endpoint change, the file of the new endpoint is written once channels were retrieved from it
+					if (endpointChange == endpointChangeCount.get() && (!warmStartAwaitingSweep || !listIndexes.isEmpty())) {
+						warmStartAwaitingSweep = false;
+						saveWarmStart();
+					}
+				} else {
+					String errorMessage = String.format("Channel Info Data Retrieval-Error: Fail to get channel info at index: %s, previous data is kept and the channels are requested again on the next cycle",
+							failedIndexes);
+					logger.warn(errorMessage);
+					runtime.recordError(errorMessage);
+				}
+			} catch (CancellationException e) {
+				// The adapter is destroyed, the channels are not needed anymore
+				if (logger.isDebugEnabled()) {
+					logger.debug("Channel info sweep cancelled");
+				}
+				return;
 			} catch (Exception e) {
-				String errorMessage = String.format("Channel Info Data Retrieval-Error: %s with cause: %s", e.getMessage(), e.getCause().getMessage());
-				channelErrorMessagesList.add(errorMessage);
+				String errorMessage = e.getCause() == null ? String.format("Channel Info Data Retrieval-Error: %s", e.getMessage())
+						: String.format("Channel Info Data Retrieval-Error: %s with cause: %s", e.getMessage(), e.getCause().getMessage());
 				logger.error(errorMessage);
+				runtime.recordError(errorMessage);
 			}
+			runtime.recordSweep(System.currentTimeMillis() - start);
 			if (logger.isDebugEnabled()) {
 				logger.debug("Finished collecting channel info statistics cycle at " + new Date());
 			}
@@ -101,10 +148,197 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 		}
 	}
 
+	/**
+	 * Decoder of the reply to one command.
+	 * Replies naming another command, e.g. a late or duplicated CH_INFO reply still queued on the socket, are not matched so they are never served as the value of this command.
+	 * Replies without a command name (NACK) or naming a command the adapter does not know are matched.
+	 * Datagrams without the trailing CR have been cut on the way and are not matched either, so the request times out and is sent again.
+	 *
+	 * @author Duy Nguyen
+	 * @since 1.0.0
+	 */
+	private static final class CommandResponseDecoder implements ResponseDecoder<String> {
+
+		private final byte[][] acceptedNames;
+
+		/**
+		 * CommandResponseDecoder with args constructor
+		 *
+		 * @param command command the replies answer
+		 */
+		CommandResponseDecoder(QSCUndnemoUDPCommand command) {
+			QSCUndnemoUDPCommand queryCommand = getQueryCommand(command);
+			acceptedNames = queryCommand == command ? new byte[][] { toBytes(command) } : new byte[][] { toBytes(command), toBytes(queryCommand) };
+		}
+
+		@Override
+		public String decode(byte[] buffer, int offset, int length) {
+			return ACK_RESPONSE_DECODER.decode(buffer, offset, length);
+		}
+
+		@Override
+		public boolean matches(byte[] buffer, int offset, int length) {
+			if (!isComplete(buffer, offset, length)) {
+				return false;
+			}
+			int start = indexOf(buffer, offset, offset + length, (byte) ' ') + 1;
+			if (start <= 0) {
+				return true;
+			}
+			int end = indexOf(buffer, start, offset + length, (byte) ' ');
+			if (end < 0) {
+				end = offset + length;
+				if (end > start && buffer[end - 1] == '\r') {
+					end--;
+				}
+			}
+			for (byte[] acceptedName : acceptedNames) {
+				if (regionEquals(buffer, start, end, acceptedName)) {
+					return true;
+				}
+			}
+			for (byte[] knownName : KNOWN_COMMAND_NAMES) {
+				if (regionEquals(buffer, start, end, knownName)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Get the command reading the value a SET command writes, some firmwares answer a SET with the name of the matching GET
+		 *
+		 * @param command UDP command
+		 * @return matching GET command, the command itself if there is none
+		 */
+		private static QSCUndnemoUDPCommand getQueryCommand(QSCUndnemoUDPCommand command) {
+			switch (command) {
+				case SET_ACT_CH_IDX:
+					return QSCUndnemoUDPCommand.GET_CMD_ACT_CH_IDX;
+				case SET_SBB:
+					return QSCUndnemoUDPCommand.GET_CMD_GBB;
+				case SET_SDB:
+					return QSCUndnemoUDPCommand.GET_CMD_GDB;
+				case SET_SPKR_MUTE:
+					return QSCUndnemoUDPCommand.GET_CMD_SPKR_MUTE;
+				case SET_VOLUME:
+					return QSCUndnemoUDPCommand.GET_CMD_VOLUME;
+				default:
+					return command;
+			}
+		}
+
+		/**
+		 * Encode a command name to ASCII
+		 *
+		 * @param command UDP command
+		 * @return encoded name
+		 */
+		private static byte[] toBytes(QSCUndnemoUDPCommand command) {
+			return command.getCommand().getBytes(StandardCharsets.US_ASCII);
+		}
+
+		/**
+		 * Find a byte in a buffer region
+		 *
+		 * @return position of the byte, -1 if it is not found
+		 */
+		private static int indexOf(byte[] buffer, int from, int to, byte value) {
+			for (int i = from; i < to; i++) {
+				if (buffer[i] == value) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		/**
+		 * Compare a buffer region with a name
+		 *
+		 * @return true if the region holds exactly the name
+		 */
+		private static boolean regionEquals(byte[] buffer, int from, int to, byte[] name) {
+			if (to - from != name.length) {
+				return false;
+			}
+			for (int i = 0; i < name.length; i++) {
+				if (buffer[from + i] != name[i]) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Decoder of a device reply: the reply text when it starts with ACK and ends with CR, {@link QSCUndnemoConstant#NACK} otherwise.
+	 * A reply without its trailing CR has been cut on the way and its last field cannot be trusted.
+	 */
+	private static final ResponseDecoder<String> ACK_RESPONSE_DECODER = (buffer, offset, length) -> {
+		if (length >= 4 && buffer[offset] == 'A' && buffer[offset + 1] == 'C' && buffer[offset + 2] == 'K' && isComplete(buffer, offset, length)) {
+			return new String(buffer, offset, length, StandardCharsets.UTF_8);
+		}
+		return QSCUndnemoConstant.NACK;
+	};
+
+	/**
+	 * Check whether a datagram ends with the CR terminating every reply of the device
+	 *
+	 * @param buffer buffer holding the datagram
+	 * @param offset offset of the first byte of the datagram
+	 * @param length number of bytes of the datagram
+	 * @return true if the datagram is a complete reply
+	 */
+	private static boolean isComplete(byte[] buffer, int offset, int length) {
+		return length > 0 && buffer[offset + length - 1] == '\r';
+	}
+
+	/**
+	 * Names of all the commands of the adapter, encoded to ASCII
+	 */
+	private static final byte[][] KNOWN_COMMAND_NAMES = new byte[QSCUndnemoUDPCommand.values().length][];
+
+	/**
+	 * Reply decoders indexed by command ordinal
+	 */
+	private static final CommandResponseDecoder[] COMMAND_RESPONSE_DECODERS = new CommandResponseDecoder[QSCUndnemoUDPCommand.values().length];
+
+	/**
+	 * Options of the active channel index dropdown: every channel index, formatted once
+	 */
+	private static final String[] CHANNEL_INDEX_OPTIONS = IntStream.rangeClosed(1, 64).mapToObj(index -> String.format("%02d", index)).toArray(String[]::new);
+
+	/**
+	 * Options of the active channel index dropdown while no channel is active
+	 */
+	private static final String[] CHANNEL_INDEX_OPTIONS_WITH_NONE = IntStream.rangeClosed(0, 64)
+			.mapToObj(index -> index == 0 ? QSCUndnemoConstant.NONE : CHANNEL_INDEX_OPTIONS[index - 1]).toArray(String[]::new);
+
+	/**
+	 * Active channel index as tracked in {@link #lastActiveChannelIndex}: two digits, "00" when no channel is active.
+	 * A single digit is accepted from warm start files written before the index was tracked in that form
+	 */
+	private static final String REGEX_CHANNEL_INDEX = "\\d{1,2}";
+
+	/**
+	 * Every channel index, never modified
+	 */
+	private static final BitSet ALL_CHANNEL_INDEXES = new BitSet(65);
+
+	static {
+		ALL_CHANNEL_INDEXES.set(1, 65);
+		for (QSCUndnemoUDPCommand command : QSCUndnemoUDPCommand.values()) {
+			KNOWN_COMMAND_NAMES[command.ordinal()] = CommandResponseDecoder.toBytes(command);
+		}
+		for (QSCUndnemoUDPCommand command : QSCUndnemoUDPCommand.values()) {
+			COMMAND_RESPONSE_DECODERS[command.ordinal()] = new CommandResponseDecoder(command);
+		}
+	}
+
 	/**
 	 * Executor that runs all the async operations, that {@link #channelDataLoader} is posting
 	 */
-	private static ExecutorService executorService;
+	private ThreadPoolExecutor executorService;
 
 	/**
 	 * Runner service responsible for collecting data
@@ -112,14 +346,19 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	private QSCChannelDataLoader channelDataLoader;
 
 	/**
-	 * List of channel info
+	 * Result of the last submitted {@link #channelDataLoader}, used to skip a cycle while the previous sweep is still running
+	 */
+	private Future<?> channelDataLoaderFuture;
+
+	/**
+	 * Channel info by channel index, kept across monitoring cycles so channels that fail to refresh are still published with their age
 	 */
-	private final List<ChannelInfo> channelInfoList = Collections.synchronizedList(new ArrayList<>());
+	private final Map<Integer, ChannelInfo> channelInfoMap = Collections.synchronizedMap(new TreeMap<>());
 
 	/**
-	 * List error message occur while fetching channel infos
+	 * Channel indexes that could not be retrieved, requested again with backoff by the next sweeps
 	 */
-	private final Set<String> channelErrorMessagesList = Collections.synchronizedSet(new LinkedHashSet<>());
+	private final ChannelRetryQueue channelRetryQueue = new ChannelRetryQueue(64, 1000, 300000);
 
 	/**
 	 * This field is used to prevent fetching unnecessary data when perform {@link QSCUndnemoCommunicator#controlProperty(ControllableProperty)}
@@ -132,16 +371,119 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	 */
 	private boolean isGetMultipleStatsAfterControl = false;
 
+	/**
+	 * Last active channel index confirmed by the device, formatted like the published index ("05", "00" when none), null until the device answers ACK
+	 */
+	private volatile String lastActiveChannelIndex;
+
+	/**
+	 * Last value read from the device of each scalar statistic, saved with the channel table
+	 */
+	private final Map<String, String> lastScalarValues = new ConcurrentHashMap<>();
+
+	/**
+	 * Scalar statistics loaded from the warm start file, served until the device answers for them
+	 */
+	private final Map<String, String> warmStartStatistics = new ConcurrentHashMap<>();
+
+	/**
+	 * File holding the last good channel table, null when warm start is disabled. Replaced when the host or port changes after init
+	 */
+	private volatile ChannelTableStore channelTableStore;
+
+	/**
+	 * Number of host or port changes after init, a sweep submitted before the last change does not save the warm start file of the new endpoint
+	 */
+	private final AtomicLong endpointChangeCount = new AtomicLong();
+
+	/**
+	 * Whether the warm start file is only saved again after a sweep retrieved channels from the device, set when the host or port changes after init
+	 */
+	private volatile boolean warmStartAwaitingSweep;
+
+	/**
+	 * Time before which stale channels loaded from the warm start file are not requested, so restarted adapters do not all sweep at once
+	 */
+	private volatile long staggeredSweepTime;
+
 	/**
 	 * Local extended statistics
 	 */
 	private ExtendedStatistics localExtendedStatistics;
 
 	/**
-	 * Adapter Properties - (Optional) filter option: string of channel indexes (separated by commas)
+	 * Statistics of {@link #localExtendedStatistics}, controls of the active channel index update its channel table in place
+	 */
+	private ChannelTableStatistics localChannelTableStatistics;
+
+	/**
+	 * Adapter Properties - (Optional) filter option: string of channel indexes and ranges of channel indexes (separated by commas), e.g. 1-16,33,40-48
 	 */
 	private String channelIndex;
 
+	/**
+	 * Channel indexes of {@link #channelIndex}, parsed when the property is set. Empty when every channel is monitored, never modified once set
+	 */
+	private volatile BitSet channelIndexFilter = new BitSet();
+
+	/**
+	 * Adapter Properties - (Optional) age in milliseconds after which a channel info is requested again, missing channels are always requested
+	 */
+	private int channelInfoRefreshInterval = 25000;
+
+	/**
+	 * Adapter Properties - (Optional) maximum number of channel info requests sent by one sweep, the oldest channels are requested first
+	 */
+	private volatile int channelInfoPollBudget = 64;
+
+	/**
+	 * Adapter Properties - (Optional) directory of the warm start files, one file per device. Empty, the default, to disable warm start.
+	 * The directory must be private to one aggregator: files are named after the host and port of the device and are not locked between processes,
+	 * and they are not removed when a device is removed
+	 */
+	private String warmStartDirectory = "";
+
+	/**
+	 * Adapter Properties - (Optional) true to ping the device before each monitoring cycle, a cycle fails without sending any UDP request while the device does not answer
+	 */
+	private boolean pingProbe;
+
+	/**
+	 * Adapter Properties - (Optional) time in milliseconds to wait for each ping reply of {@link #pingProbe}
+	 */
+	private int pingTimeout = 1000;
+
+	/**
+	 * ICMP pre-flight probe of {@link #pingProbe}: two pings at most before the device is considered down, loss over the last 20 pings
+	 */
+	private final ReachabilityProbe reachabilityProbe = new ReachabilityProbe(this::ping, 2, 20);
+
+	/**
+	 * Whether the last probe could not send pings from this host, the lack of ping support is logged once until a ping is sent again
+	 */
+	private volatile boolean pingUnavailable;
+
+	/**
+	 * Number of channel info retrieved from the device, by sweeps and controls
+	 */
+	private final AtomicLong channelsRefreshedCount = new AtomicLong();
+
+	/**
+	 * Channels refreshed and datagrams sent when the previous monitoring cycle ended, only accessed by {@link #getMultipleStatistics()}
+	 */
+	private long previousChannelsRefreshedCount;
+	private long previousSentDatagramCount;
+
+	/**
+	 * Runtime state exposed through JMX
+	 */
+	private final QSCUndnemoRuntime runtime = new QSCUndnemoRuntime(this);
+
+	/**
+	 * Publisher of device state changes detected by monitoring and control
+	 */
+	private final QSCUndnemoStatePublisher statePublisher = new QSCUndnemoStatePublisher();
+
 	/**
 	 * Retrieves {@code {@link #channelIndex}}
 	 *
@@ -152,12 +494,147 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	}
 
 	/**
-	 * Sets {@code channelIndex}
+	 * Sets {@code channelIndex}.
+	 * After init the cached channels are kept: channels no longer included are dropped and only the newly included ones are requested
 	 *
 	 * @param channelIndex the {@code java.lang.String} field
 	 */
 	public void setChannelIndex(String channelIndex) {
+		BitSet previousFilter = this.channelIndexFilter;
+		BitSet filter = parseChannelIndexFilter(channelIndex);
+		this.channelIndexFilter = filter;
 		this.channelIndex = channelIndex;
+		if (isInitialized() && !filter.equals(previousFilter)) {
+			applyChannelIndexFilter(filter);
+		}
+	}
+
+	/**
+	 * Retrieves {@code {@link #channelInfoRefreshInterval}}
+	 *
+	 * @return value of {@link #channelInfoRefreshInterval}
+	 */
+	public int getChannelInfoRefreshInterval() {
+		return channelInfoRefreshInterval;
+	}
+
+	/**
+	 * Sets {@code channelInfoRefreshInterval}
+	 *
+	 * @param channelInfoRefreshInterval the {@code int} field
+	 */
+	public void setChannelInfoRefreshInterval(int channelInfoRefreshInterval) {
+		this.channelInfoRefreshInterval = channelInfoRefreshInterval;
+	}
+
+	/**
+	 * Retrieves {@code {@link #channelInfoPollBudget}}
+	 *
+	 * @return value of {@link #channelInfoPollBudget}
+	 */
+	public int getChannelInfoPollBudget() {
+		return channelInfoPollBudget;
+	}
+
+	/**
+	 * Sets {@code channelInfoPollBudget}
+	 *
+	 * @param channelInfoPollBudget the {@code int} field
+	 */
+	public void setChannelInfoPollBudget(int channelInfoPollBudget) {
+		this.channelInfoPollBudget = Math.max(1, channelInfoPollBudget);
+	}
+
+	/**
+	 * Retrieves {@code {@link #warmStartDirectory}}
+	 *
+	 * @return value of {@link #warmStartDirectory}
+	 */
+	public String getWarmStartDirectory() {
+		return warmStartDirectory;
+	}
+
+	/**
+	 * Sets {@code warmStartDirectory}
+	 *
+	 * @param warmStartDirectory the {@code java.lang.String} field
+	 */
+	public void setWarmStartDirectory(String warmStartDirectory) {
+		this.warmStartDirectory = warmStartDirectory;
+	}
+
+	/**
+	 * Retrieves {@code {@link #pingProbe}}
+	 *
+	 * @return value of {@link #pingProbe}
+	 */
+	public boolean isPingProbe() {
+		return pingProbe;
+	}
+
+	/**
+	 * Sets {@code pingProbe}
+	 *
+	 * @param pingProbe the {@code boolean} field
+	 */
+	public void setPingProbe(boolean pingProbe) {
+		this.pingProbe = pingProbe;
+	}
+
+	/**
+	 * Retrieves {@code {@link #pingTimeout}}
+	 *
+	 * @return value of {@link #pingTimeout}
+	 */
+	public int getPingTimeout() {
+		return pingTimeout;
+	}
+
+	/**
+	 * Sets {@code pingTimeout}
+	 *
+	 * @param pingTimeout the {@code int} field
+	 */
+	public void setPingTimeout(int pingTimeout) {
+		this.pingTimeout = Math.max(1, pingTimeout);
+	}
+
+	/**
+	 * Retrieves runtime state exposed through JMX
+	 *
+	 * @return runtime of this communicator
+	 */
+	public QSCUndnemoRuntimeMXBean getRuntime() {
+		return runtime;
+	}
+
+	/**
+	 * Retrieves maximum number of undelivered state change events kept for each subscriber
+	 *
+	 * @return event buffer size
+	 */
+	public int getEventBufferSize() {
+		return statePublisher.getBufferSize();
+	}
+
+	/**
+	 * Sets maximum number of undelivered state change events kept for each subscriber
+	 *
+	 * @param eventBufferSize the {@code int} field
+	 */
+	public void setEventBufferSize(int eventBufferSize) {
+		statePublisher.setBufferSize(eventBufferSize);
+	}
+
+	/**
+	 * Subscribe to device state changes: active channel, speaker mute, volume, brightness and channel info changes.
+	 * Changes made through {@link #controlProperty(ControllableProperty)} are published as soon as the device acknowledges them,
+	 * changes made on the device itself are published when the monitoring cycle observes them.
+	 *
+	 * @param subscriber subscriber to add
+	 */
+	public void subscribe(QSCUndnemoStatePublisher.Subscriber subscriber) {
+		statePublisher.subscribe(subscriber);
 	}
 
 	/**
@@ -182,6 +659,103 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 			logger.debug("Internal init is called.");
 		}
 		super.internalInit();
+		JMException registrationError = runtime.register();
+		if (registrationError != null && logger.isWarnEnabled()) {
+			logger.warn("Fail to register the runtime MBean, runtime state is not exposed through JMX", registrationError);
+		}
+		loadWarmStart();
+	}
+
+	/**
+	 * Load the channel table and scalar statistics saved by a previous run of the adapter.
+	 * Channels keep the time they were retrieved, so their data age is accurate and the stale ones are requested again,
+	 * after a random delay of up to {@link #channelInfoRefreshInterval} so a restarted aggregator does not sweep every device at once.
+	 */
+	private void loadWarmStart() {
+		if (StringUtils.isNullOrEmpty(warmStartDirectory)) {
+			return;
+		}
+		channelTableStore = createChannelTableStore();
+		ChannelTableStore.Snapshot snapshot;
+		try {
+			snapshot = channelTableStore.load();
+		} catch (IOException | RuntimeException e) {
+			logger.warn(String.format("Fail to load warm start file %s, channels are retrieved from the device", channelTableStore.getPath()), e);
+			return;
+		}
+		if (snapshot == null) {
+			return;
+		}
+		for (ChannelInfo channelInfo : snapshot.getChannels()) {
+			String index = channelInfo.getChannelInfoIndex();
+			if (index != null && index.matches(QSCUndnemoConstant.REGEX_IS_INTEGER) && ValueRange.of(1, 64).isValidIntValue(Integer.parseInt(index))) {
+				channelInfoMap.put(Integer.parseInt(index), channelInfo);
+			}
+		}
+		Map<String, String> statistics = new HashMap<>(snapshot.getStatistics());
+		String activeChannelIndex = statistics.remove(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName());
+		if (activeChannelIndex != null && activeChannelIndex.matches(REGEX_CHANNEL_INDEX)) {
+			lastActiveChannelIndex = String.format("%02d", Integer.parseInt(activeChannelIndex));
+		}
+		warmStartStatistics.putAll(statistics);
+		staggeredSweepTime = System.currentTimeMillis() + ThreadLocalRandom.current().nextInt(Math.max(1, channelInfoRefreshInterval));
+		if (logger.isInfoEnabled()) {
+			logger.info(String.format("Loaded %d channels saved at %s from warm start file %s", channelInfoMap.size(), new Date(snapshot.getSavedAt()), channelTableStore.getPath()));
+		}
+	}
+
+	/**
+	 * Create the warm start file of the current host and port
+	 *
+	 * @return store of the channel table
+	 */
+	private ChannelTableStore createChannelTableStore() {
+		String fileName = String.format("%s_%d.bin", String.valueOf(this.host).replaceAll("[^A-Za-z0-9._-]", "_"), this.port);
+		return new ChannelTableStore(Paths.get(warmStartDirectory, fileName));
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * The channel table is kept, e.g. a device given a new address does not need a full sweep. Each channel still carries its age,
+	 * channels are requested again when their refresh interval elapses. The warm start file of the new endpoint is only written
+	 * after the first sweep retrieving channels from it, so the table of the previous endpoint does not replace what the new one saved.
+	 */
+	@Override
+	protected void onEndpointChanged(String previousHost, int previousPort) {
+		endpointChangeCount.incrementAndGet();
+		ChannelTableStore previousStore = channelTableStore;
+		if (previousStore == null) {
+			return;
+		}
+		warmStartAwaitingSweep = true;
+		channelTableStore = createChannelTableStore();
+		previousStore.close();
+	}
+
+	/**
+	 * Save the channel table and scalar statistics to the warm start file
+	 */
+	private void saveWarmStart() {
+		ChannelTableStore store = channelTableStore;
+		if (store == null) {
+			return;
+		}
+		Map<String, String> statistics = new LinkedHashMap<>(lastScalarValues);
+		String activeChannelIndex = lastActiveChannelIndex;
+		if (activeChannelIndex != null) {
+			statistics.put(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName(), activeChannelIndex);
+		}
+		List<ChannelInfo> channels;
+		synchronized (channelInfoMap) {
+			channels = new ArrayList<>(channelInfoMap.values());
+		}
+		try {
+			store.save(statistics, channels);
+		} catch (IOException | RuntimeException e) {
+			String errorMessage = String.format("Fail to save warm start file %s: %s", store.getPath(), e.getMessage());
+			logger.warn(errorMessage);
+			runtime.recordError(errorMessage);
+		}
 	}
 
 	/**
@@ -193,16 +767,45 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 			logger.debug("Internal destroy is called.");
 		}
 
+		// Fail the requests in progress at once, a sweep blocked on the socket would otherwise run until its timeouts expire
+		cancelRequests();
 		if (channelDataLoader != null) {
 			channelDataLoader = null;
 		}
 
-		if (executorService != null) {
-			executorService.shutdownNow();
+		ThreadPoolExecutor executor;
+		synchronized (this) {
+			executor = executorService;
+			if (executorService != null) {
+				executorService.shutdownNow();
+				executorService = null;
+			}
+			channelDataLoaderFuture = null;
+		}
+		if (executor != null) {
+			try {
+				// The cancelled sweep ends within milliseconds, wait for it so it does not update the state cleared below
+				if (!executor.awaitTermination(getTimeout(), TimeUnit.MILLISECONDS) && logger.isWarnEnabled()) {
+					logger.warn("Channel info sweep still running after destroy");
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		channelInfoMap.clear();
+		channelRetryQueue.clear();
+		lastActiveChannelIndex = null;
+		lastScalarValues.clear();
+		warmStartStatistics.clear();
+		staggeredSweepTime = 0;
+		if (channelTableStore != null) {
+			channelTableStore.close();
+			channelTableStore = null;
 		}
-		channelInfoList.clear();
-		channelErrorMessagesList.clear();
 		localExtendedStatistics = null;
+		localChannelTableStatistics = null;
+		statePublisher.close();
+		runtime.unregister();
 		super.internalDestroy();
 	}
 
@@ -211,6 +814,23 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	 */
 	@Override
 	public void controlProperty(ControllableProperty controllableProperty) throws Exception {
+		try {
+			performControl(controllableProperty);
+		} catch (Exception e) {
+			// The device may have applied the control even though its reply was lost, the next cycle reads the device again
+			isGetMultipleStatsAfterControl = false;
+			runtime.recordError(String.format("Control of %s failed: %s", controllableProperty.getProperty(), e.getMessage()));
+			throw e;
+		}
+	}
+
+	/**
+	 * Perform a control operation on the device
+	 *
+	 * @param controllableProperty property to control
+	 * @throws Exception if the device does not acknowledge the control
+	 */
+	private void performControl(ControllableProperty controllableProperty) throws Exception {
 		isGetMultipleStatsAfterControl = true;
 		String property = controllableProperty.getProperty();
 		String value = String.valueOf(controllableProperty.getValue());
@@ -225,55 +845,47 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 				if (value.equals(QSCUndnemoConstant.NONE)) {
 					return;
 				}
-				String rawCurrentActiveChannelIndex = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_ACT_CH_IDX.getCommand());
-				String currentActiveChannelIndex = getValidActiveChannelIndex(rawCurrentActiveChannelIndex);
-				if (value.equals(currentActiveChannelIndex)) {
-					return;
-				}
-				List<Integer> indexList = handleListChannelIndex();
-				if (indexList.isEmpty()) {
-					if (currentActiveChannelIndex.equals("0")) {
-						handleActiveChannelControlWithNoneCurrentIndex(value);
-					} else {
-						handleActiveChannelControl(value, currentActiveChannelIndex);
-					}
-				} else {
-					handleActiveChannelControlWithFilter(value, indexList);
-				}
+				// Always sent: the tracked index may be stale (front panel change, warm start), a NACK is checked by reading the index back
+				handleActiveChannelControl(value, channelIndexFilter);
 				break;
 			case BUTTON_BRIGHTNESS:
 				isActiveChannelControl = false;
 				float flValue = Float.parseFloat(value);
 				int intValue = Math.round(flValue);
-				response = getUDPResponse(QSCUndnemoUDPCommand.SET_SBB.getCommand() + QSCUndnemoConstant.SPACE + intValue);
+				response = getUDPResponse(QSCUndnemoUDPCommand.SET_SBB, intValue);
 				if (QSCUndnemoConstant.NACK.equals(response)) {
 					throw new CommandFailureException(this.getAddress(), QSCUndnemoUDPCommand.SET_SBB.getCommand(), String.format("Fail to set button brightness with value: %s", value));
 				}
+				statePublisher.publishIfChanged(QSCUndnemoMetric.BUTTON_BRIGHTNESS, 0, String.valueOf(intValue));
 				break;
 			case DISPLAY_BRIGHTNESS:
 				isActiveChannelControl = false;
 				float flValue1 = Float.parseFloat(value);
 				int intValue1 = Math.round(flValue1);
-				response = getUDPResponse(QSCUndnemoUDPCommand.SET_SDB.getCommand() + QSCUndnemoConstant.SPACE + intValue1);
+				response = getUDPResponse(QSCUndnemoUDPCommand.SET_SDB, intValue1);
 				if (QSCUndnemoConstant.NACK.equals(response)) {
 					throw new CommandFailureException(this.getAddress(), QSCUndnemoUDPCommand.SET_SDB.getCommand(), String.format("Fail to set display brightness with value: %s", value));
 				}
+				statePublisher.publishIfChanged(QSCUndnemoMetric.DISPLAY_BRIGHTNESS, 0, String.valueOf(intValue1));
 				break;
 			case SPEAKER_MUTE:
 				isActiveChannelControl = false;
-				response = getUDPResponse(QSCUndnemoUDPCommand.SET_SPKR_MUTE.getCommand() + QSCUndnemoConstant.SPACE + value);
+				int intMuteValue = Math.round(Float.parseFloat(value));
+				response = getUDPResponse(QSCUndnemoUDPCommand.SET_SPKR_MUTE, intMuteValue);
 				if (QSCUndnemoConstant.NACK.equals(response)) {
 					throw new CommandFailureException(this.getAddress(), QSCUndnemoUDPCommand.SET_SPKR_MUTE.getCommand(), String.format("Fail to set speaker mute with value: %s", value));
 				}
+				statePublisher.publishIfChanged(QSCUndnemoMetric.SPEAKER_MUTE, 0, String.valueOf(intMuteValue));
 				break;
 			case VOLUME:
 				isActiveChannelControl = false;
 				float flValue2 = Float.parseFloat(value);
 				int intValue2 = Math.round(flValue2);
-				response = getUDPResponse(QSCUndnemoUDPCommand.SET_VOLUME.getCommand() + QSCUndnemoConstant.SPACE + intValue2);
+				response = getUDPResponse(QSCUndnemoUDPCommand.SET_VOLUME, intValue2);
 				if (QSCUndnemoConstant.NACK.equals(response)) {
 					throw new CommandFailureException(this.getAddress(), QSCUndnemoUDPCommand.SET_VOLUME.getCommand(), String.format("Fail to set volume with value: %s", value));
 				}
+				statePublisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, String.valueOf(intValue2));
 				break;
 			default:
 				if (logger.isWarnEnabled()) {
@@ -304,17 +916,35 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	 */
 	@Override
 	public List<Statistics> getMultipleStatistics() throws Exception {
+		long start = System.currentTimeMillis();
+		try {
+			List<Statistics> statistics = retrieveMultipleStatistics();
+			populateCycleStatistics(((ExtendedStatistics) statistics.get(0)).getStatistics(), start);
+			return statistics;
+		} catch (Exception e) {
+			runtime.recordError(String.format("Monitoring cycle failed: %s", e.getMessage()));
+			throw e;
+		} finally {
+			runtime.recordCycle(System.currentTimeMillis() - start);
+		}
+	}
+
+	/**
+	 * Retrieve the statistics of one monitoring cycle and submit the channel info sweep
+	 *
+	 * @return list holding the extended statistics of the device
+	 * @throws Exception when fail to get UDP response
+	 */
+	private List<Statistics> retrieveMultipleStatistics() throws Exception {
 		if (logger.isDebugEnabled()) {
 			logger.debug(String.format("Perform retrieving statistics at host: %s with port: %s."
 					+ " Is getMultipleStatistics after controlProperty: %s", this.host, this.port, isGetMultipleStatsAfterControl));
 		}
-		if (!channelErrorMessagesList.isEmpty()) {
-			synchronized (channelErrorMessagesList) {
-				String errorMessage = channelErrorMessagesList.stream().map(Object::toString)
-						.collect(Collectors.joining("\n"));
-				channelErrorMessagesList.clear();
-				throw new ResourceNotReachableException(errorMessage);
-			}
+		if (pingProbe && probeReachability() == ReachabilityProbe.Outcome.UNREACHABLE) {
+			// The cycle fails like a UDP timeout would, so the device is reported offline, without sending any UDP request
+			int lastRttMs = reachabilityProbe.getLastRttMs();
+			throw new ResourceNotReachableException(String.format("Device %s did not answer ping, UDP requests skipped. Last ping round-trip time: %s, ping loss: %d%%",
+					this.host, lastRttMs < 0 ? "none" : lastRttMs + " ms", reachabilityProbe.getLossPercent()));
 		}
 		// Prevent fetching all 64 channels when performing control other properties and vice versa.
 		if (localExtendedStatistics != null && isGetMultipleStatsAfterControl) {
@@ -323,28 +953,26 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 			if (!isActiveChannelControl) {
 				// Update properties that are not relating to channel info
 				populateOtherMonitoringAndControllingProperties(localStatistics, localControls);
+				populateReachabilityStatistics(localStatistics);
 				localExtendedStatistics.setStatistics(localStatistics);
 				localExtendedStatistics.setControllableProperties(localControls);
 			}
-			// else condition: data already be handled in handleActiveChannelControl/handleActiveChannelControlWithFilter
+			// else condition: data already be handled in handleActiveChannelControl
 			isGetMultipleStatsAfterControl = false;
 			return Collections.singletonList(localExtendedStatistics);
 		}
 		ExtendedStatistics extendedStatistics = new ExtendedStatistics();
-		Map<String, String> statistics = new HashMap<>();
+		ChannelTableStatistics statistics = new ChannelTableStatistics();
 		List<AdvancedControllableProperty> controls = new ArrayList<>();
 		populateMonitoringAnControllingProperties(statistics, controls);
 		extendedStatistics.setStatistics(statistics);
 		extendedStatistics.setControllableProperties(controls);
 		localExtendedStatistics = extendedStatistics;
-		// Submit 4 threads to start fetching the channel info, each thread is responsible for 16 channels.
-		List<Integer> filterChannelIndexValues = handleListChannelIndex();
-		executorService = Executors.newFixedThreadPool(4);
+		localChannelTableStatistics = statistics;
+		// Submit one sweep to fetch the missing and stale channel info, its requests are pipelined in the adaptive request window of the device.
+		BitSet filterChannelIndexValues = channelIndexFilter;
 		if (filterChannelIndexValues.isEmpty()) {
-			submitThread(1, 16);
-			submitThread(17, 32);
-			submitThread(33, 48);
-			submitThread(49, 64);
+			submitChannelDataLoader(ALL_CHANNEL_INDEXES, false);
 		} else {
 			filterChannelInfo(filterChannelIndexValues);
 		}
@@ -352,186 +980,167 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	}
 
 	/**
-	 * Handle control active channel index. This method is used to handle every statistics locally -
-	 * to save the number of requests made to the device.
+	 * Set the active channel index of the device.
+	 * The device also answers NACK to a request that was cut on the way, so on NACK the index is read back and the control only fails
+	 * if the device is not on the requested index.
 	 *
 	 * @param value value of the new index
-	 * @param currentActiveChannelIndex current active channel index
-	 * @throws Exception if fail to get UDP response
+	 * @return the new index
+	 * @throws Exception if the device is not on the requested index
 	 */
-	private void handleActiveChannelControl(String value, String currentActiveChannelIndex) throws Exception {
+	private int setActiveChannelIndex(String value) throws Exception {
 		int intValue = Integer.parseInt(value);
-		String response = getUDPResponse(QSCUndnemoUDPCommand.SET_ACT_CH_IDX.getCommand() + QSCUndnemoConstant.SPACE + intValue);
-		if (QSCUndnemoConstant.NACK.equals(response)) {
+		String response = getUDPResponse(QSCUndnemoUDPCommand.SET_ACT_CH_IDX, intValue);
+		if (QSCUndnemoConstant.NACK.equals(response) && Integer.parseInt(retrieveActiveChannelIndex()) != intValue) {
 			throw new CommandFailureException(this.getAddress(), QSCUndnemoUDPCommand.SET_ACT_CH_IDX.getCommand(), String.format("Fail to set active channel index with value: %s", value));
 		}
-		// From this line to the end of the method is used to switch places between two groups of stat/control "old active channel" and "new active channel" -
-		// This is because we want to prevent unnecessary fetch all 64 channels.
-		Map<String, String> stats = localExtendedStatistics.getStatistics();
-		String newActiveIndexKey = String.format("Channel %02d", intValue);
-		String oldActiveIndexKey = QSCUndnemoConstant.ACTIVE_CHANNEL;
-		String oldActiveIndexEnableState = stats.get(String.format("%s#%s", oldActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE.getName()));
-		String oldActiveIndexDeviceName = stats.get(String.format("%s#%s", oldActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName()));
-		String oldActiveIndexChannelName = stats.get(String.format("%s#%s", oldActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME.getName()));
-		String oldActiveIndexDisplayName = stats.get(String.format("%s#%s", oldActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME.getName()));
-		String oldActiveIndexGroupName;
-		int intCurrentActiveChannelIndex = Integer.parseInt(currentActiveChannelIndex);
-		oldActiveIndexGroupName = String.format("Channel %02d", intCurrentActiveChannelIndex);
-		String newActiveIndexEnableStatKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE.getName());
-		String newActiveIndexDeviceNameKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName());
-		String newActiveIndexChannelNameKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME.getName());
-		String newActiveIndexDisplayNameKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME.getName());
-
-		String newActiveIndexEnableState = stats.get(newActiveIndexEnableStatKey);
-		String newActiveIndexDeviceName = stats.get(newActiveIndexDeviceNameKey);
-		String newActiveIndexChannelName = stats.get(newActiveIndexChannelNameKey);
-		String newActiveIndexDisplayName = stats.get(newActiveIndexDisplayNameKey);
-
-		String groupName = QSCUndnemoConstant.ACTIVE_CHANNEL;
-		// Remove previous non-active group.
-		stats.remove(newActiveIndexEnableStatKey);
-		stats.remove(newActiveIndexDeviceNameKey);
-		stats.remove(newActiveIndexChannelNameKey);
-		stats.remove(newActiveIndexDisplayNameKey);
-
 		String formattedValue = String.format("%02d", intValue);
-		List<AdvancedControllableProperty> controllableProperties = localExtendedStatistics.getControllableProperties();
-		// Update dropdown list without None value
-		controllableProperties.removeIf(control -> control.getName().equals(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName()));
-		List<String> values = new ArrayList<>();
-		int[] intArray = IntStream.rangeClosed(1, 64).toArray();
-		for (int j : intArray) {
-			values.add(String.format("%02d", j));
-		}
-		controllableProperties.add(createDropdown(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName(), values, formattedValue));
-		// Put statistics for ActiveChannel group
-		stats.put(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName(), formattedValue);
-		stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE.getName()), newActiveIndexEnableState);
-		stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName()), newActiveIndexDeviceName);
-		stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME.getName()), newActiveIndexChannelName);
-		stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME.getName()), newActiveIndexDisplayName);
-
-		// Put statistics for new Channel group
-		stats.put(String.format("%s#%s", oldActiveIndexGroupName, QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE.getName()), oldActiveIndexEnableState);
-		stats.put(String.format("%s#%s", oldActiveIndexGroupName, QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName()), oldActiveIndexDeviceName);
-		stats.put(String.format("%s#%s", oldActiveIndexGroupName, QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME.getName()), oldActiveIndexChannelName);
-		stats.put(String.format("%s#%s", oldActiveIndexGroupName, QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME.getName()), oldActiveIndexDisplayName);
-
-		localExtendedStatistics.setStatistics(stats);
-		localExtendedStatistics.setControllableProperties(controllableProperties);
+		statePublisher.publishIfChanged(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX, 0, formattedValue);
+		lastActiveChannelIndex = formattedValue;
+		return intValue;
 	}
 
 	/**
-	 * Handle control active channel index when currentActiveChannelIndex = 0. In this case, ActiveChannel group only -
-	 * contains a dropdown list with default value = None.
-	 * to save the number of requests made to the device.
+	 * Handle control active channel index. This method is used to handle every statistics locally -
+	 * to save the number of requests made to the device: the "ActiveChannel" group of the channel table is moved to the new channel,
+	 * the previous active channel is published under its channel group again and the dropdown keeps its options.
+	 * The channel table is only rendered again when the filter option drops the previous active channel or the new one is not retrieved yet.
 	 *
 	 * @param value value of the new index
+	 * @param indexList filter indexes, empty when every channel is monitored
 	 * @throws Exception if fail to get UDP response
 	 */
-	private void handleActiveChannelControlWithNoneCurrentIndex(String value) throws Exception {
-		int intValue = Integer.parseInt(value);
-		String response = getUDPResponse(QSCUndnemoUDPCommand.SET_ACT_CH_IDX.getCommand() + QSCUndnemoConstant.SPACE + intValue);
-		if (QSCUndnemoConstant.NACK.equals(response)) {
-			throw new CommandFailureException(this.getAddress(), QSCUndnemoUDPCommand.SET_ACT_CH_IDX.getCommand(), String.format("Fail to set active channel index with value: %s", value));
+	private void handleActiveChannelControl(String value, BitSet indexList) throws Exception {
+		int intValue = setActiveChannelIndex(value);
+		ChannelTableStatistics stats = localChannelTableStatistics;
+		if (localExtendedStatistics == null || stats == null) {
+			return;
 		}
-		Map<String, String> stats = localExtendedStatistics.getStatistics();
-		List<AdvancedControllableProperty> controls = localExtendedStatistics.getControllableProperties();
-		String formattedValue = String.format("%02d", intValue);
-		// Update dropdown list without None value
-		controls.removeIf(control -> control.getName().equals(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName()));
-		List<String> values = new ArrayList<>();
-		int[] intArray = IntStream.rangeClosed(1, 64).toArray();
-		for (int j : intArray) {
-			values.add(String.format("%02d", j));
-		}
-		controls.add(createDropdown(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName(), values, formattedValue));
-		// Switch places between ActiveChannel and Channel group.
-		String newActiveIndexKey = String.format("Channel %02d", intValue);
-		String newActiveIndexEnableStatKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE.getName());
-		String newActiveIndexDeviceNameKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName());
-		String newActiveIndexChannelNameKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME.getName());
-		String newActiveIndexDisplayNameKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME.getName());
-
-		String newActiveIndexEnableState = stats.get(newActiveIndexEnableStatKey);
-		String newActiveIndexDeviceName = stats.get(newActiveIndexDeviceNameKey);
-		String newActiveIndexChannelName = stats.get(newActiveIndexChannelNameKey);
-		String newActiveIndexDisplayName = stats.get(newActiveIndexDisplayNameKey);
-
-		// Remove previous non-active group.
-		stats.remove(newActiveIndexEnableStatKey);
-		stats.remove(newActiveIndexDeviceNameKey);
-		stats.remove(newActiveIndexChannelNameKey);
-		stats.remove(newActiveIndexDisplayNameKey);
-
-		String groupName = QSCUndnemoConstant.ACTIVE_CHANNEL;
+		int previousIndex = stats.getActiveIndex();
+		boolean previousIndexFiltered = !indexList.isEmpty() && previousIndex != 0 && !indexList.get(previousIndex);
+		if (indexList.isEmpty() || (indexList.get(intValue) && !previousIndexFiltered)) {
+			stats.setActiveIndex(intValue);
+		} else {
+			if (!indexList.get(intValue)) {
+				List<Integer> listOfChannelIndex = new ArrayList<>();
+				listOfChannelIndex.add(intValue);
+				List<Integer> failedIndexes;
+				try {
+					failedIndexes = retrieveChannelInfo(listOfChannelIndex);
+				} catch (Exception e) {
+					throw new CommandFailureException(this.getAddress(), QSCUndnemoUDPCommand.GET_CMD_CH_INFO.getCommand(), e.getMessage(), e);
+				}
+				if (!failedIndexes.isEmpty() && !channelInfoMap.containsKey(intValue)) {
+					throw new CommandFailureException(this.getAddress(), QSCUndnemoUDPCommand.GET_CMD_CH_INFO.getCommand(), String.format("Fail to get channel info at index: %s", failedIndexes));
+				}
+			}
+			synchronized (channelInfoMap) {
+				// Remove the previous active channel if it is filtered out
+				channelInfoMap.keySet().removeIf(currentIndex -> !indexList.get(currentIndex) && currentIndex != intValue);
+				stats.setChannels(channelInfoMap, intValue, System.currentTimeMillis());
+			}
+		}
+		String formattedValue = CHANNEL_INDEX_OPTIONS[intValue - 1];
 		stats.put(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName(), formattedValue);
-		stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE.getName()), newActiveIndexEnableState);
-		stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName()), newActiveIndexDeviceName);
-		stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME.getName()), newActiveIndexChannelName);
-		stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME.getName()), newActiveIndexDisplayName);
-
-		localExtendedStatistics.setStatistics(stats);
-		localExtendedStatistics.setControllableProperties(controls);
+		updateActiveChannelDropdown(localExtendedStatistics.getControllableProperties(), indexList, intValue, formattedValue);
 	}
 
 	/**
-	 * Handle control active channel index with filter option. This method is used to handle every statistics locally -
-	 * to save the number of requests made to the device.
+	 * Submit a {@link QSCChannelDataLoader} for the channels that are missing or older than {@link #channelInfoRefreshInterval}.
+	 * Channels in {@link #channelRetryQueue} are only requested once their backoff has elapsed,
+	 * stale channels loaded from the warm start file are only requested after {@link #staggeredSweepTime}.
+	 * At most {@link #channelInfoPollBudget} channels are requested, the oldest first.
 	 *
-	 * @param value value of new active channel
-	 * @param indexList list of filter indexes
-	 * @throws Exception if fail to get UDP response
+	 * @param listIndexes indexes to publish
+	 * @param forceRefresh true to request every channel regardless of its age and retry backoff
+	 * @return true if a sweep was submitted
 	 */
-	private void handleActiveChannelControlWithFilter(String value, List<Integer> indexList) throws Exception {
-		int intValue = Integer.parseInt(value);
-		String response = getUDPResponse(QSCUndnemoUDPCommand.SET_ACT_CH_IDX.getCommand() + QSCUndnemoConstant.SPACE + intValue);
-		if (QSCUndnemoConstant.NACK.equals(response)) {
-			throw new CommandFailureException(this.getAddress(), QSCUndnemoUDPCommand.SET_ACT_CH_IDX.getCommand(), String.format("Fail to set active channel index with value: %s", value));
+	private synchronized boolean submitChannelDataLoader(BitSet listIndexes, boolean forceRefresh) {
+		if (channelDataLoaderFuture != null && !channelDataLoaderFuture.isDone()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("Previous channel info sweep is still running, skip submitting a new one");
+			}
+			return false;
 		}
-		Map<String, String> stats = localExtendedStatistics.getStatistics();
-		List<AdvancedControllableProperty> controls = localExtendedStatistics.getControllableProperties();
-		if (indexList.contains(intValue)) {
-			String newActiveIndexKey = String.format("Channel %02d", intValue);
-			String oldNonActiveEnableStatKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE.getName());
-			String oldNonActiveDeviceNameKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName());
-			String oldNonActiveChannelNameKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME.getName());
-			String oldNonActiveDisplayNameKey = String.format("%s#%s", newActiveIndexKey, QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME.getName());
-			// Remove previous non-active group.
-			stats.remove(oldNonActiveEnableStatKey);
-			stats.remove(oldNonActiveDeviceNameKey);
-			stats.remove(oldNonActiveChannelNameKey);
-			stats.remove(oldNonActiveDisplayNameKey);
-		} else {
-			List<Integer> listOfChannelIndex = new ArrayList<>();
-			listOfChannelIndex.add(intValue);
-			try {
-				retrieveChannelInfo(listOfChannelIndex);
-			} catch (Exception e) {
-				throw new CommandFailureException(this.getAddress(), QSCUndnemoUDPCommand.GET_CMD_CH_INFO.getCommand(), e.getMessage(), e);
+		long now = System.currentTimeMillis();
+		boolean staggered = now < staggeredSweepTime;
+		List<Integer> indexesToRefresh = new ArrayList<>();
+		for (int index = listIndexes.nextSetBit(1); index >= 0; index = listIndexes.nextSetBit(index + 1)) {
+			if (forceRefresh) {
+				indexesToRefresh.add(index);
+				continue;
+			}
+			if (channelRetryQueue.isPending(index)) {
+				if (channelRetryQueue.pollDue(index, now)) {
+					indexesToRefresh.add(index);
+				}
+				continue;
+			}
+			ChannelInfo channelInfo = channelInfoMap.get(index);
+			if (channelInfo == null || !staggered && now - channelInfo.getLastUpdated() >= channelInfoRefreshInterval) {
+				indexesToRefresh.add(index);
 			}
 		}
-		// Remove old dropdown list.
-		controls.removeIf(control -> control.getName().equals(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName()));
-		populateChannelInfoMonitoringAndControllingProperties(stats, controls);
-		localExtendedStatistics.setStatistics(stats);
-		localExtendedStatistics.setControllableProperties(controls);
+		if (indexesToRefresh.size() > channelInfoPollBudget) {
+			indexesToRefresh.sort(Comparator.comparingLong(this::getChannelInfoLastUpdated));
+			indexesToRefresh = new ArrayList<>(indexesToRefresh.subList(0, channelInfoPollBudget));
+			Collections.sort(indexesToRefresh);
+		}
+		runtime.recordChannelCache(listIndexes.cardinality() - indexesToRefresh.size(), indexesToRefresh.size());
+		if (indexesToRefresh.isEmpty()) {
+			if (logger.isDebugEnabled()) {
+				logger.debug("All channel info are up to date, skip submitting a new sweep");
+			}
+			return false;
+		}
+		if (executorService == null) {
+			executorService = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+		}
+		channelDataLoader = new QSCChannelDataLoader(indexesToRefresh);
+		channelDataLoaderFuture = executorService.submit(channelDataLoader);
+		return true;
 	}
 
+	/**
+	 * Get the time a channel info was last retrieved
+	 *
+	 * @param index channel index
+	 * @return time in milliseconds, 0 if the channel was never retrieved
+	 */
+	private long getChannelInfoLastUpdated(Integer index) {
+		ChannelInfo channelInfo = channelInfoMap.get(index);
+		return channelInfo == null ? 0 : channelInfo.getLastUpdated();
+	}
 
 	/**
-	 * Prepare list of index before submitting.
+	 * Request every channel info of the current filter again now, regardless of its age and retry backoff
 	 *
-	 * @param beginIndex begin index of channel info
-	 * @param endIndex end index of channel info
+	 * @return true if a sweep was submitted, false if a sweep is already running or the adapter has not been initialized
 	 */
-	private void submitThread(int beginIndex, int endIndex) {
-		List<Integer> listIndexes = new ArrayList<>();
-		for (int i = beginIndex; i <= endIndex; i++) {
-			listIndexes.add(i);
+	boolean resweepChannelInfo() {
+		if (!isInitialized()) {
+			return false;
 		}
-		channelDataLoader = new QSCChannelDataLoader(listIndexes);
-		executorService.submit(channelDataLoader);
+		BitSet listIndexes = channelIndexFilter;
+		return submitChannelDataLoader(listIndexes.isEmpty() ? ALL_CHANNEL_INDEXES : listIndexes, true);
+	}
+
+	/**
+	 * Get the number of channel info sweeps waiting in the executor queue
+	 *
+	 * @return queue depth, 0 before the first sweep
+	 */
+	synchronized int getExecutorQueueDepth() {
+		return executorService == null ? 0 : executorService.getQueue().size();
+	}
+
+	/**
+	 * Check whether a channel info sweep is running or queued
+	 *
+	 * @return true if the last submitted sweep is not finished
+	 */
+	synchronized boolean isChannelSweepRunning() {
+		return channelDataLoaderFuture != null && !channelDataLoaderFuture.isDone();
 	}
 
 	/**
@@ -547,45 +1156,190 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	/**
 	 * Get list of channel every 30 seconds
 	 * UDP Command: CH_INFO + index of the channel
-	 * Total request every 30 seconds: 64 requests
-	 * Success: populate data for {@link #channelInfoList}
+	 * Total request every 30 seconds: up to 64 requests, sent in windows of up to {@link #getMaxRequestsInFlight()} requests
+	 * Success: populate data for {@link #channelInfoMap}
 	 *
 	 * @param listIndexes list of indexes
-	 * @throws Exception if fail to get response
+	 * @return indexes that were not retrieved (no reply, NACK or malformed reply), their previous data is left untouched and they are queued in {@link #channelRetryQueue}
+	 * @throws Exception if fail to send the requests
 	 */
-	private void retrieveChannelInfo(List<Integer> listIndexes) throws Exception {
+	List<Integer> retrieveChannelInfo(List<Integer> listIndexes) throws Exception {
+		List<byte[]> requests = new ArrayList<>(listIndexes.size());
+		int[] positionByIndex = new int[65];
+		Arrays.fill(positionByIndex, -1);
 		for (Integer listIndex : listIndexes) {
-			String rawChannelInfos = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_CH_INFO.getCommand() + QSCUndnemoConstant.SPACE + listIndex);
-			if (rawChannelInfos.contains(QSCUndnemoConstant.ACK)) {
-				String[] channelInfos = parseUDPResponse(rawChannelInfos);
-				if (channelInfos.length != 5) {
-					throw new ResourceNotReachableException(String.format("Fail to get channel info at index: %s", listIndex));
+			positionByIndex[listIndex] = requests.size();
+			requests.add(QSCUndnemoCommandEncoder.encode(QSCUndnemoUDPCommand.GET_CMD_CH_INFO, listIndex));
+		}
+		BitSet received = new BitSet(65);
+		BitSet updated = new BitSet(65);
+		sendPipelined(requests, (buffer, offset, length) -> {
+			if (!isComplete(buffer, offset, length)) {
+				// Cut on the way, the request it answers is sent again with the unanswered ones
+				return PipelinedResponseHandler.UNMATCHED;
+			}
+			String rawChannelInfos = ACK_RESPONSE_DECODER.decode(buffer, offset, length);
+			if (!rawChannelInfos.contains(QSCUndnemoConstant.CH_INFO)) {
+				// Either a NACK for one of the pending requests or a late reply of another command
+				if (QSCUndnemoConstant.NACK.equals(rawChannelInfos)) {
+					return PipelinedResponseHandler.UNATTRIBUTED_FAILURE;
 				}
-				String channelInfoIndex = channelInfos[0];
-				String enableState = channelInfos[1];
-				String deviceName = channelInfos[2];
-				deviceName = deviceName.replace(QSCUndnemoConstant.QUOTE, QSCUndnemoConstant.EMPTY);
-				String channelName = channelInfos[3];
-				channelName = channelName.replace(QSCUndnemoConstant.QUOTE, QSCUndnemoConstant.EMPTY);
-				String displayName = channelInfos[4];
-				displayName = displayName.replace(QSCUndnemoConstant.QUOTE, QSCUndnemoConstant.EMPTY);
-				ChannelInfo channelInfo = new ChannelInfo(channelInfoIndex, enableState, deviceName, channelName, displayName);
-				channelInfoList.add(channelInfo);
+				return PipelinedResponseHandler.UNMATCHED;
+			}
+			String[] channelInfos;
+			try {
+				channelInfos = parseUDPResponse(rawChannelInfos);
+			} catch (RuntimeException e) {
+				return PipelinedResponseHandler.UNATTRIBUTED_FAILURE;
+			}
+			int index = channelInfos[0].matches(QSCUndnemoConstant.REGEX_IS_INTEGER) ? Integer.parseInt(channelInfos[0]) : -1;
+			if (index < 1 || index > 64 || positionByIndex[index] < 0 || received.get(index)) {
+				return PipelinedResponseHandler.UNMATCHED;
+			}
+			received.set(index);
+			if (channelInfos.length != 5) {
+				return positionByIndex[index];
+			}
+			String channelInfoIndex = channelInfos[0];
+			String enableState = channelInfos[1];
+			String deviceName = channelInfos[2];
+			deviceName = deviceName.replace(QSCUndnemoConstant.QUOTE, QSCUndnemoConstant.EMPTY);
+			String channelName = channelInfos[3];
+			channelName = channelName.replace(QSCUndnemoConstant.QUOTE, QSCUndnemoConstant.EMPTY);
+			String displayName = channelInfos[4];
+			displayName = displayName.replace(QSCUndnemoConstant.QUOTE, QSCUndnemoConstant.EMPTY);
+			ChannelInfo channelInfo = new ChannelInfo(channelInfoIndex, enableState, deviceName, channelName, displayName);
+			channelInfo.setLastUpdated(System.currentTimeMillis());
+			channelInfoMap.put(index, channelInfo);
+			channelsRefreshedCount.incrementAndGet();
+			updated.set(index);
+			publishChannelInfoChanges(channelInfo);
+			return positionByIndex[index];
+		});
+		List<Integer> failedIndexes = new ArrayList<>();
+		long now = System.currentTimeMillis();
+		for (Integer listIndex : listIndexes) {
+			if (updated.get(listIndex)) {
+				channelRetryQueue.onSuccess(listIndex);
+			} else {
+				channelRetryQueue.onFailure(listIndex, now);
+				failedIndexes.add(listIndex);
 			}
 		}
+		return failedIndexes;
+	}
+
+	/**
+	 * Publish changes of enable state and names of a channel
+	 *
+	 * @param channelInfo newly retrieved channel info
+	 */
+	private void publishChannelInfoChanges(ChannelInfo channelInfo) {
+		if (!channelInfo.getChannelInfoIndex().matches(QSCUndnemoConstant.REGEX_IS_INTEGER)) {
+			return;
+		}
+		int index = Integer.parseInt(channelInfo.getChannelInfoIndex());
+		statePublisher.publishIfChanged(QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE, index, channelInfo.getEnableState());
+		statePublisher.publishIfChanged(QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME, index, channelInfo.getDeviceName());
+		statePublisher.publishIfChanged(QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME, index, channelInfo.getChannelName());
+		statePublisher.publishIfChanged(QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME, index, channelInfo.getDisplayName());
 	}
 
 	/**
 	 * Populate monitoring and controlling properties
-	 * Number of request per monitoring cycle: 70 requests
+	 * Number of request per monitoring cycle: up to 70 requests
 	 *
 	 * @param stats Map of statistics
 	 * @param controls List of AdvancedControllableProperty
-	 * @throws Exception when fail to get UDP response {@link QSCUndnemoCommunicator#getUDPResponse(String)}
+	 * @throws Exception when fail to get UDP response {@link QSCUndnemoCommunicator#getUDPResponse(QSCUndnemoUDPCommand)}
 	 */
-	private void populateMonitoringAnControllingProperties(Map<String, String> stats, List<AdvancedControllableProperty> controls) throws Exception {
+	private void populateMonitoringAnControllingProperties(ChannelTableStatistics stats, List<AdvancedControllableProperty> controls) throws Exception {
 		populateOtherMonitoringAndControllingProperties(stats, controls);
 		populateChannelInfoMonitoringAndControllingProperties(stats, controls);
+		populateChannelRetryStatistics(stats);
+		populateReachabilityStatistics(stats);
+	}
+
+	/**
+	 * Ping the device before a monitoring cycle
+	 *
+	 * @return outcome of the probe
+	 */
+	private ReachabilityProbe.Outcome probeReachability() {
+		ReachabilityProbe.Outcome outcome = reachabilityProbe.probe(this.host, pingTimeout);
+		if (outcome != ReachabilityProbe.Outcome.UNAVAILABLE) {
+			pingUnavailable = false;
+		} else if (!pingUnavailable) {
+			pingUnavailable = true;
+			logger.warn(String.format("Cannot ping %s from this host, monitoring cycles are sent without pre-flight probe", this.host));
+		}
+		return outcome;
+	}
+
+	/**
+	 * Populate round-trip time and loss of {@link #reachabilityProbe}, when {@link #pingProbe} is enabled and the last probe could send pings
+	 *
+	 * @param stats Map of statistics
+	 */
+	private void populateReachabilityStatistics(Map<String, String> stats) {
+		if (!pingProbe || pingUnavailable) {
+			return;
+		}
+		int lastRttMs = reachabilityProbe.getLastRttMs();
+		if (lastRttMs >= 0) {
+			stats.put(QSCUndnemoMetric.PING_ROUND_TRIP_TIME.getName(), String.valueOf(lastRttMs));
+		}
+		stats.put(QSCUndnemoMetric.PING_PACKET_LOSS.getName(), String.valueOf(reachabilityProbe.getLossPercent()));
+	}
+
+	/**
+	 * Send one ping to the device
+	 *
+	 * @param host host name or address
+	 * @param timeoutMs time to wait for the reply
+	 * @return response of the ping
+	 */
+	protected IcmpPingResponse ping(String host, int timeoutMs) {
+		return IcmpPingUtil.executePingRequest(host, 32, timeoutMs);
+	}
+
+	/**
+	 * Populate the freshness and cost of the monitoring cycle, on the statistics served from the cache after a control too.
+	 * Channels refreshed and requests are counted since the end of the previous cycle, so the sweep submitted by a cycle is counted by the next one.
+	 *
+	 * @param stats Map of statistics
+	 * @param cycleStart time the cycle started in milliseconds
+	 */
+	private void populateCycleStatistics(Map<String, String> stats, long cycleStart) {
+		long now = System.currentTimeMillis();
+		stats.put(QSCUndnemoMetric.LAST_CYCLE_DURATION.getName(), String.valueOf(now - cycleStart));
+		long oldestUpdate = Long.MAX_VALUE;
+		synchronized (channelInfoMap) {
+			for (ChannelInfo channelInfo : channelInfoMap.values()) {
+				oldestUpdate = Math.min(oldestUpdate, channelInfo.getLastUpdated());
+			}
+		}
+		if (oldestUpdate != Long.MAX_VALUE) {
+			stats.put(QSCUndnemoMetric.CHANNEL_TABLE_AGE.getName(), String.valueOf(Math.max(0, now - oldestUpdate)));
+		}
+		long channelsRefreshed = channelsRefreshedCount.get();
+		stats.put(QSCUndnemoMetric.CHANNELS_REFRESHED_THIS_CYCLE.getName(), String.valueOf(channelsRefreshed - previousChannelsRefreshedCount));
+		previousChannelsRefreshedCount = channelsRefreshed;
+		long sentDatagrams = getSentDatagramCount();
+		stats.put(QSCUndnemoMetric.REQUESTS_THIS_CYCLE.getName(), String.valueOf(sentDatagrams - previousSentDatagramCount));
+		previousSentDatagramCount = sentDatagrams;
+	}
+
+	/**
+	 * Populate counters of {@link #channelRetryQueue}
+	 *
+	 * @param stats Map of statistics
+	 */
+	private void populateChannelRetryStatistics(Map<String, String> stats) {
+		stats.put(QSCUndnemoMetric.CHANNEL_RETRY_PENDING.getName(), String.valueOf(channelRetryQueue.getPendingCount()));
+		stats.put(QSCUndnemoMetric.CHANNEL_RETRY_FAILURES.getName(), String.valueOf(channelRetryQueue.getFailureCount()));
+		stats.put(QSCUndnemoMetric.CHANNEL_RETRY_ATTEMPTS.getName(), String.valueOf(channelRetryQueue.getRetryCount()));
+		stats.put(QSCUndnemoMetric.CHANNEL_RETRY_RECOVERED.getName(), String.valueOf(channelRetryQueue.getRecoveredCount()));
 	}
 
 	/**
@@ -600,134 +1354,215 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 		if (logger.isDebugEnabled()) {
 			logger.debug("Populating data for Version Info, Speaker Mute, Volume, Button Brightness, Display Brightness");
 		}
-		String rawVersionInfoUDPResponse = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_VERSION.getCommand());
-		if (rawVersionInfoUDPResponse.contains(QSCUndnemoConstant.ACK)) {
-			stats.put(QSCUndnemoMetric.SOFTWARE_VERSION_INFO.getName(), parseUDPResponse(rawVersionInfoUDPResponse)[0]);
+		String rawVersionInfoUDPResponse = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_VERSION);
+		if (rawVersionInfoUDPResponse.startsWith(QSCUndnemoConstant.ACK)) {
+			String versionInfo = parseUDPResponse(rawVersionInfoUDPResponse)[0];
+			stats.put(QSCUndnemoMetric.SOFTWARE_VERSION_INFO.getName(), versionInfo);
+			rememberScalarValue(QSCUndnemoMetric.SOFTWARE_VERSION_INFO, versionInfo);
+		} else {
+			putWarmStartValue(stats, QSCUndnemoMetric.SOFTWARE_VERSION_INFO);
 		}
 
-		String rawCurrentSpeakerMuteStatus = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_SPKR_MUTE.getCommand());
-		if (rawCurrentSpeakerMuteStatus.contains(QSCUndnemoConstant.ACK)) {
-			String currentSpeakerMuteStatus = parseUDPResponse(rawCurrentSpeakerMuteStatus)[0].trim();
+		String rawCurrentSpeakerMuteStatus = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_SPKR_MUTE);
+		String currentSpeakerMuteStatus = parseIntegerValue(rawCurrentSpeakerMuteStatus);
+		if (currentSpeakerMuteStatus != null) {
 			stats.put(QSCUndnemoMetric.SPEAKER_MUTE.getName(), currentSpeakerMuteStatus);
+			rememberScalarValue(QSCUndnemoMetric.SPEAKER_MUTE, currentSpeakerMuteStatus);
+			statePublisher.publishIfChanged(QSCUndnemoMetric.SPEAKER_MUTE, 0, currentSpeakerMuteStatus);
 			controls.add(createSwitch(QSCUndnemoMetric.SPEAKER_MUTE.getName(), Integer.parseInt(currentSpeakerMuteStatus), "Off", "On"));
+		} else {
+			removeProperty(stats, controls, QSCUndnemoMetric.SPEAKER_MUTE);
+			putWarmStartValue(stats, QSCUndnemoMetric.SPEAKER_MUTE);
 		}
 
-		String rawCurrentVolume = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_VOLUME.getCommand());
-		if (rawCurrentVolume.contains(QSCUndnemoConstant.ACK)) {
-			String currentVolume = parseUDPResponse(rawCurrentVolume)[0];
+		String rawCurrentVolume = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_VOLUME);
+		String currentVolume = parseIntegerValue(rawCurrentVolume);
+		if (currentVolume != null) {
 			stats.put(QSCUndnemoMetric.VOLUME.getName(), currentVolume);
+			rememberScalarValue(QSCUndnemoMetric.VOLUME, currentVolume);
+			statePublisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, currentVolume);
 			controls.add(createSlider(QSCUndnemoMetric.VOLUME.getName(), "1", "10", 1f, 10f, Float.valueOf(currentVolume)));
+		} else {
+			removeProperty(stats, controls, QSCUndnemoMetric.VOLUME);
+			putWarmStartValue(stats, QSCUndnemoMetric.VOLUME);
 		}
 
-		String rawCurrentButtonBrightnessValue = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_GBB.getCommand());
-		if (rawCurrentButtonBrightnessValue.contains(QSCUndnemoConstant.ACK)) {
-			String currentButtonBrightnessValue = parseUDPResponse(rawCurrentButtonBrightnessValue)[0];
+		String rawCurrentButtonBrightnessValue = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_GBB);
+		String currentButtonBrightnessValue = parseIntegerValue(rawCurrentButtonBrightnessValue);
+		if (currentButtonBrightnessValue != null) {
 			stats.put(QSCUndnemoMetric.BUTTON_BRIGHTNESS.getName(), currentButtonBrightnessValue);
+			rememberScalarValue(QSCUndnemoMetric.BUTTON_BRIGHTNESS, currentButtonBrightnessValue);
+			statePublisher.publishIfChanged(QSCUndnemoMetric.BUTTON_BRIGHTNESS, 0, currentButtonBrightnessValue);
 			controls.add(createSlider(QSCUndnemoMetric.BUTTON_BRIGHTNESS.getName(), "0", "10", 0f, 10f, Float.valueOf(currentButtonBrightnessValue)));
+		} else {
+			removeProperty(stats, controls, QSCUndnemoMetric.BUTTON_BRIGHTNESS);
+			putWarmStartValue(stats, QSCUndnemoMetric.BUTTON_BRIGHTNESS);
 		}
 
-		String rawCurrentDisplayBrightnessValue = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_GDB.getCommand());
-		if (rawCurrentDisplayBrightnessValue.contains(QSCUndnemoConstant.ACK)) {
-			String currentDisplayBrightnessValue = parseUDPResponse(rawCurrentDisplayBrightnessValue)[0];
+		String rawCurrentDisplayBrightnessValue = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_GDB);
+		String currentDisplayBrightnessValue = parseIntegerValue(rawCurrentDisplayBrightnessValue);
+		if (currentDisplayBrightnessValue != null) {
 			stats.put(QSCUndnemoMetric.DISPLAY_BRIGHTNESS.getName(), currentDisplayBrightnessValue);
+			rememberScalarValue(QSCUndnemoMetric.DISPLAY_BRIGHTNESS, currentDisplayBrightnessValue);
+			statePublisher.publishIfChanged(QSCUndnemoMetric.DISPLAY_BRIGHTNESS, 0, currentDisplayBrightnessValue);
 			controls.add(createSlider(QSCUndnemoMetric.DISPLAY_BRIGHTNESS.getName(), "0", "10", 0f, 10f, Float.valueOf(currentDisplayBrightnessValue)));
+		} else {
+			removeProperty(stats, controls, QSCUndnemoMetric.DISPLAY_BRIGHTNESS);
+			putWarmStartValue(stats, QSCUndnemoMetric.DISPLAY_BRIGHTNESS);
+		}
+	}
+
+	/**
+	 * Remember a value read from the device, it is saved with the channel table and replaces the warm start value
+	 *
+	 * @param metric metric read
+	 * @param value value read
+	 */
+	private void rememberScalarValue(QSCUndnemoMetric metric, String value) {
+		lastScalarValues.put(metric.getName(), value);
+		warmStartStatistics.remove(metric.getName());
+	}
+
+	/**
+	 * Serve the value saved by the previous run of the adapter for a metric the device has not answered for yet since the adapter started
+	 *
+	 * @param stats Map of statistics
+	 * @param metric metric that could not be read
+	 */
+	private void putWarmStartValue(Map<String, String> stats, QSCUndnemoMetric metric) {
+		String warmStartValue = warmStartStatistics.get(metric.getName());
+		if (warmStartValue != null) {
+			stats.put(metric.getName(), warmStartValue);
 		}
 	}
 
+	/**
+	 * Remove a property that could not be read in this cycle.
+	 * After a control the statistics of the previous cycle are updated in place, a value that was not read again must not be served as current.
+	 *
+	 * @param stats Map of statistics
+	 * @param controls list of AdvancedControllableProperty
+	 * @param metric metric that could not be read
+	 */
+	private void removeProperty(Map<String, String> stats, List<AdvancedControllableProperty> controls, QSCUndnemoMetric metric) {
+		stats.remove(metric.getName());
+		controls.removeIf(control -> metric.getName().equals(control.getName()));
+	}
+
 	/**
 	 * Populate channel info properties: Active channel index, channel info
 	 * Number of request per monitoring cycle: 65 (64 requests for channel info and 1 for getting active channel index)
+	 * The channel info statistics are rendered by the channel table of the statistics from a snapshot of {@link #channelInfoMap}
 	 *
 	 * @param stats Map of statistics
 	 * @param controls list of AdvancedControllableProperty
 	 * @throws Exception when fail to get UDP response
 	 */
-	private void populateChannelInfoMonitoringAndControllingProperties(Map<String, String> stats, List<AdvancedControllableProperty> controls) throws Exception {
+	void populateChannelInfoMonitoringAndControllingProperties(ChannelTableStatistics stats, List<AdvancedControllableProperty> controls) throws Exception {
 		if (logger.isDebugEnabled()) {
 			logger.debug("Populating data for channel info and active channel index");
 		}
-		List<Integer> filterChannelIndexValues = handleListChannelIndex();
-		// Only populate data to stats if channelInfoList is full of 64 channels data
-		if (channelInfoList.size() == 64 || (!filterChannelIndexValues.isEmpty() && !channelInfoList.isEmpty())) {
-			String rawCurrentActiveChannelIndex = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_ACT_CH_IDX.getCommand());
-			String currentActiveChannelIndex = getValidActiveChannelIndex(rawCurrentActiveChannelIndex);
+		BitSet filterChannelIndexValues = channelIndexFilter;
+		// Populate whatever channels were retrieved so far, each channel carries the age of its data
+		if (!channelInfoMap.isEmpty()) {
+			String currentActiveChannelIndex = retrieveActiveChannelIndex();
 			int activeChannelIndex = Integer.parseInt(currentActiveChannelIndex);
 			String formattedCurrentActiveChannelIndex;
 			if (activeChannelIndex == 0) {
 				formattedCurrentActiveChannelIndex = QSCUndnemoConstant.NONE;
 			} else {
-				formattedCurrentActiveChannelIndex = String.format("%02d", activeChannelIndex);
+				formattedCurrentActiveChannelIndex = CHANNEL_INDEX_OPTIONS[activeChannelIndex - 1];
 			}
-			// This block of codes are used to check whether active channel information is in channelInfoList when filter channel index contains validate data.
+			// This block of codes are used to check whether active channel information is in channelInfoMap when filter channel index contains validate data.
 			// When it is on normal behaviour (fetch all 64 channels) without filtering this block of code won't be applied.
-			if (!filterChannelIndexValues.isEmpty() && !channelInfoList.isEmpty()) {
-				// Make sure active channel information always in the channelInfoList. If there isn't active channel information, we only call -
+			if (!filterChannelIndexValues.isEmpty()) {
+				// Make sure active channel information always in the channelInfoMap. If there isn't active channel information, we only call -
 				// 1 request. So this won't slow getMultipleStatistics() down.
-				if (!filterChannelIndexValues.contains(activeChannelIndex) && activeChannelIndex != 0) {
+				if (!filterChannelIndexValues.get(activeChannelIndex) && activeChannelIndex != 0 && !channelInfoMap.containsKey(activeChannelIndex)) {
 					List<Integer> activeChannelInformation = new ArrayList<>();
 					activeChannelInformation.add(activeChannelIndex);
 					try {
 						retrieveChannelInfo(activeChannelInformation);
 					} catch (Exception e) {
-						throw new ResourceNotReachableException(String.format("Cannot get active channel information with index: %s", activeChannelIndex), e);
-					}
-				}
-				List<ChannelInfo> channelInfoListToBeRemoved = new ArrayList<>();
-				synchronized (channelInfoList) {
-					for (ChannelInfo channelInfo : channelInfoList) {
-						// Remove unnecessary ChannelInfo in channelInfoList
-						int currentIndex = Integer.parseInt(channelInfo.getChannelInfoIndex());
-						if (!filterChannelIndexValues.contains(currentIndex) && currentIndex != activeChannelIndex) {
-							channelInfoListToBeRemoved.add(channelInfo);
-						}
+						logger.warn(String.format("Cannot get active channel information with index: %s", activeChannelIndex), e);
 					}
 				}
-				for (ChannelInfo channelInfo : channelInfoListToBeRemoved) {
-					channelInfoList.remove(channelInfo);
+				synchronized (channelInfoMap) {
+					// Remove unnecessary ChannelInfo in channelInfoMap
+					channelInfoMap.keySet().removeIf(currentIndex -> !filterChannelIndexValues.get(currentIndex) && currentIndex != activeChannelIndex);
 				}
 			}
-			synchronized (channelInfoList) {
+			long now = System.currentTimeMillis();
+			synchronized (channelInfoMap) {
 				stats.put(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName(), formattedCurrentActiveChannelIndex);
-				List<String> values = new ArrayList<>();
-				if (activeChannelIndex == 0) {
-					values.add(QSCUndnemoConstant.NONE);
-				}
-				if (filterChannelIndexValues.isEmpty()) {
-					int[] intArray = IntStream.rangeClosed(1, 64).toArray();
-					for (int j : intArray) {
-						values.add(String.format("%02d", j));
-					}
-				} else {
-					for (Integer filterChannelIndexValue : filterChannelIndexValues) {
-						values.add(String.format("%02d", filterChannelIndexValue));
-					}
-					if (!filterChannelIndexValues.contains(activeChannelIndex) && activeChannelIndex != 0) {
-						values.add(formattedCurrentActiveChannelIndex);
-					}
-				}
-				controls.add(createDropdown(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName(), values, formattedCurrentActiveChannelIndex));
-				for (ChannelInfo channelInfo : channelInfoList) {
-					String groupName;
-					if (channelInfo.getChannelInfoIndex().equals(currentActiveChannelIndex)) {
-						groupName = QSCUndnemoConstant.ACTIVE_CHANNEL;
-					} else {
-						int intCurrentChannelInfoIndex = Integer.parseInt(channelInfo.getChannelInfoIndex());
-						groupName = String.format("Channel %02d", intCurrentChannelInfoIndex);
-					}
-					stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE.getName()), channelInfo.getEnableState());
-					stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName()), channelInfo.getDeviceName());
-					stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME.getName()), channelInfo.getChannelName());
-					stats.put(String.format("%s#%s", groupName, QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME.getName()), channelInfo.getDisplayName());
-				}
+				statePublisher.publishIfChanged(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX, 0, formattedCurrentActiveChannelIndex);
+				updateActiveChannelDropdown(controls, filterChannelIndexValues, activeChannelIndex, formattedCurrentActiveChannelIndex);
+				stats.setChannels(channelInfoMap, activeChannelIndex, now);
 			}
-			if (!isGetMultipleStatsAfterControl) {
-				// Only clear when this is in normal getMultipleStatistics() not after controlProperty()
-				if (logger.isDebugEnabled()) {
-					logger.debug("Clearing channel info list");
-				}
-				channelInfoList.clear();
+		}
+	}
+
+	/**
+	 * Update the options and value of the active channel index dropdown, the dropdown is added when there is none.
+	 * Options are shared arrays when every channel is monitored, so a control does not build any option.
+	 *
+	 * @param controls list of AdvancedControllableProperty
+	 * @param filterChannelIndexValues filter indexes, empty when every channel is monitored
+	 * @param activeChannelIndex active channel index, 0 when there is none
+	 * @param formattedActiveChannelIndex value of the dropdown
+	 */
+	private void updateActiveChannelDropdown(List<AdvancedControllableProperty> controls, BitSet filterChannelIndexValues, int activeChannelIndex,
+			String formattedActiveChannelIndex) {
+		String[] options;
+		if (filterChannelIndexValues.isEmpty()) {
+			options = activeChannelIndex == 0 ? CHANNEL_INDEX_OPTIONS_WITH_NONE : CHANNEL_INDEX_OPTIONS;
+		} else {
+			List<String> values = new ArrayList<>();
+			if (activeChannelIndex == 0) {
+				values.add(QSCUndnemoConstant.NONE);
+			}
+			for (int index = filterChannelIndexValues.nextSetBit(1); index >= 0; index = filterChannelIndexValues.nextSetBit(index + 1)) {
+				values.add(CHANNEL_INDEX_OPTIONS[index - 1]);
 			}
+			if (!filterChannelIndexValues.get(activeChannelIndex) && activeChannelIndex != 0) {
+				values.add(formattedActiveChannelIndex);
+			}
+			options = values.toArray(new String[0]);
+		}
+		for (AdvancedControllableProperty control : controls) {
+			if (QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName().equals(control.getName()) && control.getType() instanceof AdvancedControllableProperty.DropDown) {
+				AdvancedControllableProperty.DropDown dropDown = (AdvancedControllableProperty.DropDown) control.getType();
+				dropDown.setOptions(options);
+				dropDown.setLabels(options);
+				control.setValue(formattedActiveChannelIndex);
+				control.setTimestamp(new Date());
+				return;
+			}
+		}
+		controls.add(createDropdown(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName(), options, formattedActiveChannelIndex));
+	}
+
+	/**
+	 * Retrieve the active channel index from the device.
+	 * The device also answers NACK to a request that was cut on the way, so the index is asked again once before the NACK is trusted,
+	 * and the last index confirmed by the device is kept when both attempts are answered with NACK.
+	 *
+	 * @return valid active channel index, "0" when there is none
+	 * @throws Exception when fail to get UDP response
+	 */
+	private String retrieveActiveChannelIndex() throws Exception {
+		String rawCurrentActiveChannelIndex = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_ACT_CH_IDX);
+		if (!rawCurrentActiveChannelIndex.startsWith(QSCUndnemoConstant.ACK)) {
+			rawCurrentActiveChannelIndex = getUDPResponse(QSCUndnemoUDPCommand.GET_CMD_ACT_CH_IDX);
+		}
+		if (!rawCurrentActiveChannelIndex.startsWith(QSCUndnemoConstant.ACK) && lastActiveChannelIndex != null) {
+			return lastActiveChannelIndex;
 		}
+		String currentActiveChannelIndex = getValidActiveChannelIndex(rawCurrentActiveChannelIndex);
+		if (rawCurrentActiveChannelIndex.startsWith(QSCUndnemoConstant.ACK)) {
+			lastActiveChannelIndex = String.format("%02d", Integer.parseInt(currentActiveChannelIndex));
+		}
+		return currentActiveChannelIndex;
 	}
 
 	/**
@@ -754,21 +1589,53 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	}
 
 	/**
-	 * Send UDP Command
+	 * Send UDP Command without argument
+	 *
+	 * @param command UDP command
+	 * @return String of response from the UDP server
+	 * @throws Exception when fail to send UDP command
+	 */
+	private String getUDPResponse(QSCUndnemoUDPCommand command) throws Exception {
+		return getUDPResponse(QSCUndnemoCommandEncoder.encode(command), command);
+	}
+
+	/**
+	 * Send UDP Command with an integer argument
 	 *
-	 * @param command String UDP command
+	 * @param command UDP command
+	 * @param argument argument of the command
 	 * @return String of response from the UDP server
 	 * @throws Exception when fail to send UDP command
 	 */
-	private String getUDPResponse(String command) throws Exception {
-		command += QSCUndnemoConstant.CR;
-		byte[] bytes = command.getBytes();
-		byte[] response = this.send(bytes);
-		String result = new String(response, StandardCharsets.UTF_8);
-		if (result.startsWith(QSCUndnemoConstant.ACK)) {
-			return result;
+	private String getUDPResponse(QSCUndnemoUDPCommand command, int argument) throws Exception {
+		return getUDPResponse(QSCUndnemoCommandEncoder.encode(command, argument), command);
+	}
+
+	/**
+	 * Send encoded UDP Command, control commands go before the monitoring requests waiting for the device
+	 *
+	 * @param encodedCommand command encoded by {@link QSCUndnemoCommandEncoder}
+	 * @param command UDP command, selects the decoder of the reply and the priority of the request
+	 * @return String of response from the UDP server
+	 * @throws Exception when fail to send UDP command
+	 */
+	private String getUDPResponse(byte[] encodedCommand, QSCUndnemoUDPCommand command) throws Exception {
+		PriorityRequestGate.Priority priority = command.isControl() ? PriorityRequestGate.Priority.CONTROL : PriorityRequestGate.Priority.MONITORING;
+		return this.send(encodedCommand, encodedCommand.length, COMMAND_RESPONSE_DECODERS[command.ordinal()], priority);
+	}
+
+	/**
+	 * Parse the integer value of a reply to a GET command
+	 *
+	 * @param rawResponse raw response from the UDP command
+	 * @return the value, null when the device answered NACK or the reply does not hold an integer
+	 */
+	private String parseIntegerValue(String rawResponse) {
+		if (!rawResponse.startsWith(QSCUndnemoConstant.ACK)) {
+			return null;
 		}
-		return QSCUndnemoConstant.NACK;
+		String value = parseUDPResponse(rawResponse)[0].trim();
+		return value.matches(QSCUndnemoConstant.REGEX_IS_INTEGER) ? value : null;
 	}
 
 	/**
@@ -777,7 +1644,7 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	 * @param inputString String response from the API
 	 * @return Array of String with proper format
 	 */
-	private String[] parseUDPResponse(String inputString) {
+	String[] parseUDPResponse(String inputString) {
 		String[] splitString = inputString.split(QSCUndnemoConstant.SPACE);
 		List<String> resultStrings = new ArrayList<>();
 		if (inputString.contains(QSCUndnemoConstant.CH_INFO)) {
@@ -824,46 +1691,79 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	}
 
 	/**
-	 * Split channelIndex (separated by commas) to array of indexes
+	 * Parse the channel index filter option: channel indexes and ranges of channel indexes separated by commas, e.g. 1-16,33,40-48.
+	 * Indexes outside 1-64 are dropped, ranges are cut to 1-64 and invalid entries are ignored.
 	 *
-	 * @return list int of channel indexes
+	 * @param channelIndex value of the filter option
+	 * @return channel indexes of the filter, empty when every channel is monitored
 	 */
-	private List<Integer> handleListChannelIndex() {
-		if (!StringUtils.isNullOrEmpty(channelIndex) && !QSCUndnemoConstant.DOUBLE_QUOTES.equals(channelIndex)) {
+	static BitSet parseChannelIndexFilter(String channelIndex) {
+		BitSet filter = new BitSet(65);
+		if (StringUtils.isNullOrEmpty(channelIndex) || QSCUndnemoConstant.DOUBLE_QUOTES.equals(channelIndex)) {
+			return filter;
+		}
+		for (String index : channelIndex.split(QSCUndnemoConstant.COMMA)) {
+			String trimIndex = index.trim();
+			// A leading hyphen is the sign of a single index, any other hyphen separates the bounds of a range
+			int separator = trimIndex.indexOf(QSCUndnemoConstant.HYPHEN, 1);
+			String start = separator < 0 ? trimIndex : trimIndex.substring(0, separator).trim();
+			String end = separator < 0 ? trimIndex : trimIndex.substring(separator + 1).trim();
+			if (!start.matches(QSCUndnemoConstant.REGEX_IS_INTEGER) || !end.matches(QSCUndnemoConstant.REGEX_IS_INTEGER)) {
+				continue;
+			}
+			int intStart;
+			int intEnd;
 			try {
-				List<Integer> resultList = new ArrayList<>();
-				String[] listIndex = this.getChannelIndex().split(QSCUndnemoConstant.COMMA);
-				for (String index : listIndex) {
-					String trimIndex = index.trim();
-					if (trimIndex.matches(QSCUndnemoConstant.REGEX_IS_INTEGER)) {
-						int intTrimIndex = Integer.parseInt(trimIndex);
-						if (intTrimIndex >= 1 && intTrimIndex <= 64) {
-							resultList.add(intTrimIndex);
-						}
-					}
-				}
-				Set<Integer> noDuplicateIndex = new LinkedHashSet<>(resultList);
-				resultList.clear();
-				resultList.addAll(noDuplicateIndex);
-				return resultList;
-			} catch (Exception e) {
-				throw new IllegalArgumentException("Fail to split string, input from adapter properties is wrong", e);
+				intStart = Math.max(Integer.parseInt(start), 1);
+				intEnd = Math.min(Integer.parseInt(end), 64);
+			} catch (NumberFormatException e) {
+				// Out of the int range
+				continue;
+			}
+			if (intStart <= intEnd) {
+				filter.set(intStart, intEnd + 1);
+			}
+		}
+		return filter;
+	}
+
+	/**
+	 * Apply a channel index filter changed after init.
+	 * Channels excluded by the filter leave the cache and the retry queue, except the active channel that is always published.
+	 * A sweep is submitted right away for the channels that are missing, so newly included channels are ready by the next monitoring cycle
+	 * while the channels that stay included are not requested before their refresh interval.
+	 *
+	 * @param filter channel indexes of the new filter, empty when every channel is monitored
+	 */
+	private void applyChannelIndexFilter(BitSet filter) {
+		if (logger.isDebugEnabled()) {
+			logger.debug(String.format("Channel index filter changed to: %s", channelIndex));
+		}
+		if (!filter.isEmpty()) {
+			String activeChannelIndex = lastActiveChannelIndex;
+			int activeIndex = activeChannelIndex != null && activeChannelIndex.matches(REGEX_CHANNEL_INDEX) ? Integer.parseInt(activeChannelIndex) : 0;
+			synchronized (channelInfoMap) {
+				channelInfoMap.keySet().removeIf(index -> !filter.get(index) && index != activeIndex);
+			}
+			for (int index = filter.nextClearBit(1); index <= 64; index = filter.nextClearBit(index + 1)) {
+				channelRetryQueue.remove(index);
 			}
 		}
-		return Collections.emptyList();
+		// The statistics kept for the cycle after a control were rendered with the previous filter
+		isGetMultipleStatsAfterControl = false;
+		submitChannelDataLoader(filter.isEmpty() ? ALL_CHANNEL_INDEXES : filter, false);
 	}
 
 	/**
 	 * Filter list of channel info based on channel indexes
 	 *
-	 * @param filterChannelIndexValues list of indexes
+	 * @param filterChannelIndexValues channel indexes of the filter
 	 */
-	private void filterChannelInfo(List<Integer> filterChannelIndexValues) {
+	private void filterChannelInfo(BitSet filterChannelIndexValues) {
 		if (logger.isDebugEnabled()) {
 			logger.debug(String.format("Applying channel index filter with values(s): %s", channelIndex));
 		}
-		channelDataLoader = new QSCChannelDataLoader(filterChannelIndexValues);
-		executorService.submit(channelDataLoader);
+		submitChannelDataLoader(filterChannelIndexValues, false);
 	}
 
 	/**
@@ -908,14 +1808,14 @@ public class QSCUndnemoCommunicator extends UDPCommunicator implements Monitorab
 	 * Create drop-down
 	 *
 	 * @param name String name of the drop-down
-	 * @param values list of values
+	 * @param values array of values, also used as labels
 	 * @param initialValue String initial value
 	 * @return Instance of AdvancedControllableProperty
 	 */
-	private AdvancedControllableProperty createDropdown(String name, List<String> values, String initialValue) {
+	private AdvancedControllableProperty createDropdown(String name, String[] values, String initialValue) {
 		AdvancedControllableProperty.DropDown dropDown = new AdvancedControllableProperty.DropDown();
-		dropDown.setOptions(values.toArray(new String[0]));
-		dropDown.setLabels(values.toArray(new String[0]));
+		dropDown.setOptions(values);
+		dropDown.setLabels(values);
 		return new AdvancedControllableProperty(name, new Date(), dropDown, initialValue);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto.DiscoveredDevice;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoCommandEncoder;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoConstant;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoUDPCommand;
+
+/**
+ * Discovery of unDNEMO units: sends one VERSION request to a broadcast address and collects the replies of every unit
+ * that answers within the discovery window, so the units of a subnet are found or health-checked with one datagram.
+ * A unicast address can be probed the same way.
+ * <p>
+ * Like {@link UDPCommunicator} in legacy mode, the socket binds the device port by default because units may answer to that port
+ * whatever the port the request came from. Each unit is reported once, replies that are not a VERSION reply are ignored.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class QSCUndnemoDiscovery {
+
+	private static final String VERSION_REPLY_PREFIX = QSCUndnemoConstant.ACK + QSCUndnemoConstant.SPACE + QSCUndnemoUDPCommand.GET_CMD_VERSION.getCommand() + QSCUndnemoConstant.SPACE;
+
+	private final int port;
+	private int localPort = -1;
+	private int window = 2000;
+
+	/**
+	 * QSCUndnemoDiscovery with args constructor
+	 *
+	 * @param port UDP port of the units
+	 */
+	public QSCUndnemoDiscovery(int port) {
+		this.port = port;
+	}
+
+	/**
+	 * Retrieves {@code {@link #localPort}}
+	 *
+	 * @return value of {@link #localPort}
+	 */
+	public int getLocalPort() {
+		return localPort;
+	}
+
+	/**
+	 * Sets {@code localPort}, -1 to bind the device port, 0 for an ephemeral port
+	 *
+	 * @param localPort the {@code int} field
+	 */
+	public void setLocalPort(int localPort) {
+		this.localPort = localPort;
+	}
+
+	/**
+	 * Retrieves {@code {@link #window}}
+	 *
+	 * @return value of {@link #window}
+	 */
+	public int getWindow() {
+		return window;
+	}
+
+	/**
+	 * Sets {@code window}, time in milliseconds replies are collected for
+	 *
+	 * @param window the {@code int} field
+	 */
+	public void setWindow(int window) {
+		this.window = Math.max(1, window);
+	}
+
+	/**
+	 * Probe the units reachable through an address
+	 *
+	 * @param target broadcast address of the subnet, or address of one unit
+	 * @return units that answered, in reply order
+	 * @throws IOException if the probe cannot be sent
+	 */
+	public List<DiscoveredDevice> discover(String target) throws IOException {
+		return discover(InetAddress.getByName(target));
+	}
+
+	/**
+	 * Probe the units reachable through an address
+	 *
+	 * @param target broadcast address of the subnet, or address of one unit
+	 * @return units that answered, in reply order
+	 * @throws IOException if the probe cannot be sent
+	 */
+	public List<DiscoveredDevice> discover(InetAddress target) throws IOException {
+		Map<String, DiscoveredDevice> devices = new LinkedHashMap<>();
+		try (DatagramSocket socket = new DatagramSocket(null)) {
+			if (localPort < 0) {
+				socket.setReuseAddress(true);
+			}
+			socket.setBroadcast(true);
+			socket.bind(new InetSocketAddress(localPort < 0 ? port : localPort));
+			byte[] request = QSCUndnemoCommandEncoder.encode(QSCUndnemoUDPCommand.GET_CMD_VERSION);
+			long start = System.currentTimeMillis();
+			socket.send(new DatagramPacket(request, request.length, target, port));
+
+			byte[] buffer = new byte[256];
+			DatagramPacket reply = new DatagramPacket(buffer, buffer.length);
+			long deadline = start + window;
+			long remaining;
+			while ((remaining = deadline - System.currentTimeMillis()) > 0) {
+				socket.setSoTimeout((int) remaining);
+				reply.setData(buffer, 0, buffer.length);
+				try {
+					socket.receive(reply);
+				} catch (SocketTimeoutException e) {
+					break;
+				}
+				String version = parseVersion(reply);
+				String address = reply.getAddress().getHostAddress();
+				if (version != null && !devices.containsKey(address)) {
+					devices.put(address, new DiscoveredDevice(address, version, System.currentTimeMillis() - start));
+				}
+			}
+		}
+		return new ArrayList<>(devices.values());
+	}
+
+	/**
+	 * Get the version of a VERSION reply
+	 *
+	 * @param reply received datagram
+	 * @return version, null if the datagram is not a VERSION reply
+	 */
+	private static String parseVersion(DatagramPacket reply) {
+		String text = new String(reply.getData(), reply.getOffset(), reply.getLength(), StandardCharsets.US_ASCII);
+		if (!text.startsWith(VERSION_REPLY_PREFIX) || !text.endsWith(QSCUndnemoConstant.CR)) {
+			return null;
+		}
+		String version = text.substring(VERSION_REPLY_PREFIX.length(), text.length() - QSCUndnemoConstant.CR.length()).trim();
+		return version.isEmpty() ? null : version;
+	}
+}
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Runtime state of a {@link QSCUndnemoCommunicator} exposed through {@link QSCUndnemoRuntimeMXBean}.
+ * Cycle, sweep, cache and error figures are recorded here by the communicator, transport figures are read from the communicator on demand.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class QSCUndnemoRuntime implements QSCUndnemoRuntimeMXBean {
+
+	private static final String DOMAIN = QSCUndnemoRuntime.class.getPackage().getName();
+
+	private final QSCUndnemoCommunicator communicator;
+	private final AtomicLong cycleCount = new AtomicLong();
+	private final AtomicLong totalCycleDurationMs = new AtomicLong();
+	private final AtomicLong channelCacheHits = new AtomicLong();
+	private final AtomicLong channelCacheMisses = new AtomicLong();
+	private volatile long lastCycleDurationMs;
+	private volatile long maxCycleDurationMs;
+	private volatile long lastSweepDurationMs;
+	private volatile String lastError;
+	private ObjectName objectName;
+
+	/**
+	 * QSCUndnemoRuntime with args constructor
+	 *
+	 * @param communicator communicator the runtime state belongs to
+	 */
+	public QSCUndnemoRuntime(QSCUndnemoCommunicator communicator) {
+		this.communicator = communicator;
+	}
+
+	/**
+	 * Register this MBean with the platform MBean server, a registration failure is returned rather than thrown
+	 * so an adapter is never prevented from starting by JMX
+	 *
+	 * @return the registration error, null if the MBean is registered
+	 */
+	public synchronized JMException register() {
+		if (objectName != null) {
+			return null;
+		}
+		try {
+			ObjectName name = new ObjectName(String.format("%s:type=%s,host=%s,id=%s", DOMAIN, QSCUndnemoCommunicator.class.getSimpleName(),
+					ObjectName.quote(String.valueOf(communicator.getHost())), Integer.toHexString(System.identityHashCode(communicator))));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+			objectName = name;
+			return null;
+		} catch (JMException e) {
+			return e;
+		}
+	}
+
+	/**
+	 * Unregister this MBean from the platform MBean server
+	 */
+	public synchronized void unregister() {
+		if (objectName == null) {
+			return;
+		}
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			if (server.isRegistered(objectName)) {
+				server.unregisterMBean(objectName);
+			}
+		} catch (JMException e) {
+			// Already unregistered by someone else
+		}
+		objectName = null;
+	}
+
+	/**
+	 * Retrieves {@code {@link #objectName}}
+	 *
+	 * @return value of {@link #objectName}, null while the MBean is not registered
+	 */
+	public synchronized ObjectName getObjectName() {
+		return objectName;
+	}
+
+	/**
+	 * Record the duration of a monitoring cycle
+	 *
+	 * @param durationMs duration in milliseconds
+	 */
+	public void recordCycle(long durationMs) {
+		lastCycleDurationMs = durationMs;
+		cycleCount.incrementAndGet();
+		totalCycleDurationMs.addAndGet(durationMs);
+		synchronized (this) {
+			if (durationMs > maxCycleDurationMs) {
+				maxCycleDurationMs = durationMs;
+			}
+		}
+	}
+
+	/**
+	 * Record the duration of a channel info sweep
+	 *
+	 * @param durationMs duration in milliseconds
+	 */
+	public void recordSweep(long durationMs) {
+		lastSweepDurationMs = durationMs;
+	}
+
+	/**
+	 * Record how many channels were served from the cache and how many were requested from the device
+	 *
+	 * @param hits channels still fresh
+	 * @param misses channels missing, stale or due for a retry
+	 */
+	public void recordChannelCache(int hits, int misses) {
+		channelCacheHits.addAndGet(hits);
+		channelCacheMisses.addAndGet(misses);
+	}
+
+	/**
+	 * Record an error of the adapter
+	 *
+	 * @param message error message
+	 */
+	public void recordError(String message) {
+		lastError = String.format("%s: %s", new Date(), message);
+	}
+
+	@Override
+	public String getHost() {
+		return communicator.getHost();
+	}
+
+	@Override
+	public long getCycleCount() {
+		return cycleCount.get();
+	}
+
+	@Override
+	public long getLastCycleDurationMs() {
+		return lastCycleDurationMs;
+	}
+
+	@Override
+	public double getAverageCycleDurationMs() {
+		long count = cycleCount.get();
+		return count == 0 ? 0 : (double) totalCycleDurationMs.get() / count;
+	}
+
+	@Override
+	public long getMaxCycleDurationMs() {
+		return maxCycleDurationMs;
+	}
+
+	@Override
+	public long getLastSweepDurationMs() {
+		return lastSweepDurationMs;
+	}
+
+	@Override
+	public int getRequestsInFlight() {
+		return communicator.getRequestsInFlight();
+	}
+
+	@Override
+	public int getRequestWindow() {
+		return communicator.getConcurrencyController().getWindow();
+	}
+
+	@Override
+	public double getControlQueueWaitAverageMs() {
+		return communicator.getRequestGate().getAverageWaitMs(PriorityRequestGate.Priority.CONTROL);
+	}
+
+	@Override
+	public double getControlQueueWaitMaxMs() {
+		return communicator.getRequestGate().getMaxWaitMs(PriorityRequestGate.Priority.CONTROL);
+	}
+
+	@Override
+	public double getMonitoringQueueWaitAverageMs() {
+		return communicator.getRequestGate().getAverageWaitMs(PriorityRequestGate.Priority.MONITORING);
+	}
+
+	@Override
+	public double getMonitoringQueueWaitMaxMs() {
+		return communicator.getRequestGate().getMaxWaitMs(PriorityRequestGate.Priority.MONITORING);
+	}
+
+	@Override
+	public long getRateLimitedPacketCount() {
+		return communicator.getRateLimiter().getLimitedCount();
+	}
+
+	@Override
+	public double getRateLimitWaitMs() {
+		return communicator.getRateLimiter().getTotalWaitMs();
+	}
+
+	@Override
+	public long getFleetRateLimitedPacketCount() {
+		return UDPCommunicator.getFleetRateLimiter().getLimitedCount();
+	}
+
+	@Override
+	public int getExecutorQueueDepth() {
+		return communicator.getExecutorQueueDepth();
+	}
+
+	@Override
+	public boolean isSweepRunning() {
+		return communicator.isChannelSweepRunning();
+	}
+
+	@Override
+	public long getSocketOpenCount() {
+		return communicator.getSocketOpenCount();
+	}
+
+	@Override
+	public long getSocketCloseCount() {
+		return communicator.getSocketCloseCount();
+	}
+
+	@Override
+	public long getForeignDatagramCount() {
+		return communicator.getForeignDatagramCount();
+	}
+
+	@Override
+	public long getStaleDatagramCount() {
+		return communicator.getStaleDatagramCount();
+	}
+
+	@Override
+	public long getRetryCount() {
+		return communicator.getRetryCount();
+	}
+
+	@Override
+	public long getHedgedRequestCount() {
+		return communicator.getHedgedRequestCount();
+	}
+
+	@Override
+	public long getChannelCacheHits() {
+		return channelCacheHits.get();
+	}
+
+	@Override
+	public long getChannelCacheMisses() {
+		return channelCacheMisses.get();
+	}
+
+	@Override
+	public double getChannelCacheHitRatio() {
+		long hits = channelCacheHits.get();
+		long total = hits + channelCacheMisses.get();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	@Override
+	public String getLastError() {
+		return lastError;
+	}
+
+	@Override
+	public String getLastTransportError() {
+		Throwable error = communicator.getConnectionStatus().getLastError();
+		return error == null ? null : error.toString();
+	}
+
+	@Override
+	public long getExchangeTraceCount() {
+		return communicator.getExchangeTraceCount();
+	}
+
+	@Override
+	public String dumpExchangeTrace() {
+		return communicator.dumpExchangeTrace();
+	}
+
+	@Override
+	public int getPollBudget() {
+		return communicator.getChannelInfoPollBudget();
+	}
+
+	@Override
+	public void setPollBudget(int pollBudget) {
+		communicator.setChannelInfoPollBudget(pollBudget);
+	}
+
+	@Override
+	public boolean triggerResweep() {
+		return communicator.resweepChannelInfo();
+	}
+}
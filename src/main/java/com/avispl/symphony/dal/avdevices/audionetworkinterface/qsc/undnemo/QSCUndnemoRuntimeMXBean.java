@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+/**
+ * Management interface of a {@link QSCUndnemoCommunicator} instance, registered with the platform MBean server on init under
+ * {@code com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo:type=QSCUndnemoCommunicator,host=<host>,id=<id>}.
+ * <p>
+ * Reports the monitoring cycle, channel info sweep and UDP transport runtime state, and lets an operator trigger a channel info resweep
+ * or change the poll budget without restarting the adapter.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public interface QSCUndnemoRuntimeMXBean {
+
+	/**
+	 * Retrieves host of the device
+	 *
+	 * @return host name or address
+	 */
+	String getHost();
+
+	/**
+	 * Retrieves number of monitoring cycles run by getMultipleStatistics()
+	 *
+	 * @return cycle count
+	 */
+	long getCycleCount();
+
+	/**
+	 * Retrieves duration of the last monitoring cycle
+	 *
+	 * @return duration in milliseconds
+	 */
+	long getLastCycleDurationMs();
+
+	/**
+	 * Retrieves average duration of the monitoring cycles
+	 *
+	 * @return duration in milliseconds
+	 */
+	double getAverageCycleDurationMs();
+
+	/**
+	 * Retrieves longest monitoring cycle
+	 *
+	 * @return duration in milliseconds
+	 */
+	long getMaxCycleDurationMs();
+
+	/**
+	 * Retrieves duration of the last channel info sweep
+	 *
+	 * @return duration in milliseconds
+	 */
+	long getLastSweepDurationMs();
+
+	/**
+	 * Retrieves number of requests sent to the device and not answered yet
+	 *
+	 * @return requests in flight
+	 */
+	int getRequestsInFlight();
+
+	/**
+	 * Retrieves current size of the adaptive request window of the device
+	 *
+	 * @return number of requests that may be outstanding
+	 */
+	int getRequestWindow();
+
+	/**
+	 * Retrieves average time control requests waited for the device behind other requests
+	 *
+	 * @return wait in milliseconds
+	 */
+	double getControlQueueWaitAverageMs();
+
+	/**
+	 * Retrieves longest time a control request waited for the device behind other requests
+	 *
+	 * @return wait in milliseconds
+	 */
+	double getControlQueueWaitMaxMs();
+
+	/**
+	 * Retrieves average time monitoring requests and pipelined windows waited for the device behind other requests
+	 *
+	 * @return wait in milliseconds
+	 */
+	double getMonitoringQueueWaitAverageMs();
+
+	/**
+	 * Retrieves longest time a monitoring request or pipelined window waited for the device behind other requests
+	 *
+	 * @return wait in milliseconds
+	 */
+	double getMonitoringQueueWaitMaxMs();
+
+	/**
+	 * Retrieves number of datagrams held back by the rate limit of the device
+	 *
+	 * @return rate limited datagram count
+	 */
+	long getRateLimitedPacketCount();
+
+	/**
+	 * Retrieves total time datagrams were held back by the rate limit of the device
+	 *
+	 * @return wait in milliseconds
+	 */
+	double getRateLimitWaitMs();
+
+	/**
+	 * Retrieves number of datagrams held back by the rate limit shared by every device of the JVM
+	 *
+	 * @return rate limited datagram count, for every device together
+	 */
+	long getFleetRateLimitedPacketCount();
+
+	/**
+	 * Retrieves number of channel info sweeps waiting in the executor queue
+	 *
+	 * @return queue depth
+	 */
+	int getExecutorQueueDepth();
+
+	/**
+	 * Check whether a channel info sweep is running
+	 *
+	 * @return true if a sweep is running or queued
+	 */
+	boolean isSweepRunning();
+
+	/**
+	 * Retrieves number of sockets opened to the device
+	 *
+	 * @return socket open count
+	 */
+	long getSocketOpenCount();
+
+	/**
+	 * Retrieves number of sockets closed
+	 *
+	 * @return socket close count
+	 */
+	long getSocketCloseCount();
+
+	/**
+	 * Retrieves number of datagrams received from another address than the device and discarded
+	 *
+	 * @return foreign datagram count
+	 */
+	long getForeignDatagramCount();
+
+	/**
+	 * Retrieves number of datagrams left on the socket by earlier exchanges and discarded before a new exchange
+	 *
+	 * @return stale datagram count
+	 */
+	long getStaleDatagramCount();
+
+	/**
+	 * Retrieves number of requests sent again because the first attempt failed or was not answered
+	 *
+	 * @return retry count
+	 */
+	long getRetryCount();
+
+	/**
+	 * Retrieves number of monitoring requests sent again before the timeout because their reply was later than the hedging percentile
+	 *
+	 * @return hedged request count
+	 */
+	long getHedgedRequestCount();
+
+	/**
+	 * Retrieves number of channels served from the cache because their data was still fresh
+	 *
+	 * @return cache hit count
+	 */
+	long getChannelCacheHits();
+
+	/**
+	 * Retrieves number of channels requested from the device because they were missing, stale or due for a retry
+	 *
+	 * @return cache miss count
+	 */
+	long getChannelCacheMisses();
+
+	/**
+	 * Retrieves ratio of channels served from the cache
+	 *
+	 * @return hits / (hits + misses), 0 before the first sweep
+	 */
+	double getChannelCacheHitRatio();
+
+	/**
+	 * Retrieves last error of the adapter
+	 *
+	 * @return error message with its time, null if there was none
+	 */
+	String getLastError();
+
+	/**
+	 * Retrieves last error of the UDP transport
+	 *
+	 * @return error message, null if there was none
+	 */
+	String getLastTransportError();
+
+	/**
+	 * Retrieves number of exchanges recorded by the exchange trace
+	 *
+	 * @return recorded count, including the exchanges overwritten since
+	 */
+	long getExchangeTraceCount();
+
+	/**
+	 * Render the last exchanges with the device: time, duration, outcome, request and reply
+	 *
+	 * @return one line per exchange, oldest first
+	 */
+	String dumpExchangeTrace();
+
+	/**
+	 * Retrieves maximum number of channel info requests sent by one sweep
+	 *
+	 * @return poll budget
+	 */
+	int getPollBudget();
+
+	/**
+	 * Sets maximum number of channel info requests sent by one sweep, the oldest channels are requested first
+	 *
+	 * @param pollBudget the {@code int} field
+	 */
+	void setPollBudget(int pollBudget);
+
+	/**
+	 * Request every channel info again now, regardless of its age and retry backoff
+	 *
+	 * @return true if a sweep was submitted, false if a sweep is already running, every channel is filtered out or the adapter has not been initialized
+	 */
+	boolean triggerResweep();
+}
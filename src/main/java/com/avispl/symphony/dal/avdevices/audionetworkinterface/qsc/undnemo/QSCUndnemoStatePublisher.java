@@ -0,0 +1,347 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto.StateChangeEvent;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoMetric;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoStateChangeType;
+
+/**
+ * Publisher of unDNEMO device state changes.
+ * <p>
+ * Mirrors the {@code java.util.concurrent.Flow} contract (the adapter is built for Java 8):
+ * a {@link Subscriber} receives a {@link Subscription} and gets at most as many events as it has requested.
+ * Events that arrive while a subscriber has no outstanding demand are buffered up to {@link #bufferSize};
+ * when the buffer is full the oldest event is dropped, so a slow subscriber never blocks the monitoring and control paths.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class QSCUndnemoStatePublisher {
+
+	/**
+	 * Receiver of state change events, equivalent of {@code java.util.concurrent.Flow.Subscriber}
+	 */
+	public interface Subscriber {
+
+		/**
+		 * Called once before any other method with the subscription used to request events
+		 *
+		 * @param subscription subscription of this subscriber
+		 */
+		void onSubscribe(Subscription subscription);
+
+		/**
+		 * Called for every requested event
+		 *
+		 * @param event state change event
+		 */
+		void onNext(StateChangeEvent event);
+
+		/**
+		 * Called when the subscription is terminated with an error
+		 *
+		 * @param throwable cause of the termination
+		 */
+		void onError(Throwable throwable);
+
+		/**
+		 * Called when the publisher is closed, no more events will be delivered
+		 */
+		void onComplete();
+	}
+
+	/**
+	 * Link between the publisher and a subscriber, equivalent of {@code java.util.concurrent.Flow.Subscription}
+	 */
+	public interface Subscription {
+
+		/**
+		 * Add the given number of events to the demand of the subscriber
+		 *
+		 * @param n number of events, must be positive
+		 */
+		void request(long n);
+
+		/**
+		 * Stop receiving events
+		 */
+		void cancel();
+	}
+
+	/**
+	 * Subscription that buffers events until the subscriber requests them.
+	 * Delivery of a subscription is scheduled at most once at a time, so the subscriber is never called concurrently.
+	 */
+	private class BufferedSubscription implements Subscription, Runnable {
+
+		private final Subscriber subscriber;
+		private final ArrayDeque<StateChangeEvent> buffer = new ArrayDeque<>();
+		private long demand;
+		private boolean scheduled;
+		private boolean cancelled;
+		private boolean completed;
+		private Throwable error;
+
+		/**
+		 * BufferedSubscription with args constructor
+		 *
+		 * @param subscriber subscriber of this subscription
+		 */
+		BufferedSubscription(Subscriber subscriber) {
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void request(long n) {
+			synchronized (this) {
+				if (cancelled) {
+					return;
+				}
+				if (n <= 0) {
+					error = new IllegalArgumentException("Number of requested events must be positive: " + n);
+				} else {
+					demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+				}
+			}
+			schedule();
+		}
+
+		@Override
+		public void cancel() {
+			synchronized (this) {
+				cancelled = true;
+				buffer.clear();
+			}
+			subscriptions.remove(this);
+		}
+
+		/**
+		 * Buffer an event, dropping the oldest one if the buffer is full
+		 *
+		 * @param event event to be delivered
+		 */
+		void offer(StateChangeEvent event) {
+			synchronized (this) {
+				if (cancelled || completed) {
+					return;
+				}
+				if (buffer.size() >= bufferSize) {
+					buffer.pollFirst();
+					droppedEvents.incrementAndGet();
+				}
+				buffer.addLast(event);
+			}
+			schedule();
+		}
+
+		/**
+		 * Complete the subscription once the buffered events are delivered
+		 */
+		void complete() {
+			synchronized (this) {
+				completed = true;
+			}
+			schedule();
+		}
+
+		/**
+		 * Schedule delivery on the publisher executor if it is not already scheduled
+		 */
+		private void schedule() {
+			synchronized (this) {
+				if (scheduled || cancelled) {
+					return;
+				}
+				scheduled = true;
+			}
+			try {
+				getExecutor().execute(this);
+			} catch (RejectedExecutionException e) {
+				synchronized (this) {
+					scheduled = false;
+				}
+			}
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				StateChangeEvent event = null;
+				Throwable terminalError = null;
+				boolean terminalComplete = false;
+				synchronized (this) {
+					if (cancelled) {
+						scheduled = false;
+						return;
+					}
+					if (error != null) {
+						terminalError = error;
+						cancelled = true;
+					} else if (demand > 0 && !buffer.isEmpty()) {
+						event = buffer.pollFirst();
+						demand--;
+					} else if (completed && buffer.isEmpty()) {
+						terminalComplete = true;
+						cancelled = true;
+					} else {
+						scheduled = false;
+						return;
+					}
+				}
+				try {
+					if (terminalError != null) {
+						subscriptions.remove(this);
+						subscriber.onError(terminalError);
+						return;
+					}
+					if (terminalComplete) {
+						subscriptions.remove(this);
+						subscriber.onComplete();
+						return;
+					}
+					subscriber.onNext(event);
+				} catch (RuntimeException e) {
+					// Subscriber is misbehaving, stop delivering to it
+					cancel();
+					return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Maximum number of undelivered events kept for each subscriber
+	 */
+	private volatile int bufferSize = 256;
+
+	/**
+	 * Active subscriptions
+	 */
+	private final Set<BufferedSubscription> subscriptions = new CopyOnWriteArraySet<>();
+
+	/**
+	 * Last known value for every metric/channel pair, used to detect changes
+	 */
+	private final Map<String, String> lastKnownValues = new ConcurrentHashMap<>();
+
+	/**
+	 * Number of events dropped because a subscriber buffer was full
+	 */
+	private final AtomicLong droppedEvents = new AtomicLong();
+
+	/**
+	 * Executor that delivers events to subscribers
+	 */
+	private ExecutorService executorService;
+
+	/**
+	 * Retrieves {@code {@link #bufferSize}}
+	 *
+	 * @return value of {@link #bufferSize}
+	 */
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * Sets {@code bufferSize}
+	 *
+	 * @param bufferSize the {@code int} field
+	 */
+	public void setBufferSize(int bufferSize) {
+		if (bufferSize <= 0) {
+			throw new IllegalArgumentException("Invalid event buffer size: " + bufferSize + " (must be positive number)");
+		}
+		this.bufferSize = bufferSize;
+	}
+
+	/**
+	 * Retrieves number of events dropped because a subscriber did not keep up
+	 *
+	 * @return number of dropped events
+	 */
+	public long getDroppedEvents() {
+		return droppedEvents.get();
+	}
+
+	/**
+	 * Add a subscriber, events are delivered once it requests them through its subscription
+	 *
+	 * @param subscriber subscriber to add
+	 */
+	public void subscribe(Subscriber subscriber) {
+		Objects.requireNonNull(subscriber, "Subscriber cannot be null");
+		BufferedSubscription subscription = new BufferedSubscription(subscriber);
+		subscriptions.add(subscription);
+		subscriber.onSubscribe(subscription);
+	}
+
+	/**
+	 * Publish a change if the value differs from the last known value of the metric.
+	 * The first value observed for a metric is only recorded, so a fresh adapter does not flood subscribers.
+	 *
+	 * @param metric metric of the value
+	 * @param channelIndex index of the channel (1-64), 0 when the value is not bound to a channel
+	 * @param currentValue newly observed value
+	 */
+	public void publishIfChanged(QSCUndnemoMetric metric, int channelIndex, String currentValue) {
+		if (currentValue == null) {
+			return;
+		}
+		String key = channelIndex == 0 ? metric.getName() : metric.getName() + channelIndex;
+		String previousValue = lastKnownValues.put(key, currentValue);
+		if (previousValue == null || previousValue.equals(currentValue) || subscriptions.isEmpty()) {
+			return;
+		}
+		StateChangeEvent event = new StateChangeEvent(QSCUndnemoStateChangeType.getByMetric(metric), metric, channelIndex, previousValue, currentValue,
+				System.currentTimeMillis());
+		for (BufferedSubscription subscription : subscriptions) {
+			subscription.offer(event);
+		}
+	}
+
+	/**
+	 * Complete all subscriptions and forget last known values
+	 */
+	public synchronized void close() {
+		for (BufferedSubscription subscription : subscriptions) {
+			subscription.complete();
+		}
+		subscriptions.clear();
+		lastKnownValues.clear();
+		if (executorService != null) {
+			executorService.shutdown();
+			executorService = null;
+		}
+	}
+
+	/**
+	 * Get executor, create it if it is not created yet or was shut down by {@link #close()}
+	 *
+	 * @return executor delivering events
+	 */
+	private synchronized ExecutorService getExecutor() {
+		if (executorService == null) {
+			executorService = Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "QSCUndnemoStatePublisher");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executorService;
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import org.icmp4j.IcmpPingResponse;
+
+/**
+ * ICMP pre-flight probe of a device: pings the device before a monitoring cycle so a cycle against a device that is down
+ * costs one or two pings instead of every UDP request running into its timeout and retry.
+ * The round-trip time of the last answered ping and the loss over the last {@link #window} pings are kept for the statistics.
+ * <p>
+ * A ping that cannot be sent at all (no ping support on the host) does not tell anything about the device,
+ * the probe is then reported as unavailable and the cycle goes on with the UDP requests.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class ReachabilityProbe {
+
+	/**
+	 * Sends one ping, {@link org.icmp4j.IcmpPingUtil#executePingRequest(String, int, long)} outside of tests
+	 */
+	public interface Pinger {
+
+		/**
+		 * Send one ping
+		 *
+		 * @param host host name or address
+		 * @param timeoutMs time to wait for the reply
+		 * @return response of the ping, answered or timed out
+		 * @throws RuntimeException if the ping cannot be sent
+		 */
+		IcmpPingResponse ping(String host, int timeoutMs);
+	}
+
+	/**
+	 * Outcome of a probe
+	 */
+	public enum Outcome {
+		/**
+		 * A ping was answered
+		 */
+		REACHABLE,
+		/**
+		 * No ping was answered
+		 */
+		UNREACHABLE,
+		/**
+		 * Pings cannot be sent from this host
+		 */
+		UNAVAILABLE
+	}
+
+	private final Pinger pinger;
+	private final int attempts;
+	private final boolean[] lost;
+	private final int window;
+	private int count;
+	private int next;
+	private int lostCount;
+	private int lastRttMs = -1;
+
+	/**
+	 * ReachabilityProbe with args constructor
+	 *
+	 * @param pinger sender of the pings
+	 * @param attempts pings sent by one probe before the device is considered unreachable
+	 * @param window number of pings the loss is computed over
+	 */
+	public ReachabilityProbe(Pinger pinger, int attempts, int window) {
+		this.pinger = pinger;
+		this.attempts = Math.max(1, attempts);
+		this.window = Math.max(1, window);
+		this.lost = new boolean[this.window];
+	}
+
+	/**
+	 * Ping a device until it answers or every attempt is lost
+	 *
+	 * @param host host name or address
+	 * @param timeoutMs time to wait for each reply
+	 * @return outcome of the probe
+	 */
+	public synchronized Outcome probe(String host, int timeoutMs) {
+		for (int attempt = 0; attempt < attempts; attempt++) {
+			IcmpPingResponse response;
+			try {
+				response = pinger.ping(host, timeoutMs);
+			} catch (RuntimeException e) {
+				return Outcome.UNAVAILABLE;
+			}
+			boolean answered = response != null && response.getSuccessFlag();
+			record(!answered);
+			if (answered) {
+				lastRttMs = response.getRtt();
+				return Outcome.REACHABLE;
+			}
+		}
+		return Outcome.UNREACHABLE;
+	}
+
+	/**
+	 * Retrieves round-trip time of the last answered ping
+	 *
+	 * @return round-trip time in milliseconds, -1 if no ping was answered yet
+	 */
+	public synchronized int getLastRttMs() {
+		return lastRttMs;
+	}
+
+	/**
+	 * Retrieves share of the last pings that were not answered
+	 *
+	 * @return loss in percent, 0 before the first ping
+	 */
+	public synchronized int getLossPercent() {
+		return count == 0 ? 0 : Math.round(lostCount * 100f / count);
+	}
+
+	/**
+	 * Record the outcome of one ping in the loss window
+	 *
+	 * @param pingLost true if the ping was not answered
+	 */
+	private void record(boolean pingLost) {
+		if (count == window) {
+			if (lost[next]) {
+				lostCount--;
+			}
+		} else {
+			count++;
+		}
+		lost[next] = pingLost;
+		if (pingLost) {
+			lostCount++;
+		}
+		next = (next + 1) % window;
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+/**
+ * Token bucket spacing the datagrams sent to a device, or by every device together.
+ * Up to {@link #burst} datagrams pass at once, after that datagrams pass at {@link #packetsPerSecond}, so a full monitoring cycle
+ * reaches small devices as a steady stream instead of a burst they drop replies under.
+ * <p>
+ * The bucket is kept as the time the next datagram may be sent: a datagram reserves its slot while holding the monitor of the limiter,
+ * then the caller waits for it outside, so concurrent senders are spaced without waiting on each other.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class TokenBucketRateLimiter {
+
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private int packetsPerSecond;
+	private int burst;
+	private long nanosPerPacket;
+	private long nextFreeNanos;
+	private long limitedCount;
+	private long totalWaitNanos;
+
+	/**
+	 * TokenBucketRateLimiter with args constructor
+	 *
+	 * @param packetsPerSecond sustained rate, 0 for no limit
+	 * @param burst datagrams that may be sent at once after a quiet period
+	 */
+	public TokenBucketRateLimiter(int packetsPerSecond, int burst) {
+		setLimit(packetsPerSecond, burst);
+	}
+
+	/**
+	 * Retrieves {@code {@link #packetsPerSecond}}
+	 *
+	 * @return value of {@link #packetsPerSecond}, 0 if there is no limit
+	 */
+	public synchronized int getPacketsPerSecond() {
+		return packetsPerSecond;
+	}
+
+	/**
+	 * Retrieves {@code {@link #burst}}
+	 *
+	 * @return value of {@link #burst}
+	 */
+	public synchronized int getBurst() {
+		return burst;
+	}
+
+	/**
+	 * Change the limit. The tokens left, or the datagrams already reserved beyond them, are kept and capped to the new burst,
+	 * so changing the limit never hands out a fresh burst. A bucket that was not limited starts full.
+	 *
+	 * @param packetsPerSecond sustained rate, 0 or less for no limit
+	 * @param burst datagrams that may be sent at once after a quiet period, at least 1
+	 */
+	public synchronized void setLimit(int packetsPerSecond, int burst) {
+		int newBurst = Math.max(1, burst);
+		long newNanosPerPacket = packetsPerSecond <= 0 ? 0 : NANOS_PER_SECOND / packetsPerSecond;
+		long now = System.nanoTime();
+		if (nanosPerPacket == 0 || newNanosPerPacket == 0) {
+			nextFreeNanos = now - (newBurst - 1) * newNanosPerPacket;
+		} else {
+			// Negative when datagrams were reserved ahead of now
+			double tokens = Math.min(newBurst, Math.min(this.burst, (double) (now - nextFreeNanos) / nanosPerPacket + 1));
+			nextFreeNanos = now - (long) ((tokens - 1) * newNanosPerPacket);
+		}
+		this.packetsPerSecond = Math.max(0, packetsPerSecond);
+		this.burst = newBurst;
+		this.nanosPerPacket = newNanosPerPacket;
+	}
+
+	/**
+	 * Reserve the slot of one datagram if it comes before a deadline. The caller waits for the slot itself, so it can give up the wait
+	 * on its own terms, e.g. when its requests are cancelled.
+	 *
+	 * @param deadlineNanos latest time the datagram may be sent, from {@link System#nanoTime()}
+	 * @return time to wait before sending in nanoseconds, -1 if the slot comes after the deadline, nothing is reserved then
+	 */
+	public synchronized long reserve(long deadlineNanos) {
+		if (nanosPerPacket == 0) {
+			return 0;
+		}
+		long now = System.nanoTime();
+		// Tokens do not pile up beyond the burst during a quiet period
+		long sendAt = Math.max(nextFreeNanos, now - (burst - 1) * nanosPerPacket);
+		if (sendAt - deadlineNanos > 0) {
+			return -1;
+		}
+		nextFreeNanos = sendAt + nanosPerPacket;
+		if (sendAt <= now) {
+			return 0;
+		}
+		limitedCount++;
+		totalWaitNanos += sendAt - now;
+		return sendAt - now;
+	}
+
+	/**
+	 * Retrieves number of datagrams that had to wait for a token
+	 *
+	 * @return limited count
+	 */
+	public synchronized long getLimitedCount() {
+		return limitedCount;
+	}
+
+	/**
+	 * Retrieves total time datagrams waited for a token
+	 *
+	 * @return wait in milliseconds
+	 */
+	public synchronized double getTotalWaitMs() {
+		return totalWaitNanos / 1e6;
+	}
+}
@@ -9,7 +9,14 @@ import java.net.DatagramSocket;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -29,14 +36,131 @@ import com.avispl.symphony.dal.communicator.ConnectionStatus;
  * @since 1.0
  */
 public class UDPCommunicator extends BaseDevice implements Communicator {
+
+	/**
+	 * Decoder of a datagram received from the device.
+	 * The buffer is reused by the next exchange, so a decoder must not keep a reference to it after {@link #decode(byte[], int, int)} returns.
+	 *
+	 * @param <T> type of the decoded value
+	 */
+	public interface ResponseDecoder<T> {
+
+		/**
+		 * Decode a response
+		 *
+		 * @param buffer buffer holding the response
+		 * @param offset offset of the first byte of the response
+		 * @param length number of bytes of the response
+		 * @return decoded value
+		 */
+		T decode(byte[] buffer, int offset, int length);
+
+		/**
+		 * Check whether a datagram is the reply to the request being sent.
+		 * Datagrams that do not match, e.g. late or duplicated replies to an earlier request, are discarded and the wait goes on.
+		 *
+		 * @param buffer buffer holding the datagram
+		 * @param offset offset of the first byte of the datagram
+		 * @param length number of bytes of the datagram
+		 * @return true if the datagram is the reply to the request
+		 */
+		default boolean matches(byte[] buffer, int offset, int length) {
+			return true;
+		}
+	}
+
+	/**
+	 * Handler of the replies to requests sent by {@link #sendPipelined(List, PipelinedResponseHandler)}.
+	 * The buffer is reused by the next exchange, so a handler must not keep a reference to it after {@link #onResponse(byte[], int, int)} returns.
+	 */
+	public interface PipelinedResponseHandler {
+
+		/**
+		 * Returned when the reply does not belong to any pending request, e.g. a late duplicate, it is ignored
+		 */
+		int UNMATCHED = -1;
+
+		/**
+		 * Returned when the reply is an error that cannot be attributed to a request, e.g. a bare NACK.
+		 * It stops the wait for one reply but completes no request.
+		 */
+		int UNATTRIBUTED_FAILURE = -2;
+
+		/**
+		 * Process a reply
+		 *
+		 * @param buffer buffer holding the reply
+		 * @param offset offset of the first byte of the reply
+		 * @param length number of bytes of the reply
+		 * @return position of the answered request in the request list, {@link #UNMATCHED} or {@link #UNATTRIBUTED_FAILURE}
+		 */
+		int onResponse(byte[] buffer, int offset, int length);
+	}
+
+	/**
+	 * Decoder returning an exact copy of the response, used by {@link #send(byte[])}
+	 */
+	private static final ResponseDecoder<byte[]> COPY_DECODER = (buffer, offset, length) -> {
+		byte[] copy = new byte[length];
+		System.arraycopy(buffer, offset, copy, 0, length);
+		return copy;
+	};
+
 	private static final String ERROR_MESSAGE_CHANGE_PROPERTIES_AFTER_INIT = "Cannot change properties after init() was called";
+	private static final int LATENCY_SAMPLES = 256;
+	private static final int HEDGE_MIN_SAMPLES = 20;
+	private static final int DEFAULT_PACKET_BURST = 16;
+	/**
+	 * System property holding the maximum number of datagrams sent per second by every communicator of the JVM together, not limited by default
+	 */
+	public static final String FLEET_MAX_PACKETS_PER_SECOND_PROPERTY = "qsc.undnemo.fleetMaxPacketsPerSecond";
+	/**
+	 * System property holding the number of datagrams every communicator of the JVM together may send at once before the fleet rate applies
+	 */
+	public static final String FLEET_MAX_PACKET_BURST_PROPERTY = "qsc.undnemo.fleetMaxPacketBurst";
+	// Shared by every communicator of the JVM, bounds the datagrams sent to all devices together. Configured once for the JVM,
+	// not by the properties of each device, so no device decides the rate of the others
+	private static final TokenBucketRateLimiter FLEET_RATE_LIMITER = new TokenBucketRateLimiter(Integer.getInteger(FLEET_MAX_PACKETS_PER_SECOND_PROPERTY, 0),
+			Integer.getInteger(FLEET_MAX_PACKET_BURST_PROPERTY, DEFAULT_PACKET_BURST));
 	private List<String> commandErrorList;
 	private List<String> commandSuccessList;
 	private final ReadWriteLock lock = new ReentrantReadWriteLock();
 	private final ConnectionStatus status = new ConnectionStatus();
 	private int timeout = 4000;
 	private int bufferLength = 24;
-	private DatagramSocket datagramSocket;
+	private int localPort = -1;
+	private int receiveBufferSize;
+	private int sendBufferSize;
+	private final AimdConcurrencyController concurrencyController = new AimdConcurrencyController(4, 16);
+	private final PriorityRequestGate requestGate = new PriorityRequestGate();
+	private final TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(0, DEFAULT_PACKET_BURST);
+	// Notified by cancelRequests() to end the waits for a rate limit token
+	private final Object tokenWaitMonitor = new Object();
+	private final AtomicLong retryCount = new AtomicLong();
+	private final AtomicInteger requestsInFlight = new AtomicInteger();
+	private final AtomicLong socketOpenCount = new AtomicLong();
+	private final AtomicLong socketCloseCount = new AtomicLong();
+	private final AtomicLong foreignDatagramCount = new AtomicLong();
+	private final AtomicLong staleDatagramCount = new AtomicLong();
+	private final AtomicLong sentDatagramCount = new AtomicLong();
+	private final AtomicLong hedgedRequestCount = new AtomicLong();
+	private ExchangeTrace exchangeTrace = new ExchangeTrace(256);
+	private int hedgePercentile;
+	// Reply time of single requests and completion time of pipelined windows, only accessed while holding the write lock
+	private final LatencyTracker requestLatency = new LatencyTracker(LATENCY_SAMPLES);
+	private final LatencyTracker windowLatency = new LatencyTracker(LATENCY_SAMPLES);
+	// Closed by cancelRequests() from another thread to unblock a pending receive()
+	private volatile DatagramSocket datagramSocket;
+	private volatile boolean cancelled;
+	// Absolute deadline of the request being sent by send(), only accessed while holding the write lock
+	private long requestDeadline = Long.MAX_VALUE;
+	// Whether the request being sent by send() may be sent again before its timeout, only accessed while holding the write lock
+	private boolean requestHedgeable;
+	// Packets and receive buffer are reused by every exchange, they are only accessed while holding the write lock
+	private final DatagramPacket requestPacket = new DatagramPacket(new byte[0], 0);
+	private DatagramPacket responsePacket;
+	private byte[] receiveBuffer;
+	private ByteBuffer drainBuffer;
 	protected InetAddress address;
 	protected int port;
 	protected String login;
@@ -94,6 +218,321 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 		}
 	}
 
+	/**
+	 * This method returns the maximum number of requests that may be in flight to the device
+	 *
+	 * @return int This returns the current upper bound of the adaptive request window.
+	 */
+	public int getMaxRequestsInFlight() {
+		return this.concurrencyController.getMaxWindow();
+	}
+
+	/**
+	 * This method is used set the maximum number of requests that may be in flight to the device
+	 *
+	 * @param maxRequestsInFlight This is the upper bound of the adaptive request window to set
+	 */
+	public void setMaxRequestsInFlight(int maxRequestsInFlight) {
+		this.concurrencyController.setMaxWindow(maxRequestsInFlight);
+	}
+
+	/**
+	 * This method returns the maximum number of datagrams sent to the device per second
+	 *
+	 * @return int This returns the sustained rate, 0 if the rate is not limited.
+	 */
+	public int getMaxPacketsPerSecond() {
+		return this.rateLimiter.getPacketsPerSecond();
+	}
+
+	/**
+	 * This method is used set the maximum number of datagrams sent to the device per second, datagrams beyond the burst wait for their turn
+	 *
+	 * @param maxPacketsPerSecond This is the sustained rate to set, 0 to not limit the rate
+	 */
+	public void setMaxPacketsPerSecond(int maxPacketsPerSecond) {
+		this.rateLimiter.setLimit(maxPacketsPerSecond, this.rateLimiter.getBurst());
+	}
+
+	/**
+	 * This method returns the number of datagrams that may be sent to the device at once before {@link #getMaxPacketsPerSecond()} applies
+	 *
+	 * @return int This returns the burst size.
+	 */
+	public int getMaxPacketBurst() {
+		return this.rateLimiter.getBurst();
+	}
+
+	/**
+	 * This method is used set the number of datagrams that may be sent to the device at once before {@link #getMaxPacketsPerSecond()} applies
+	 *
+	 * @param maxPacketBurst This is the burst size to set
+	 */
+	public void setMaxPacketBurst(int maxPacketBurst) {
+		this.rateLimiter.setLimit(this.rateLimiter.getPacketsPerSecond(), maxPacketBurst);
+	}
+
+	/**
+	 * This method returns the maximum number of datagrams sent per second by every communicator of the JVM together,
+	 * set by the {@value #FLEET_MAX_PACKETS_PER_SECOND_PROPERTY} system property
+	 *
+	 * @return int This returns the sustained rate of the fleet, 0 if the rate is not limited.
+	 */
+	public int getFleetMaxPacketsPerSecond() {
+		return FLEET_RATE_LIMITER.getPacketsPerSecond();
+	}
+
+	/**
+	 * This method returns the number of datagrams that may be sent by every communicator together at once before {@link #getFleetMaxPacketsPerSecond()} applies,
+	 * set by the {@value #FLEET_MAX_PACKET_BURST_PROPERTY} system property
+	 *
+	 * @return int This returns the burst size of the fleet.
+	 */
+	public int getFleetMaxPacketBurst() {
+		return FLEET_RATE_LIMITER.getBurst();
+	}
+
+	/**
+	 * This method returns the rate limiter of the datagrams sent to the device
+	 *
+	 * @return TokenBucketRateLimiter This returns the rate limiter of this device.
+	 */
+	protected TokenBucketRateLimiter getRateLimiter() {
+		return this.rateLimiter;
+	}
+
+	/**
+	 * This method returns the rate limiter of the datagrams sent by every communicator of the JVM together
+	 *
+	 * @return TokenBucketRateLimiter This returns the rate limiter of the fleet.
+	 */
+	protected static TokenBucketRateLimiter getFleetRateLimiter() {
+		return FLEET_RATE_LIMITER;
+	}
+
+	/**
+	 * This method returns the adaptive controller of the number of requests in flight
+	 *
+	 * @return AimdConcurrencyController This returns the controller of this device.
+	 */
+	protected AimdConcurrencyController getConcurrencyController() {
+		return this.concurrencyController;
+	}
+
+	/**
+	 * This method returns the gate ordering the requests sent to the device, control requests first
+	 *
+	 * @return PriorityRequestGate This returns the gate of this device.
+	 */
+	protected PriorityRequestGate getRequestGate() {
+		return this.requestGate;
+	}
+
+	/**
+	 * This method returns the number of requests sent again because the first attempt failed or was not answered
+	 *
+	 * @return long This returns the number of retried requests since the communicator was created.
+	 */
+	public long getRetryCount() {
+		return this.retryCount.get();
+	}
+
+	/**
+	 * This method returns the number of requests sent to the device and not answered yet
+	 *
+	 * @return int This returns the number of requests currently waiting for a reply.
+	 */
+	public int getRequestsInFlight() {
+		return this.requestsInFlight.get();
+	}
+
+	/**
+	 * This method returns the number of sockets opened to the device
+	 *
+	 * @return long This returns the number of sockets opened since the communicator was created.
+	 */
+	public long getSocketOpenCount() {
+		return this.socketOpenCount.get();
+	}
+
+	/**
+	 * This method returns the number of sockets closed
+	 *
+	 * @return long This returns the number of sockets closed since the communicator was created.
+	 */
+	public long getSocketCloseCount() {
+		return this.socketCloseCount.get();
+	}
+
+	/**
+	 * This method returns the latency percentile after which an unanswered monitoring request is sent again
+	 *
+	 * @return int This returns the hedging percentile, 0 if hedging is disabled.
+	 */
+	public int getHedgePercentile() {
+		return this.hedgePercentile;
+	}
+
+	/**
+	 * This method is used set the latency percentile after which an unanswered monitoring request is sent again without waiting for the timeout,
+	 * the first reply to either copy is taken. Only monitoring requests and pipelined windows are hedged, they read the device state and
+	 * can be answered twice without effect; control requests are never sent twice.
+	 *
+	 * @param hedgePercentile This is the hedging percentile to set, 1 to 99, 0 disables hedging
+	 */
+	public void setHedgePercentile(int hedgePercentile) {
+		if (this.isInitialized()) {
+			throw new IllegalStateException(ERROR_MESSAGE_CHANGE_PROPERTIES_AFTER_INIT);
+		} else if (hedgePercentile < 0 || hedgePercentile > 99) {
+			throw new IllegalArgumentException("Hedge percentile must be between 0 and 99: " + hedgePercentile);
+		} else {
+			this.hedgePercentile = hedgePercentile;
+		}
+	}
+
+	/**
+	 * This method returns the number of requests sent again because their reply was later than the hedging percentile
+	 *
+	 * @return long This returns the number of hedged requests since the communicator was created.
+	 */
+	public long getHedgedRequestCount() {
+		return this.hedgedRequestCount.get();
+	}
+
+	/**
+	 * This method returns the number of exchanges kept by the exchange trace
+	 *
+	 * @return int This returns the capacity of the exchange trace.
+	 */
+	public int getExchangeTraceSize() {
+		return this.exchangeTrace.getCapacity();
+	}
+
+	/**
+	 * This method is used set the number of exchanges kept by the exchange trace, rounded up to a power of two
+	 *
+	 * @param exchangeTraceSize This is the capacity of the exchange trace to set
+	 */
+	public void setExchangeTraceSize(int exchangeTraceSize) {
+		if (this.isInitialized()) {
+			throw new IllegalStateException(ERROR_MESSAGE_CHANGE_PROPERTIES_AFTER_INIT);
+		} else {
+			this.exchangeTrace = new ExchangeTrace(exchangeTraceSize);
+		}
+	}
+
+	/**
+	 * This method returns the last exchanges with the device rendered as text, see {@link ExchangeTrace#dump()}
+	 *
+	 * @return String This returns one line per exchange, oldest first.
+	 */
+	public String dumpExchangeTrace() {
+		return this.exchangeTrace.dump();
+	}
+
+	/**
+	 * This method returns the number of exchanges recorded by the exchange trace
+	 *
+	 * @return long This returns the number of exchanges recorded since the communicator was created.
+	 */
+	public long getExchangeTraceCount() {
+		return this.exchangeTrace.getRecordedCount();
+	}
+
+	/**
+	 * This method returns the number of datagrams received from another address than the device and discarded
+	 *
+	 * @return long This returns the number of foreign datagrams since the communicator was created.
+	 */
+	public long getForeignDatagramCount() {
+		return this.foreignDatagramCount.get();
+	}
+
+	/**
+	 * This method returns the number of datagrams sent to the device, retries and hedged requests included
+	 *
+	 * @return long This returns the number of datagrams sent since the communicator was created.
+	 */
+	public long getSentDatagramCount() {
+		return this.sentDatagramCount.get();
+	}
+
+	/**
+	 * This method returns the number of datagrams left on the socket by earlier exchanges and discarded before a new exchange
+	 *
+	 * @return long This returns the number of stale datagrams since the communicator was created.
+	 */
+	public long getStaleDatagramCount() {
+		return this.staleDatagramCount.get();
+	}
+
+	/**
+	 * This method returns the local UDP port the channel binds to
+	 *
+	 * @return int This returns -1 to bind the device port with SO_REUSEADDR, 0 for an ephemeral port, the local port otherwise.
+	 */
+	public int getLocalPort() {
+		return this.localPort;
+	}
+
+	/**
+	 * This method is used set the local UDP port the channel binds to.
+	 * Several adapters binding the device port on one host may receive each other's replies, bind an ephemeral port (0) to run many adapters side by side.
+	 *
+	 * @param localPort This is -1 to bind the device port with SO_REUSEADDR (default), 0 for an ephemeral port, or the local port to bind
+	 */
+	public void setLocalPort(int localPort) {
+		if (this.isInitialized()) {
+			throw new IllegalStateException(ERROR_MESSAGE_CHANGE_PROPERTIES_AFTER_INIT);
+		} else {
+			this.localPort = localPort;
+		}
+	}
+
+	/**
+	 * This method returns the SO_RCVBUF size requested for the channel
+	 *
+	 * @return int This returns the receive buffer size in bytes, 0 for the system default.
+	 */
+	public int getReceiveBufferSize() {
+		return this.receiveBufferSize;
+	}
+
+	/**
+	 * This method is used set the SO_RCVBUF size requested for the channel, a pipelined sweep may have many replies queued at once
+	 *
+	 * @param receiveBufferSize This is the receive buffer size in bytes to set, 0 for the system default
+	 */
+	public void setReceiveBufferSize(int receiveBufferSize) {
+		if (this.isInitialized()) {
+			throw new IllegalStateException(ERROR_MESSAGE_CHANGE_PROPERTIES_AFTER_INIT);
+		} else {
+			this.receiveBufferSize = receiveBufferSize;
+		}
+	}
+
+	/**
+	 * This method returns the SO_SNDBUF size requested for the channel
+	 *
+	 * @return int This returns the send buffer size in bytes, 0 for the system default.
+	 */
+	public int getSendBufferSize() {
+		return this.sendBufferSize;
+	}
+
+	/**
+	 * This method is used set the SO_SNDBUF size requested for the channel
+	 *
+	 * @param sendBufferSize This is the send buffer size in bytes to set, 0 for the system default
+	 */
+	public void setSendBufferSize(int sendBufferSize) {
+		if (this.isInitialized()) {
+			throw new IllegalStateException(ERROR_MESSAGE_CHANGE_PROPERTIES_AFTER_INIT);
+		} else {
+			this.sendBufferSize = sendBufferSize;
+		}
+	}
+
 	/**
 	 * This method returns the device UPD port
 	 *
@@ -104,18 +543,34 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 	}
 
 	/**
-	 * This method is used set the device UDP port
+	 * This method is used set the device UDP port.
+	 * After init() the socket is swapped to the new port once the exchange in progress, if any, is over, see {@link #reconfigureEndpoint(String, int)}
 	 *
 	 * @param port This is the UDP port to set
 	 */
 	public void setPort(int port) {
 		if (this.isInitialized()) {
-			throw new IllegalStateException(ERROR_MESSAGE_CHANGE_PROPERTIES_AFTER_INIT);
+			this.reconfigureEndpoint(this.host, port);
 		} else {
 			this.port = port;
 		}
 	}
 
+	/**
+	 * This method is used set the device host.
+	 * After init() the socket is swapped to the new host once the exchange in progress, if any, is over, see {@link #reconfigureEndpoint(String, int)}
+	 *
+	 * @param host This is the host name or address to set
+	 */
+	@Override
+	public void setHost(String host) {
+		if (this.isInitialized()) {
+			this.reconfigureEndpoint(host, this.port);
+		} else {
+			super.setHost(host);
+		}
+	}
+
 	/**
 	 * This method returns the login info
 	 *
@@ -282,10 +737,21 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 			if (this.datagramSocket == null || this.datagramSocket.isClosed() || !this.datagramSocket.isConnected()) {
 				this.address = InetAddress.getByName(this.host);
 //				this.datagramSocket = new DatagramSocket(this.port);
-				this.datagramSocket = new DatagramSocket(null);
-				datagramSocket.setReuseAddress(true);
+				// Socket of a channel, so the datagrams left by earlier exchanges can be drained without waiting, see drainStaleDatagrams()
+				this.datagramSocket = DatagramChannel.open().socket();
+				this.socketOpenCount.incrementAndGet();
+				if (this.localPort < 0) {
+					// Legacy mode: every instance binds the device port
+					datagramSocket.setReuseAddress(true);
+				}
 				datagramSocket.setBroadcast(true);
-				datagramSocket.bind(new InetSocketAddress(this.port));
+				if (this.receiveBufferSize > 0) {
+					datagramSocket.setReceiveBufferSize(this.receiveBufferSize);
+				}
+				if (this.sendBufferSize > 0) {
+					datagramSocket.setSendBufferSize(this.sendBufferSize);
+				}
+				datagramSocket.bind(new InetSocketAddress(this.localPort < 0 ? this.port : this.localPort));
 				this.datagramSocket.connect(this.address, this.port);
 				this.datagramSocket.setSoTimeout(this.timeout);
 			}
@@ -293,21 +759,23 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 		} catch (IOException ex) {
 			if (this.logger.isErrorEnabled()) {
 				this.logger.error("Error create UDP socket channel", ex);
-				this.status.setLastError(ex);
-				this.status.setConnectionState(ConnectionState.Failed);
-				this.destroyChannel();
 			}
+			this.status.setLastError(ex);
+			this.status.setConnectionState(ConnectionState.Failed);
+			// Opened but not bound or connected, e.g. the local port is taken: closed here, or each retry leaks a channel
+			this.destroyChannel();
 		}
 	}
 
 	/**
-	 * This method is used to destroy a channel actually destroy a socket
+	 * This method is used to destroy a channel actually destroy a socket, connected or not
 	 */
 	public void destroyChannel() {
 		if (null != this.datagramSocket) {
 			try {
-				if (this.datagramSocket.isConnected()) {
+				if (!this.datagramSocket.isClosed()) {
 					this.datagramSocket.close();
+					this.socketCloseCount.incrementAndGet();
 				}
 			} catch (Exception ex) {
 				if (this.logger.isWarnEnabled()) {
@@ -320,6 +788,72 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 
 	}
 
+	/**
+	 * This method is used to point the communicator to another host or port without destroying it.
+	 * The host is resolved first, so an invalid endpoint leaves the communicator untouched. The swap is made while holding the write lock:
+	 * the exchange in progress ends on the old socket, the next one is sent from a socket connected to the new endpoint,
+	 * and a reply of the old endpoint can no longer be read as a reply of the new one.
+	 *
+	 * @param host This is the host name or address of the device
+	 * @param port This is the UDP port of the device
+	 * @throws IllegalArgumentException if the port is not positive or the host cannot be resolved
+	 */
+	private void reconfigureEndpoint(String host, int port) {
+		if (port <= 0) {
+			throw new IllegalArgumentException("Invalid port property: " + port + " (must be positive number)");
+		}
+		if (host == null || host.isEmpty()) {
+			throw new IllegalArgumentException("Invalid host property (must be non-empty)");
+		}
+		InetAddress newAddress;
+		try {
+			newAddress = InetAddress.getByName(host);
+		} catch (IOException ex) {
+			throw new IllegalArgumentException("Invalid host property: " + host, ex);
+		}
+
+		String previousHost;
+		int previousPort;
+		Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			previousHost = this.host;
+			previousPort = this.port;
+			if (port == previousPort && host.equals(previousHost)) {
+				return;
+			}
+			boolean connected = this.isChannelConnected();
+			this.destroyChannel();
+			this.host = host;
+			this.port = port;
+			this.address = newAddress;
+			// Latencies of the previous endpoint say nothing about when to hedge requests to the new one
+			this.requestLatency.clear();
+			this.windowLatency.clear();
+			if (connected) {
+				this.createChannel();
+			}
+		} finally {
+			writeLock.unlock();
+		}
+
+		if (this.logger.isInfoEnabled()) {
+			this.logger.info("Endpoint changed from: " + previousHost + " port: " + previousPort + " to: " + host + " port: " + port);
+		}
+		this.onEndpointChanged(previousHost, previousPort);
+	}
+
+	/**
+	 * This method is called once the communicator was pointed to another host or port after init(), without holding the write lock.
+	 * Subclasses keeping state per endpoint move it to the new endpoint here.
+	 *
+	 * @param previousHost This is the host before the change
+	 * @param previousPort This is the port before the change
+	 */
+	protected void onEndpointChanged(String previousHost, int previousPort) {
+		// Nothing is kept per endpoint by the communicator itself
+	}
+
 	/**
 	 * This method is used to check if a channel is connected or not
 	 */
@@ -327,6 +861,135 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 		return null != this.datagramSocket && this.datagramSocket.isConnected();
 	}
 
+	/**
+	 * This method is used to close the socket after an exchange when it binds the device port, must be called while holding the write lock.
+	 * In legacy mode every instance on the host binds the device port, so a socket left open would take the replies meant for the others.
+	 * A socket bound to its own local port stays open across exchanges and monitoring cycles: it is only replaced on error,
+	 * by {@link #reconfigureEndpoint(String, int)} when the host or port changes, or closed by disconnect() and destroy().
+	 */
+	private void releaseSharedChannel() {
+		if (this.localPort < 0) {
+			this.destroyChannel();
+		}
+	}
+
+	/**
+	 * This method is used to discard the datagrams queued on the socket before a new exchange, must be called while holding the write lock.
+	 * A socket that stays open across exchanges keeps the late and duplicated replies of the previous ones,
+	 * a reply naming the same command would otherwise be taken as the reply to the new request.
+	 */
+	private void drainStaleDatagrams() throws IOException {
+		DatagramChannel channel = this.datagramSocket.getChannel();
+		if (channel == null) {
+			return;
+		}
+		if (this.drainBuffer == null || this.drainBuffer.capacity() != this.bufferLength) {
+			this.drainBuffer = ByteBuffer.allocate(this.bufferLength);
+		}
+		channel.configureBlocking(false);
+		try {
+			while (true) {
+				this.drainBuffer.clear();
+				if (channel.receive(this.drainBuffer) == null) {
+					return;
+				}
+				this.staleDatagramCount.incrementAndGet();
+			}
+		} finally {
+			channel.configureBlocking(true);
+		}
+	}
+
+	/**
+	 * This method is used to cancel the requests in progress and refuse new ones until init() is called again.
+	 * The socket is closed without waiting for the write lock, so a thread blocked in receive() fails at once instead of waiting for the timeout,
+	 * a thread waiting for a rate limit token gives up the wait, and a request failed this way is not retried.
+	 */
+	protected void cancelRequests() {
+		this.cancelled = true;
+		synchronized (this.tokenWaitMonitor) {
+			this.tokenWaitMonitor.notifyAll();
+		}
+		DatagramSocket socket = this.datagramSocket;
+		if (socket != null && !socket.isClosed()) {
+			socket.close();
+			this.socketCloseCount.incrementAndGet();
+		}
+	}
+
+	/**
+	 * This method is used to fail a request once the requests were cancelled
+	 *
+	 * @throws CancellationException if the requests were cancelled
+	 */
+	private void checkNotCancelled() {
+		if (this.cancelled) {
+			throw new CancellationException("Request to " + this.host + " port: " + this.port + " cancelled, the communicator is destroyed");
+		}
+	}
+
+	/**
+	 * This method is used to wait for the rate limit tokens of datagrams before the request passes the gate and takes the write lock,
+	 * so a request held back by the limits neither holds the lock nor delays the control requests queued behind it.
+	 * Only the first datagram waits for its tokens, the others get the tokens free at once: the datagrams are sent together,
+	 * so they must fit in the burst. The device token is taken first, a datagram held back by its own device does not use a token of the fleet meanwhile.
+	 *
+	 * @param datagrams This is the number of datagrams to be sent together
+	 * @param deadline This is the absolute time in milliseconds after which the first datagram is no longer sent
+	 * @return int This returns the number of datagrams that may be sent, 0 if the first token comes after the deadline.
+	 * @throws CancellationException if the requests are cancelled while waiting
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	private int acquireTokens(int datagrams, long deadline) throws InterruptedException {
+		long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadline - System.currentTimeMillis());
+		if (!this.awaitToken(this.rateLimiter, deadlineNanos) || !this.awaitToken(FLEET_RATE_LIMITER, deadlineNanos)) {
+			return 0;
+		}
+		int acquired = 1;
+		while (acquired < datagrams && this.tryAcquireTokens()) {
+			acquired++;
+		}
+		return acquired;
+	}
+
+	/**
+	 * This method is used to wait for one token of a rate limiter, the wait ends early if the requests are cancelled
+	 *
+	 * @param limiter This is the rate limiter to take the token from
+	 * @param deadlineNanos This is the latest time the token is waited for, from {@link System#nanoTime()}
+	 * @return boolean This returns false if the token comes after the deadline, it is not taken then.
+	 * @throws CancellationException if the requests are cancelled while waiting
+	 * @throws InterruptedException if the thread is interrupted while waiting
+	 */
+	private boolean awaitToken(TokenBucketRateLimiter limiter, long deadlineNanos) throws InterruptedException {
+		long wait = limiter.reserve(deadlineNanos);
+		if (wait < 0) {
+			return false;
+		}
+		long sendAt = System.nanoTime() + wait;
+		synchronized (this.tokenWaitMonitor) {
+			while (true) {
+				this.checkNotCancelled();
+				long remaining = sendAt - System.nanoTime();
+				if (remaining <= 0) {
+					return true;
+				}
+				TimeUnit.NANOSECONDS.timedWait(this.tokenWaitMonitor, remaining);
+			}
+		}
+	}
+
+	/**
+	 * This method is used to take the rate limit tokens of a datagram only if they are free right away,
+	 * e.g. for a hedged request, which is sent while holding the write lock and is not worth a wait.
+	 *
+	 * @return boolean This returns true if the datagram may be sent.
+	 */
+	private boolean tryAcquireTokens() {
+		long now = System.nanoTime();
+		return this.rateLimiter.reserve(now) >= 0 && FLEET_RATE_LIMITER.reserve(now) >= 0;
+	}
+
 	/**
 	 * This method is used to send a command to a device
 	 *
@@ -334,6 +997,43 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 	 * @return byte[] This returns the reply received from the device.
 	 */
 	protected byte[] send(byte[] data) throws Exception {
+		if (null == data) {
+			throw new IllegalArgumentException("Send data is null");
+		}
+		return this.send(data, data.length, COPY_DECODER);
+	}
+
+	/**
+	 * This method is used to send a monitoring command to a device and decode the reply in place.
+	 *
+	 * @param data This is the data to be sent
+	 * @param length number of bytes of data to be sent
+	 * @param decoder decoder of the reply, it is given a view of the receive buffer
+	 * @param <T> type of the decoded reply
+	 * @return T This returns the decoded reply received from the device.
+	 */
+	protected <T> T send(byte[] data, int length, ResponseDecoder<T> decoder) throws Exception {
+		return this.send(data, length, decoder, PriorityRequestGate.Priority.MONITORING);
+	}
+
+	/**
+	 * This method is used to send a command to a device and decode the reply in place.
+	 * The request packet, the response packet and the receive buffer are reused, so the exchange itself does not allocate.
+	 * Requests wait at the {@link PriorityRequestGate} of the device, a control request only waits for the exchange in progress.
+	 * A request has an absolute deadline of twice the timeout from the time it passes the gate, covering the attempt and the retry:
+	 * the retry only waits for the time left and is not sent once the deadline has passed.
+	 * The rate limit tokens of each attempt are taken before the gate, the wait for them ends when the deadline passes or the requests are cancelled,
+	 * so the retry passes the gate again once its token is taken.
+	 *
+	 * @param data This is the data to be sent
+	 * @param length number of bytes of data to be sent
+	 * @param decoder decoder of the reply, it is given a view of the receive buffer
+	 * @param priority priority of the request
+	 * @param <T> type of the decoded reply
+	 * @return T This returns the decoded reply received from the device.
+	 * @throws CancellationException if the requests are cancelled by {@link #cancelRequests()}
+	 */
+	protected <T> T send(byte[] data, int length, ResponseDecoder<T> decoder, PriorityRequestGate.Priority priority) throws Exception {
 		if (!this.isInitialized()) {
 			throw new IllegalStateException("UDPCommunicator cannot be used before init() is called");
 		}
@@ -342,24 +1042,290 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 			throw new IllegalArgumentException("Send data is null");
 		}
 
-		if (this.logger.isTraceEnabled()) {
-			this.logger.trace("Sending command: " + getHexByteString(data) + " to: " + this.host + " port: " + this.port);
+		// Until the request passes the gate, the deadline only bounds the wait for the token of the first attempt
+		long deadline = System.currentTimeMillis() + 2L * this.timeout;
+		boolean retry = false;
+		while (true) {
+			if (this.acquireTokens(1, deadline) == 0) {
+				throw new SocketTimeoutException("No rate limit token before the deadline of the request");
+			}
+			this.requestGate.acquire(priority);
+			Lock writeLock = this.lock.writeLock();
+			writeLock.lock();
+			try {
+				this.checkNotCancelled();
+				if (!retry) {
+					deadline = System.currentTimeMillis() + 2L * this.timeout;
+				}
+				this.requestDeadline = deadline;
+				this.requestHedgeable = priority == PriorityRequestGate.Priority.MONITORING;
+				return this.sendOnce(data, length, decoder);
+			} catch (CommandFailureException | CancellationException ex) {
+				throw ex;
+			} catch (Exception ex) {
+				if (retry || System.currentTimeMillis() >= deadline) {
+					throw ex;
+				}
+				retry = true;
+				this.retryCount.incrementAndGet();
+			} finally {
+				this.requestDeadline = Long.MAX_VALUE;
+				this.requestHedgeable = false;
+				this.releaseSharedChannel();
+				writeLock.unlock();
+				this.requestGate.release();
+			}
 		}
+	}
 
-		Lock writeLock = this.lock.writeLock();
-		writeLock.lock();
+	/**
+	 * This method is used to send several commands to a device without waiting for each reply before sending the next one.
+	 * Requests are sent in windows sized by the {@link AimdConcurrencyController} of the device: a window grows while it is
+	 * answered before the timeout and is halved when a reply is missing. Requests that are not answered are sent once more,
+	 * like {@link #send(byte[])} retries once. Each window passes the {@link PriorityRequestGate} as a monitoring request,
+	 * so control requests are sent between two windows.
+	 *
+	 * @param requests This is the list of data to be sent
+	 * @param handler This is the handler matching replies to requests
+	 * @return BitSet This returns the positions of the requests that were answered.
+	 */
+	protected BitSet sendPipelined(List<byte[]> requests, PipelinedResponseHandler handler) throws Exception {
+		if (!this.isInitialized()) {
+			throw new IllegalStateException("UDPCommunicator cannot be used before init() is called");
+		}
 
-		byte[] response;
+		BitSet answered = new BitSet(requests.size());
 		try {
-			response = this.send(data, true);
+			this.sendPipelinedWindows(requests, answered, handler, true);
+			if (answered.cardinality() < requests.size()) {
+				this.retryCount.addAndGet(requests.size() - answered.cardinality());
+				// Late replies of the first pass are still welcome, they answer requests of the retry
+				this.sendPipelinedWindows(requests, answered, handler, false);
+			}
 		} finally {
-			// Destroy channel socket so if change the adapter properties, commproxy will not hold the old connection
-			// And socket can bind port again if try to control immediately after change the adapter properties
+			Lock writeLock = this.lock.writeLock();
+			writeLock.lock();
+			try {
+				this.releaseSharedChannel();
+			} finally {
+				writeLock.unlock();
+			}
+		}
+		return answered;
+	}
+
+	/**
+	 * This method is used to send every unanswered request once, window by window
+	 *
+	 * @param requests This is the list of data to be sent
+	 * @param answered This is the positions of the requests already answered, updated with new replies
+	 * @param handler This is the handler matching replies to requests
+	 * @param drain This is true to discard the datagrams left by earlier exchanges before the first window
+	 */
+	private void sendPipelinedWindows(List<byte[]> requests, BitSet answered, PipelinedResponseHandler handler, boolean drain) throws Exception {
+		int position = answered.nextClearBit(0);
+		while (position < requests.size()) {
+			int window = this.concurrencyController.getWindow();
+			int[] pending = new int[window];
+			int pendingCount = 0;
+			while (pendingCount < window && position < requests.size()) {
+				pending[pendingCount++] = position;
+				position = answered.nextClearBit(position + 1);
+			}
+			int tokens = this.acquireTokens(pendingCount, System.currentTimeMillis() + 2L * this.timeout);
+			if (tokens == 0) {
+				// The rate limits let nothing through in time, the requests left stay unanswered
+				return;
+			}
+			if (tokens < pendingCount) {
+				position = pending[tokens];
+				pendingCount = tokens;
+			}
+
+			this.requestGate.acquire(PriorityRequestGate.Priority.MONITORING);
+			Lock writeLock = this.lock.writeLock();
+			writeLock.lock();
+			boolean completed;
+			try {
+				this.checkNotCancelled();
+				completed = this.exchangeWindow(requests, pending, pendingCount, answered, handler, drain);
+				drain = false;
+			} finally {
+				writeLock.unlock();
+				this.requestGate.release();
+			}
+
+			if (completed) {
+				this.concurrencyController.onWindowCompleted(pendingCount);
+			} else {
+				this.concurrencyController.onTimeout();
+			}
+		}
+	}
+
+	/**
+	 * This method is used to send one window of requests and collect the replies until all arrived or the timeout expired
+	 *
+	 * @param requests This is the list of data to be sent
+	 * @param pending This is the positions of the requests of this window
+	 * @param pendingCount This is the number of requests of this window
+	 * @param answered This is the positions of the requests already answered, updated with new replies
+	 * @param handler This is the handler matching replies to requests
+	 * @param drain This is true to discard the datagrams left by earlier exchanges before sending the window
+	 * @return boolean This returns true if a reply was received for every request of the window.
+	 */
+	private boolean exchangeWindow(List<byte[]> requests, int[] pending, int pendingCount, BitSet answered, PipelinedResponseHandler handler, boolean drain) throws IOException {
+		if (!this.isChannelConnected()) {
+			this.createChannel();
+			// cancelRequests() either sees the new socket or is seen here
+			this.checkNotCancelled();
+			if (!this.isChannelConnected()) {
+				return false;
+			}
+			this.status.setLastTimestamp(System.currentTimeMillis());
+			this.status.setConnectionState(ConnectionState.Connected);
+			this.status.setLastError(null);
+		}
+
+		int sent = 0;
+		int replies = 0;
+		long start = System.nanoTime();
+		try {
+			if (drain) {
+				this.drainStaleDatagrams();
+			}
+			for (int i = 0; i < pendingCount; i++) {
+				byte[] data = requests.get(pending[i]);
+				this.requestPacket.setData(data, 0, data.length);
+				this.requestPacket.setAddress(this.address);
+				this.requestPacket.setPort(this.port);
+				this.write(this.requestPacket);
+				this.requestsInFlight.incrementAndGet();
+				sent++;
+			}
+
+			long deadline = System.currentTimeMillis() + this.timeout;
+			long hedgeAt = this.getHedgeTime(this.windowLatency);
+			while (replies < pendingCount) {
+				if (System.currentTimeMillis() >= deadline) {
+					this.traceUnanswered(requests, pending, pendingCount, answered, start, ExchangeTrace.Outcome.TIMEOUT);
+					return false;
+				}
+				DatagramPacket response;
+				try {
+					response = this.read(requests.get(pending[0]), requests.get(pending[0]).length, Math.min(hedgeAt, deadline));
+				} catch (SocketTimeoutException ex) {
+					if (hedgeAt >= deadline) {
+						throw ex;
+					}
+					// The window is later than usual: send its unanswered requests again, duplicate replies are not matched twice
+					this.hedgeUnanswered(requests, pending, pendingCount, answered, start);
+					hedgeAt = Long.MAX_VALUE;
+					continue;
+				}
+				int position = handler.onResponse(response.getData(), response.getOffset(), response.getLength());
+				if (position == PipelinedResponseHandler.UNATTRIBUTED_FAILURE) {
+					replies++;
+					this.requestsInFlight.decrementAndGet();
+					this.exchangeTrace.record(null, 0, 0, response.getData(), response.getOffset(), response.getLength(), start, ExchangeTrace.Outcome.FAILED);
+				} else if (position >= 0 && !answered.get(position)) {
+					answered.set(position);
+					replies++;
+					this.requestsInFlight.decrementAndGet();
+					byte[] request = requests.get(position);
+					this.exchangeTrace.record(request, 0, request.length, response.getData(), response.getOffset(), response.getLength(), start, ExchangeTrace.Outcome.ANSWERED);
+				} else {
+					this.exchangeTrace.record(null, 0, 0, response.getData(), response.getOffset(), response.getLength(), start, ExchangeTrace.Outcome.DISCARDED);
+				}
+			}
+			this.windowLatency.record(System.nanoTime() - start);
+			this.status.setLastTimestamp(System.currentTimeMillis());
+			return true;
+		} catch (SocketTimeoutException ex) {
+			this.traceUnanswered(requests, pending, pendingCount, answered, start, ExchangeTrace.Outcome.TIMEOUT);
+			this.status.setLastError(ex);
+			this.status.setConnectionState(ConnectionState.Unknown);
 			this.destroyChannel();
-			writeLock.unlock();
+			return false;
+		} catch (IOException ex) {
+			this.traceUnanswered(requests, pending, pendingCount, answered, start, ExchangeTrace.Outcome.ERROR);
+			this.checkNotCancelled();
+			if (this.logger.isErrorEnabled()) {
+				this.logger.error("Error sending pipelined commands to: " + this.host + " port: " + this.port + " connection state: " + this.status.getConnectionState() + " error: ", ex);
+			}
+			this.status.setLastError(ex);
+			this.status.setConnectionState(ConnectionState.Failed);
+			this.destroyChannel();
+			return false;
+		} finally {
+			// Requests left unanswered are no longer waited for
+			this.requestsInFlight.addAndGet(replies - sent);
+			DatagramSocket socket = this.datagramSocket;
+			if (socket != null && !socket.isClosed()) {
+				socket.setSoTimeout(this.timeout);
+			}
 		}
+	}
+
+	/**
+	 * This method is used to record the requests of a window that were not answered in the exchange trace
+	 *
+	 * @param requests This is the list of data sent
+	 * @param pending This is the positions of the requests of the window
+	 * @param pendingCount This is the number of requests of the window
+	 * @param answered This is the positions of the requests answered
+	 * @param start This is the time the window was sent, from {@link System#nanoTime()}
+	 * @param outcome This is the outcome to record
+	 */
+	private void traceUnanswered(List<byte[]> requests, int[] pending, int pendingCount, BitSet answered, long start, ExchangeTrace.Outcome outcome) {
+		for (int i = 0; i < pendingCount; i++) {
+			if (!answered.get(pending[i])) {
+				byte[] request = requests.get(pending[i]);
+				this.exchangeTrace.record(request, 0, request.length, null, 0, 0, start, outcome);
+			}
+		}
+	}
+
+	/**
+	 * This method is used to send the requests of a window that were not answered yet once more, as long as the rate limits let them through at once
+	 *
+	 * @param requests This is the list of data sent
+	 * @param pending This is the positions of the requests of the window
+	 * @param pendingCount This is the number of requests of the window
+	 * @param answered This is the positions of the requests answered
+	 * @param start This is the time the window was sent, from {@link System#nanoTime()}
+	 */
+	private void hedgeUnanswered(List<byte[]> requests, int[] pending, int pendingCount, BitSet answered, long start) throws IOException {
+		for (int i = 0; i < pendingCount; i++) {
+			if (!answered.get(pending[i])) {
+				if (!this.tryAcquireTokens()) {
+					return;
+				}
+				byte[] request = requests.get(pending[i]);
+				this.requestPacket.setData(request, 0, request.length);
+				this.write(this.requestPacket);
+				this.hedgedRequestCount.incrementAndGet();
+				this.exchangeTrace.record(request, 0, request.length, null, 0, 0, start, ExchangeTrace.Outcome.HEDGED);
+			}
+		}
+	}
 
-		return response;
+	/**
+	 * This method returns the time at which an exchange sent now is hedged, must be called while holding the write lock
+	 *
+	 * @param latency This is the latency of the previous exchanges of the same kind
+	 * @return long This returns the time in milliseconds, {@link Long#MAX_VALUE} if hedging is disabled or too few exchanges were measured.
+	 */
+	private long getHedgeTime(LatencyTracker latency) {
+		if (this.hedgePercentile == 0) {
+			return Long.MAX_VALUE;
+		}
+		long percentileNanos = latency.getPercentileNanos(this.hedgePercentile, HEDGE_MIN_SAMPLES);
+		if (percentileNanos < 0) {
+			return Long.MAX_VALUE;
+		}
+		// Never hedge sooner than 1 ms, a reply rarely arrives faster than the scheduler wakes the reader up
+		return System.currentTimeMillis() + Math.max(1, (percentileNanos + 999_999) / 1_000_000);
 	}
 
 	/**
@@ -372,18 +1338,30 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 		return getHexByteString(null, ",", null, bytes);
 	}
 
+	/**
+	 * This method is used to generate a string from the first bytes of a byte array
+	 *
+	 * @param bytes This is the byte array to convert to a String
+	 * @param length This is the number of bytes to convert
+	 * @return String This returns the generated String.
+	 */
+	public static String getHexByteString(byte[] bytes, int length) {
+		return getHexByteString(null, ",", null, bytes, 0, length);
+	}
+
 	public static String getHexByteString(CharSequence prefix, CharSequence separator, CharSequence suffix, byte[] bytes) {
-		byte[] data = new byte[bytes.length];
-		System.arraycopy(bytes, 0, data, 0, bytes.length);
+		return getHexByteString(prefix, separator, suffix, bytes, 0, bytes.length);
+	}
 
-		StringBuilder sb = new StringBuilder();
+	public static String getHexByteString(CharSequence prefix, CharSequence separator, CharSequence suffix, byte[] bytes, int offset, int length) {
+		StringBuilder sb = new StringBuilder(length * (3 + (prefix == null ? 0 : prefix.length()) + (suffix == null ? 0 : suffix.length())));
 
-		for (int i = 0; i < data.length; ++i) {
+		for (int i = 0; i < length; ++i) {
 			if (i > 0) {
 				sb.append(separator);
 			}
 
-			int v = data[i] & 255;
+			int v = bytes[offset + i] & 255;
 			if (prefix != null) {
 				sb.append(prefix);
 			}
@@ -398,98 +1376,164 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 		return sb.toString();
 	}
 
-	private byte[] send(byte[] data, boolean retryOnError) throws Exception {
+	/**
+	 * This method is used to send a command once, must be called while holding the write lock.
+	 * On a timeout or an error the socket is destroyed and the exception is thrown for the caller to decide on a retry.
+	 *
+	 * @param data This is the data to be sent
+	 * @param length number of bytes of data to be sent
+	 * @param decoder decoder of the reply
+	 * @param <T> type of the decoded reply
+	 * @return T This returns the decoded reply received from the device.
+	 */
+	private <T> T sendOnce(byte[] data, int length, ResponseDecoder<T> decoder) throws Exception {
 		try {
 			if (!this.isChannelConnected()) {
 				this.createChannel();
+				// cancelRequests() either sees the new socket or is seen here
+				this.checkNotCancelled();
 				this.status.setLastTimestamp(System.currentTimeMillis());
 				this.status.setConnectionState(ConnectionState.Connected);
 				this.status.setLastError(null);
 			}
 
-			if (this.logger.isDebugEnabled()) {
-				this.logger.debug("Sending: " + getHexByteString(data) + " to: " + this.host + " port: " + this.port);
-			}
-
-			byte[] response = this.internalSend(data);
-
-			if (this.logger.isDebugEnabled()) {
-				this.logger.debug("Received response: " + getHexByteString(response) + " from: " + this.host + " port: " + this.port);
-			}
-
-			if (this.logger.isTraceEnabled()) {
-				this.logger.trace("Received response: " + getHexByteString(response) + " from: " + this.host + " port: " + this.port);
-			}
+			T response = this.internalSend(data, length, decoder);
 
 			this.status.setLastTimestamp(System.currentTimeMillis());
 			return response;
 		} catch (CommandFailureException ex1) {
 			if (this.logger.isErrorEnabled()) {
-				this.logger.error("Command failed " + getHexByteString(data) + " to: " + this.host + " port: " + this.port + " connection state: " + this.status.getConnectionState(), ex1);
+				this.logger.error("Command failed " + getHexByteString(data, length) + " to: " + this.host + " port: " + this.port + " connection state: " + this.status.getConnectionState(), ex1);
 			}
 
 			this.status.setLastTimestamp(System.currentTimeMillis());
 			throw ex1;
 		} catch (SocketTimeoutException ex2) {
+			this.checkNotCancelled();
 			if (this.logger.isDebugEnabled()) {
 				this.logger.debug(
-						"Time out while sending command: " + getHexByteString(data) + " to: " + this.host + " port: " + this.port + " connection state: " + this.status.getConnectionState() + " error: ", ex2);
+						"Time out while sending command: " + getHexByteString(data, length) + " to: " + this.host + " port: " + this.port + " connection state: " + this.status.getConnectionState() + " error: ", ex2);
 			}
 			this.status.setLastError(ex2);
 			this.status.setConnectionState(ConnectionState.Unknown);
 			this.destroyChannel();
-			if (retryOnError) {
-				return this.send(data, false);
-			} else {
-				throw ex2;
-			}
+			throw ex2;
+		} catch (CancellationException ex3) {
+			throw ex3;
 		} catch (Exception ex3) {
+			this.checkNotCancelled();
 			if (ex3 instanceof InterruptedException) {
 				if (this.logger.isDebugEnabled()) {
 					this.logger.debug(
-							"Interrupted while sending command: " + getHexByteString(data) + " to: " + this.host + " port: " + this.port + " connection state: " + this.status.getConnectionState() + " error: ",
+							"Interrupted while sending command: " + getHexByteString(data, length) + " to: " + this.host + " port: " + this.port + " connection state: " + this.status.getConnectionState() + " error: ",
 							ex3);
 				}
 			} else if (this.logger.isErrorEnabled()) {
-				this.logger.error("Error sending command: " + getHexByteString(data) + " to: " + this.host + " port: " + this.port + " connection state: " + this.status.getConnectionState() + " error: ",
+				this.logger.error("Error sending command: " + getHexByteString(data, length) + " to: " + this.host + " port: " + this.port + " connection state: " + this.status.getConnectionState() + " error: ",
 						ex3);
 			}
 
 			this.status.setLastError(ex3);
 			this.status.setConnectionState(ConnectionState.Failed);
 			this.destroyChannel();
-			if (retryOnError) {
-				return this.send(data, false);
-			} else {
-				throw ex3;
-			}
+			throw ex3;
 		}
 	}
 
-	protected byte[] internalSend(byte[] outputData) throws IOException {
-		DatagramPacket request = new DatagramPacket(outputData, outputData.length, this.address, this.port);
-		this.write(request);
-
-		return this.read(outputData);
+	protected <T> T internalSend(byte[] outputData, int length, ResponseDecoder<T> decoder) throws IOException {
+		this.drainStaleDatagrams();
+		this.requestPacket.setData(outputData, 0, length);
+		this.requestPacket.setAddress(this.address);
+		this.requestPacket.setPort(this.port);
+		long start = System.nanoTime();
+		this.write(this.requestPacket);
+		this.requestsInFlight.incrementAndGet();
+
+		// The retry of a request only waits for the time left before the deadline of the request
+		long deadline = Math.min(System.currentTimeMillis() + this.timeout, this.requestDeadline);
+		long hedgeAt = this.requestHedgeable ? this.getHedgeTime(this.requestLatency) : Long.MAX_VALUE;
+		try {
+			while (true) {
+				if (System.currentTimeMillis() >= deadline) {
+					throw new SocketTimeoutException("No matching reply received before the deadline");
+				}
+				DatagramPacket response;
+				try {
+					response = this.read(outputData, length, Math.min(hedgeAt, deadline));
+				} catch (SocketTimeoutException ex) {
+					if (hedgeAt >= deadline) {
+						throw ex;
+					}
+					// The reply is later than usual: send the request again if the rate limits let it through at once, and take whichever reply comes first
+					if (this.tryAcquireTokens()) {
+						this.write(this.requestPacket);
+						this.hedgedRequestCount.incrementAndGet();
+						this.exchangeTrace.record(outputData, 0, length, null, 0, 0, start, ExchangeTrace.Outcome.HEDGED);
+					}
+					hedgeAt = Long.MAX_VALUE;
+					continue;
+				}
+				if (decoder.matches(response.getData(), response.getOffset(), response.getLength())) {
+					this.requestLatency.record(System.nanoTime() - start);
+					this.exchangeTrace.record(outputData, 0, length, response.getData(), response.getOffset(), response.getLength(), start, ExchangeTrace.Outcome.ANSWERED);
+					return decoder.decode(response.getData(), response.getOffset(), response.getLength());
+				}
+				// A late or duplicated reply to an earlier request, keep waiting for ours within the same timeout
+				this.exchangeTrace.record(null, 0, 0, response.getData(), response.getOffset(), response.getLength(), start, ExchangeTrace.Outcome.DISCARDED);
+			}
+		} catch (SocketTimeoutException ex) {
+			this.exchangeTrace.record(outputData, 0, length, null, 0, 0, start, ExchangeTrace.Outcome.TIMEOUT);
+			throw ex;
+		} catch (IOException ex) {
+			this.exchangeTrace.record(outputData, 0, length, null, 0, 0, start, ExchangeTrace.Outcome.ERROR);
+			throw ex;
+		} finally {
+			this.requestsInFlight.decrementAndGet();
+			DatagramSocket socket = this.datagramSocket;
+			if (socket != null && !socket.isClosed() && socket.getSoTimeout() != this.timeout) {
+				socket.setSoTimeout(this.timeout);
+			}
+		}
 	}
 
 	protected void write(DatagramPacket request) throws IOException {
+		// The rate limit tokens are taken by the caller, before the gate for the requests, see acquireTokens(int, long)
 		this.datagramSocket.send(request);
+		this.sentDatagramCount.incrementAndGet();
 	}
 
-	protected byte[] read(byte[] command) throws IOException {
-		if (this.logger.isDebugEnabled()) {
-			this.logger.debug("DEBUG - UDP Communicator reading after command text \"" + getHexByteString(command) + "\" was sent to host " + this.host);
+	/**
+	 * This method is used to receive the next datagram of the device, must be called while holding the write lock.
+	 * Datagrams of other senders are dropped, each receive only waits for the time left, so they cannot push the wait past the deadline.
+	 *
+	 * @param command This is the command sent
+	 * @param length This is the number of bytes of the command
+	 * @param deadline This is the absolute time in milliseconds after which the wait ends
+	 * @return DatagramPacket This returns the datagram received, it is reused by the next exchange.
+	 * @throws SocketTimeoutException if no datagram of the device is received before the deadline
+	 */
+	protected DatagramPacket read(byte[] command, int length, long deadline) throws IOException {
+		if (this.receiveBuffer == null || this.receiveBuffer.length != this.bufferLength) {
+			this.receiveBuffer = new byte[this.bufferLength];
+			this.responsePacket = new DatagramPacket(this.receiveBuffer, this.receiveBuffer.length);
+		}
+		while (true) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				throw new SocketTimeoutException("No datagram received from the device before the deadline");
+			}
+			if (remaining != this.datagramSocket.getSoTimeout()) {
+				this.datagramSocket.setSoTimeout((int) remaining);
+			}
+			// receive() shrinks the packet length to the size of the last datagram, restore the full buffer before reusing it
+			this.responsePacket.setData(this.receiveBuffer, 0, this.receiveBuffer.length);
+			this.datagramSocket.receive(this.responsePacket);
+			if (this.responsePacket.getPort() == this.port && this.address.equals(this.responsePacket.getAddress())) {
+				return this.responsePacket;
+			}
+			// Sent to this port by another device or for another socket sharing the port, it is not ours to read
+			this.foreignDatagramCount.incrementAndGet();
 		}
-
-		byte[] buffer = new byte[this.bufferLength];
-		DatagramPacket response = new DatagramPacket(buffer, buffer.length);
-		this.datagramSocket.receive(response);
-
-		// Get the exact length of data from server
-		buffer = new byte[response.getLength()];
-		System.arraycopy(response.getData(), response.getOffset(), buffer, 0, response.getLength());
-		return buffer;
 	}
 
 	@Override
@@ -498,7 +1542,15 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 			this.logger.trace("Destroying communication channel to: " + this.host + " port: " + this.port);
 		}
 
-		this.destroyChannel();
+		this.cancelRequests();
+		Lock writeLock = this.lock.writeLock();
+		writeLock.lock();
+		try {
+			// Taken once the request in progress, if any, failed on the closed socket
+			this.destroyChannel();
+		} finally {
+			writeLock.unlock();
+		}
 		this.status.setConnectionState(ConnectionState.Disconnected);
 		super.internalDestroy();
 	}
@@ -506,6 +1558,7 @@ public class UDPCommunicator extends BaseDevice implements Communicator {
 	@Override
 	protected void internalInit() throws Exception {
 		super.internalInit();
+		this.cancelled = false;
 
 		if (null != this.datagramSocket) {
 			this.destroyChannel();
@@ -22,6 +22,8 @@ public class ChannelInfo {
 
 	private String displayName;
 
+	private long lastUpdated;
+
 	/**
 	 * Channel info with args-constructor
 	 *
@@ -129,6 +131,24 @@ public class ChannelInfo {
 		this.displayName = displayName;
 	}
 
+	/**
+	 * Retrieves {@code {@link #lastUpdated}}
+	 *
+	 * @return time the channel info was received from the device, in milliseconds since the epoch
+	 */
+	public long getLastUpdated() {
+		return lastUpdated;
+	}
+
+	/**
+	 * Sets {@code lastUpdated}
+	 *
+	 * @param lastUpdated the {@code long} field
+	 */
+	public void setLastUpdated(long lastUpdated) {
+		this.lastUpdated = lastUpdated;
+	}
+
 	@Override
 	public String toString() {
 		return "ChannelInfo{" +
@@ -137,6 +157,7 @@ public class ChannelInfo {
 				", deviceName='" + deviceName + '\'' +
 				", channelName='" + channelName + '\'' +
 				", displayName='" + displayName + '\'' +
+				", lastUpdated=" + lastUpdated +
 				'}';
 	}
 }
\ No newline at end of file
@@ -0,0 +1,361 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoConstant;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoMetric;
+
+/**
+ * Statistics map of one monitoring cycle with a fixed schema: scalar statistics are stored in one slot per {@link QSCUndnemoMetric},
+ * channel statistics are rendered from a table of channel slots. Every key is known ahead, so filling the map neither hashes into
+ * a growing table nor allocates an entry, and a control replacing a value only writes its slot.
+ * The channel held by the active slot is published under the "ActiveChannel" group and every other channel under its "Channel NN" group,
+ * so switching the active channel only moves the active slot pointer: no value is copied and no key is built.
+ * <p>
+ * Channel statistics are read only, scalar statistics can be put and removed like in any map. A key outside the schema is kept in
+ * an overflow map created on first use. The map is serialized as a plain {@link HashMap}.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class ChannelTableStatistics extends AbstractMap<String, String> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private static final int MAX_INDEX = 64;
+
+	/**
+	 * Metrics published for each channel, in publishing order
+	 */
+	private static final QSCUndnemoMetric[] CHANNEL_FIELDS = {
+			QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE,
+			QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME,
+			QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME,
+			QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME,
+			QSCUndnemoMetric.CHANNEL_INFO_DATA_AGE
+	};
+
+	/**
+	 * Keys of the channel statistics by slot and field, slot 0 holds the keys of the "ActiveChannel" group
+	 */
+	private static final String[][] CHANNEL_KEYS = new String[MAX_INDEX + 1][CHANNEL_FIELDS.length];
+
+	/**
+	 * Slot and field of each channel statistic key, encoded as {@code slot * CHANNEL_FIELDS.length + field}
+	 */
+	private static final Map<String, Integer> CHANNEL_KEY_POSITIONS = new HashMap<>();
+
+	/**
+	 * Keys of the scalar statistics: every metric that is not a channel field, in publishing order
+	 */
+	private static final String[] SCALAR_KEYS = Arrays.stream(QSCUndnemoMetric.values())
+			.filter(metric -> !Arrays.asList(CHANNEL_FIELDS).contains(metric))
+			.map(QSCUndnemoMetric::getName)
+			.toArray(String[]::new);
+
+	/**
+	 * Slot of each scalar statistic key in {@link #SCALAR_KEYS}
+	 */
+	private static final Map<String, Integer> SCALAR_KEY_POSITIONS = new HashMap<>();
+
+	static {
+		for (int slot = 0; slot < SCALAR_KEYS.length; slot++) {
+			SCALAR_KEY_POSITIONS.put(SCALAR_KEYS[slot], slot);
+		}
+		for (int slot = 0; slot <= MAX_INDEX; slot++) {
+			String groupName = slot == 0 ? QSCUndnemoConstant.ACTIVE_CHANNEL : String.format("Channel %02d", slot);
+			for (int field = 0; field < CHANNEL_FIELDS.length; field++) {
+				CHANNEL_KEYS[slot][field] = String.format("%s#%s", groupName, CHANNEL_FIELDS[field].getName());
+				CHANNEL_KEY_POSITIONS.put(CHANNEL_KEYS[slot][field], slot * CHANNEL_FIELDS.length + field);
+			}
+		}
+	}
+
+	private final String[] scalarValues = new String[SCALAR_KEYS.length];
+	private final boolean[] scalarPresent = new boolean[SCALAR_KEYS.length];
+	private int scalarCount;
+	private Map<String, String> overflowScalars;
+	private final ChannelInfo[] channels = new ChannelInfo[MAX_INDEX + 1];
+	private int channelCount;
+	private int activeIndex;
+	private long renderedAt;
+
+	/**
+	 * Replace the channel table
+	 *
+	 * @param channelInfos channels to publish, by channel index
+	 * @param activeIndex index of the active channel, 0 if there is none
+	 * @param renderedAt time the data age of the channels is computed at, in milliseconds
+	 */
+	public void setChannels(Map<Integer, ChannelInfo> channelInfos, int activeIndex, long renderedAt) {
+		clearChannels();
+		for (Map.Entry<Integer, ChannelInfo> channelInfo : channelInfos.entrySet()) {
+			int index = channelInfo.getKey();
+			if (index >= 1 && index <= MAX_INDEX && channelInfo.getValue() != null) {
+				channels[index] = channelInfo.getValue();
+				channelCount++;
+			}
+		}
+		this.activeIndex = activeIndex;
+		this.renderedAt = renderedAt;
+	}
+
+	/**
+	 * Remove every channel, scalar statistics are kept
+	 */
+	public void clearChannels() {
+		for (int index = 1; index <= MAX_INDEX; index++) {
+			channels[index] = null;
+		}
+		channelCount = 0;
+		activeIndex = 0;
+	}
+
+	/**
+	 * Retrieves {@code {@link #activeIndex}}
+	 *
+	 * @return value of {@link #activeIndex}
+	 */
+	public int getActiveIndex() {
+		return activeIndex;
+	}
+
+	/**
+	 * Move the "ActiveChannel" group to another channel, the previous active channel is published under its "Channel NN" group again
+	 *
+	 * @param activeIndex index of the new active channel, 0 if there is none
+	 */
+	public void setActiveIndex(int activeIndex) {
+		this.activeIndex = activeIndex;
+	}
+
+	/**
+	 * Check whether a channel is in the table
+	 *
+	 * @param index channel index
+	 * @return true if the channel is published
+	 */
+	public boolean hasChannel(int index) {
+		return index >= 1 && index <= MAX_INDEX && channels[index] != null;
+	}
+
+	@Override
+	public String get(Object key) {
+		Integer position = CHANNEL_KEY_POSITIONS.get(key);
+		if (position == null) {
+			Integer slot = SCALAR_KEY_POSITIONS.get(key);
+			if (slot != null) {
+				return scalarValues[slot];
+			}
+			return overflowScalars == null ? null : overflowScalars.get(key);
+		}
+		ChannelInfo channelInfo = getChannelAt(position / CHANNEL_FIELDS.length);
+		return channelInfo == null ? null : getField(channelInfo, position % CHANNEL_FIELDS.length);
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		Integer position = CHANNEL_KEY_POSITIONS.get(key);
+		if (position == null) {
+			Integer slot = SCALAR_KEY_POSITIONS.get(key);
+			if (slot != null) {
+				return scalarPresent[slot];
+			}
+			return overflowScalars != null && overflowScalars.containsKey(key);
+		}
+		return getChannelAt(position / CHANNEL_FIELDS.length) != null;
+	}
+
+	@Override
+	public String put(String key, String value) {
+		if (CHANNEL_KEY_POSITIONS.containsKey(key)) {
+			throw new UnsupportedOperationException(String.format("Channel statistic %s is rendered from the channel table", key));
+		}
+		Integer slot = SCALAR_KEY_POSITIONS.get(key);
+		if (slot == null) {
+			if (overflowScalars == null) {
+				overflowScalars = new HashMap<>();
+			}
+			return overflowScalars.put(key, value);
+		}
+		String previous = scalarValues[slot];
+		if (!scalarPresent[slot]) {
+			scalarPresent[slot] = true;
+			scalarCount++;
+		}
+		scalarValues[slot] = value;
+		return previous;
+	}
+
+	@Override
+	public String remove(Object key) {
+		if (CHANNEL_KEY_POSITIONS.containsKey(key)) {
+			throw new UnsupportedOperationException(String.format("Channel statistic %s is rendered from the channel table", key));
+		}
+		Integer slot = SCALAR_KEY_POSITIONS.get(key);
+		if (slot == null) {
+			return overflowScalars == null ? null : overflowScalars.remove(key);
+		}
+		String previous = scalarValues[slot];
+		if (scalarPresent[slot]) {
+			scalarPresent[slot] = false;
+			scalarCount--;
+		}
+		scalarValues[slot] = null;
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(scalarValues, null);
+		Arrays.fill(scalarPresent, false);
+		scalarCount = 0;
+		overflowScalars = null;
+		clearChannels();
+	}
+
+	@Override
+	public int size() {
+		return scalarCount + (overflowScalars == null ? 0 : overflowScalars.size()) + channelCount * CHANNEL_FIELDS.length;
+	}
+
+	@Override
+	public Set<Entry<String, String>> entrySet() {
+		return new AbstractSet<Entry<String, String>>() {
+			@Override
+			public Iterator<Entry<String, String>> iterator() {
+				return new EntryIterator();
+			}
+
+			@Override
+			public int size() {
+				return ChannelTableStatistics.this.size();
+			}
+		};
+	}
+
+	/**
+	 * Get the channel published under a slot of {@link #CHANNEL_KEYS}
+	 *
+	 * @param slot 0 for the "ActiveChannel" group, the channel index otherwise
+	 * @return the channel, null if the slot publishes nothing
+	 */
+	private ChannelInfo getChannelAt(int slot) {
+		if (slot == 0) {
+			return activeIndex == 0 ? null : channels[activeIndex];
+		}
+		return slot == activeIndex ? null : channels[slot];
+	}
+
+	/**
+	 * Get the value of a channel field
+	 *
+	 * @param channelInfo channel
+	 * @param field position of the field in {@link #CHANNEL_FIELDS}
+	 * @return value of the field
+	 */
+	private String getField(ChannelInfo channelInfo, int field) {
+		switch (CHANNEL_FIELDS[field]) {
+			case CHANNEL_INFO_ENABLE_STATE:
+				return channelInfo.getEnableState();
+			case CHANNEL_INFO_DEVICE_NAME:
+				return channelInfo.getDeviceName();
+			case CHANNEL_INFO_CHANNEL_NAME:
+				return channelInfo.getChannelName();
+			case CHANNEL_INFO_DISPLAY_NAME:
+				return channelInfo.getDisplayName();
+			default:
+				return String.valueOf((renderedAt - channelInfo.getLastUpdated()) / 1000);
+		}
+	}
+
+	/**
+	 * Serialize as a plain map, the channel table itself is not serializable
+	 *
+	 * @return copy of the statistics
+	 */
+	private Object writeReplace() {
+		Map<String, String> copy = new HashMap<>((int) (size() / 0.75f) + 1);
+		copy.putAll(this);
+		return copy;
+	}
+
+	/**
+	 * Iterator over the scalar statistics, the overflow statistics, then the statistics of every published slot
+	 */
+	private final class EntryIterator implements Iterator<Entry<String, String>> {
+
+		private int scalarSlot = nextScalarSlot(0);
+		private final Iterator<Entry<String, String>> overflowIterator = overflowScalars == null ? Collections.emptyIterator() : overflowScalars.entrySet().iterator();
+		private int slot;
+		private int field = CHANNEL_FIELDS.length;
+
+		@Override
+		public boolean hasNext() {
+			if (scalarSlot < SCALAR_KEYS.length || overflowIterator.hasNext()) {
+				return true;
+			}
+			if (field < CHANNEL_FIELDS.length) {
+				return true;
+			}
+			int nextSlot = slot + 1;
+			while (nextSlot <= MAX_INDEX && channels[nextSlot] == null) {
+				nextSlot++;
+			}
+			return nextSlot <= MAX_INDEX;
+		}
+
+		@Override
+		public Entry<String, String> next() {
+			if (scalarSlot < SCALAR_KEYS.length) {
+				Entry<String, String> entry = new SimpleImmutableEntry<>(SCALAR_KEYS[scalarSlot], scalarValues[scalarSlot]);
+				scalarSlot = nextScalarSlot(scalarSlot + 1);
+				return entry;
+			}
+			if (overflowIterator.hasNext()) {
+				return overflowIterator.next();
+			}
+			if (field >= CHANNEL_FIELDS.length) {
+				do {
+					slot++;
+				} while (slot <= MAX_INDEX && channels[slot] == null);
+				if (slot > MAX_INDEX) {
+					throw new NoSuchElementException();
+				}
+				field = 0;
+			}
+			// The active channel is published under the "ActiveChannel" group
+			int keySlot = slot == activeIndex ? 0 : slot;
+			Entry<String, String> entry = new SimpleImmutableEntry<>(CHANNEL_KEYS[keySlot][field], getField(channels[slot], field));
+			field++;
+			return entry;
+		}
+
+		/**
+		 * Find the next scalar slot holding a value
+		 *
+		 * @param from first slot to look at
+		 * @return slot, {@link #SCALAR_KEYS} length if there is none left
+		 */
+		private int nextScalarSlot(int from) {
+			int next = from;
+			while (next < SCALAR_KEYS.length && !scalarPresent[next]) {
+				next++;
+			}
+			return next;
+		}
+	}
+}
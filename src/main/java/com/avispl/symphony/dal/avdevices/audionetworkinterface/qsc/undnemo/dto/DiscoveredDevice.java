@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto;
+
+/**
+ * Unit that answered a discovery probe
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class DiscoveredDevice {
+
+	private final String address;
+
+	private final String version;
+
+	private final long roundTripTime;
+
+	/**
+	 * Discovered device with args-constructor
+	 *
+	 * @param address IP address the reply came from
+	 * @param version software version reported by the unit
+	 * @param roundTripTime time from the probe to the reply in milliseconds
+	 */
+	public DiscoveredDevice(String address, String version, long roundTripTime) {
+		this.address = address;
+		this.version = version;
+		this.roundTripTime = roundTripTime;
+	}
+
+	/**
+	 * Retrieves {@code {@link #address}}
+	 *
+	 * @return value of {@link #address}
+	 */
+	public String getAddress() {
+		return address;
+	}
+
+	/**
+	 * Retrieves {@code {@link #version}}
+	 *
+	 * @return value of {@link #version}
+	 */
+	public String getVersion() {
+		return version;
+	}
+
+	/**
+	 * Retrieves {@code {@link #roundTripTime}}
+	 *
+	 * @return value of {@link #roundTripTime}
+	 */
+	public long getRoundTripTime() {
+		return roundTripTime;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s version %s (%d ms)", address, version, roundTripTime);
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto;
+
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoMetric;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoStateChangeType;
+
+/**
+ * Device state change event DTO
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public class StateChangeEvent {
+
+	private final QSCUndnemoStateChangeType type;
+
+	private final QSCUndnemoMetric metric;
+
+	private final int channelIndex;
+
+	private final String previousValue;
+
+	private final String currentValue;
+
+	private final long timestamp;
+
+	/**
+	 * State change event with args-constructor
+	 *
+	 * @param type type of the change
+	 * @param metric metric whose value changed
+	 * @param channelIndex index of the channel (1-64), 0 when the change is not bound to a channel
+	 * @param previousValue value before the change
+	 * @param currentValue value after the change
+	 * @param timestamp time the change was observed, in epoch milliseconds
+	 */
+	public StateChangeEvent(QSCUndnemoStateChangeType type, QSCUndnemoMetric metric, int channelIndex, String previousValue, String currentValue, long timestamp) {
+		this.type = type;
+		this.metric = metric;
+		this.channelIndex = channelIndex;
+		this.previousValue = previousValue;
+		this.currentValue = currentValue;
+		this.timestamp = timestamp;
+	}
+
+	/**
+	 * Retrieves {@code {@link #type}}
+	 *
+	 * @return value of {@link #type}
+	 */
+	public QSCUndnemoStateChangeType getType() {
+		return type;
+	}
+
+	/**
+	 * Retrieves {@code {@link #metric}}
+	 *
+	 * @return value of {@link #metric}
+	 */
+	public QSCUndnemoMetric getMetric() {
+		return metric;
+	}
+
+	/**
+	 * Retrieves {@code {@link #channelIndex}}
+	 *
+	 * @return value of {@link #channelIndex}
+	 */
+	public int getChannelIndex() {
+		return channelIndex;
+	}
+
+	/**
+	 * Retrieves {@code {@link #previousValue}}
+	 *
+	 * @return value of {@link #previousValue}
+	 */
+	public String getPreviousValue() {
+		return previousValue;
+	}
+
+	/**
+	 * Retrieves {@code {@link #currentValue}}
+	 *
+	 * @return value of {@link #currentValue}
+	 */
+	public String getCurrentValue() {
+		return currentValue;
+	}
+
+	/**
+	 * Retrieves {@code {@link #timestamp}}
+	 *
+	 * @return value of {@link #timestamp}
+	 */
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	@Override
+	public String toString() {
+		return "StateChangeEvent{" +
+				"type=" + type +
+				", metric=" + metric +
+				", channelIndex=" + channelIndex +
+				", previousValue='" + previousValue + '\'' +
+				", currentValue='" + currentValue + '\'' +
+				", timestamp=" + timestamp +
+				'}';
+	}
+}
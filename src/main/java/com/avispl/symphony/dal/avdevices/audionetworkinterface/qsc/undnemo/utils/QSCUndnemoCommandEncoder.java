@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encoder of {@link QSCUndnemoUDPCommand} to the ASCII bytes sent to the device, e.g. {@code CH_INFO 12\r}.
+ * Every command without argument and every command/argument pair in the range declared by the command is encoded once when the class is loaded,
+ * so the monitoring and control paths never build strings or run a charset encoder.
+ * The returned arrays are shared between all callers and must not be modified.
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public final class QSCUndnemoCommandEncoder {
+
+	/**
+	 * Encoded commands indexed by command ordinal, then by argument - min argument
+	 */
+	private static final byte[][][] COMMAND_TABLE = new byte[QSCUndnemoUDPCommand.values().length][][];
+
+	static {
+		for (QSCUndnemoUDPCommand command : QSCUndnemoUDPCommand.values()) {
+			if (command.hasArgument()) {
+				byte[][] encodedArguments = new byte[command.getMaxArgument() - command.getMinArgument() + 1][];
+				for (int argument = command.getMinArgument(); argument <= command.getMaxArgument(); argument++) {
+					encodedArguments[argument - command.getMinArgument()] = toBytes(command, argument);
+				}
+				COMMAND_TABLE[command.ordinal()] = encodedArguments;
+			} else {
+				COMMAND_TABLE[command.ordinal()] = new byte[][] { toBytes(command.getCommand() + QSCUndnemoConstant.CR) };
+			}
+		}
+	}
+
+	/**
+	 * QSCUndnemoCommandEncoder is a static utility
+	 */
+	private QSCUndnemoCommandEncoder() {
+	}
+
+	/**
+	 * Get encoded bytes of a command without argument
+	 *
+	 * @param command command to encode
+	 * @return shared encoded bytes, must not be modified
+	 * @throws IllegalArgumentException if the command requires an argument
+	 */
+	public static byte[] encode(QSCUndnemoUDPCommand command) {
+		if (command.hasArgument()) {
+			throw new IllegalArgumentException(String.format("Command %s requires an argument", command.getCommand()));
+		}
+		return COMMAND_TABLE[command.ordinal()][0];
+	}
+
+	/**
+	 * Get encoded bytes of a command with an integer argument.
+	 * Arguments outside the pre-encoded range are encoded on the fly and sent as is, the device answers NACK for values it does not accept.
+	 *
+	 * @param command command to encode
+	 * @param argument argument of the command
+	 * @return encoded bytes, must not be modified
+	 * @throws IllegalArgumentException if the command does not take an argument
+	 */
+	public static byte[] encode(QSCUndnemoUDPCommand command, int argument) {
+		if (!command.hasArgument()) {
+			throw new IllegalArgumentException(String.format("Command %s does not take an argument", command.getCommand()));
+		}
+		if (argument >= command.getMinArgument() && argument <= command.getMaxArgument()) {
+			return COMMAND_TABLE[command.ordinal()][argument - command.getMinArgument()];
+		}
+		return toBytes(command, argument);
+	}
+
+	/**
+	 * Build encoded bytes of a command with an argument
+	 *
+	 * @param command command to encode
+	 * @param argument argument of the command
+	 * @return encoded bytes
+	 */
+	private static byte[] toBytes(QSCUndnemoUDPCommand command, int argument) {
+		return toBytes(command.getCommand() + QSCUndnemoConstant.SPACE + argument + QSCUndnemoConstant.CR);
+	}
+
+	/**
+	 * Encode command text to ASCII
+	 *
+	 * @param text command text
+	 * @return encoded bytes
+	 */
+	private static byte[] toBytes(String text) {
+		return text.getBytes(StandardCharsets.US_ASCII);
+	}
+}
@@ -24,6 +24,7 @@ public class QSCUndnemoConstant {
 	public static final String CLOSE_PAREN = ")";
 	public static final String REGEX_IS_INTEGER = "-?(0|[1-9]\\d*)";
 	public static final String COMMA = ",";
+	public static final String HYPHEN = "-";
 	public static final String DOUBLE_QUOTES = "\"\"";
 	public static final String NONE = "None";
 }
\ No newline at end of file
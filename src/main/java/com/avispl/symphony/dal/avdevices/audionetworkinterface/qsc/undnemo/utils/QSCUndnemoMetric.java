@@ -18,10 +18,21 @@ public enum QSCUndnemoMetric {
 	CHANNEL_INFO_DEVICE_NAME("DeviceName"),
 	CHANNEL_INFO_CHANNEL_NAME("ChannelName"),
 	CHANNEL_INFO_DISPLAY_NAME("DisplayName"),
+	CHANNEL_INFO_DATA_AGE("DataAgeSeconds"),
 	SPEAKER_MUTE("SpeakerMute"),
 	VOLUME("Volume"),
 	BUTTON_BRIGHTNESS("ButtonBrightness"),
-	DISPLAY_BRIGHTNESS("DisplayBrightness");
+	DISPLAY_BRIGHTNESS("DisplayBrightness"),
+	CHANNEL_RETRY_PENDING("ChannelRetryPending"),
+	CHANNEL_RETRY_FAILURES("ChannelRetryFailures"),
+	CHANNEL_RETRY_ATTEMPTS("ChannelRetryAttempts"),
+	CHANNEL_RETRY_RECOVERED("ChannelRetryRecovered"),
+	LAST_CYCLE_DURATION("LastCycleDurationMs"),
+	CHANNEL_TABLE_AGE("ChannelTableAgeMs"),
+	CHANNELS_REFRESHED_THIS_CYCLE("ChannelsRefreshedThisCycle"),
+	REQUESTS_THIS_CYCLE("RequestsThisCycle"),
+	PING_ROUND_TRIP_TIME("PingRoundTripTimeMs"),
+	PING_PACKET_LOSS("PingPacketLossPercent");
 
 	private final String name;
 
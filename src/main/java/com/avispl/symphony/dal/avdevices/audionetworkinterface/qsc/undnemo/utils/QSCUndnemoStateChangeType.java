@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Type of device state change published by {@link com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.QSCUndnemoStatePublisher}
+ *
+ * @author Duy Nguyen
+ * @version 1.0.0
+ * @since 1.0.0
+ */
+public enum QSCUndnemoStateChangeType {
+
+	ACTIVE_CHANNEL_CHANGED(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX),
+	SPEAKER_MUTE_CHANGED(QSCUndnemoMetric.SPEAKER_MUTE),
+	VOLUME_CHANGED(QSCUndnemoMetric.VOLUME),
+	BUTTON_BRIGHTNESS_CHANGED(QSCUndnemoMetric.BUTTON_BRIGHTNESS),
+	DISPLAY_BRIGHTNESS_CHANGED(QSCUndnemoMetric.DISPLAY_BRIGHTNESS),
+	CHANNEL_ENABLE_STATE_CHANGED(QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE),
+	CHANNEL_RENAMED(QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME, QSCUndnemoMetric.CHANNEL_INFO_CHANNEL_NAME, QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME);
+
+	private final Set<QSCUndnemoMetric> metrics;
+
+	/**
+	 * QSCUndnemoStateChangeType constructor
+	 *
+	 * @param first first metric of {@code {@link #metrics}}
+	 * @param others other metrics of {@code {@link #metrics}}
+	 */
+	QSCUndnemoStateChangeType(QSCUndnemoMetric first, QSCUndnemoMetric... others) {
+		this.metrics = Collections.unmodifiableSet(EnumSet.of(first, others));
+	}
+
+	/**
+	 * Retrieves {@code {@link #metrics}}
+	 *
+	 * @return metrics whose changes are published with this change type
+	 */
+	public Set<QSCUndnemoMetric> getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Get change type that is bound to the given metric
+	 *
+	 * @param metric metric of the changed value
+	 * @return Enum of QSCUndnemoStateChangeType
+	 */
+	public static QSCUndnemoStateChangeType getByMetric(QSCUndnemoMetric metric) {
+		for (QSCUndnemoStateChangeType type : QSCUndnemoStateChangeType.values()) {
+			if (type.getMetrics().contains(metric)) {
+				return type;
+			}
+		}
+		throw new IllegalArgumentException("Cannot find the state change type for metric: " + metric.getName());
+	}
+}
@@ -12,28 +12,53 @@ package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.util
  */
 public enum QSCUndnemoUDPCommand {
 
-	GET_CMD_VERSION("VERSION"),
-	GET_CMD_ACT_CH_IDX("ACT_CH_IDX"),
-	GET_CMD_CH_INFO("CH_INFO"),
-	GET_CMD_SPKR_MUTE("SPKR_MUTE"),
-	GET_CMD_VOLUME("VOLUME"),
-	GET_CMD_GBB("GBB"),
-	GET_CMD_GDB("GDB"),
-	SET_ACT_CH_IDX("SET_ACT_CH_IDX"),
-	SET_SBB("SBB"),
-	SET_SDB("SDB"),
-	SET_SPKR_MUTE("SET_SPKR_MUTE"),
-	SET_VOLUME("SET_VOLUME");
+	GET_CMD_VERSION("VERSION", false),
+	GET_CMD_ACT_CH_IDX("ACT_CH_IDX", false),
+	GET_CMD_CH_INFO("CH_INFO", false, 1, 64),
+	GET_CMD_SPKR_MUTE("SPKR_MUTE", false),
+	GET_CMD_VOLUME("VOLUME", false),
+	GET_CMD_GBB("GBB", false),
+	GET_CMD_GDB("GDB", false),
+	SET_ACT_CH_IDX("SET_ACT_CH_IDX", true, 1, 64),
+	SET_SBB("SBB", true, 0, 10),
+	SET_SDB("SDB", true, 0, 10),
+	SET_SPKR_MUTE("SET_SPKR_MUTE", true, 0, 10),
+	SET_VOLUME("SET_VOLUME", true, 0, 10);
 
 	private final String command;
+	private final boolean control;
+	private final boolean hasArgument;
+	private final int minArgument;
+	private final int maxArgument;
 
 	/**
-	 * QSCUndnemoUDPCommand constructor
+	 * QSCUndnemoUDPCommand constructor for commands without argument
 	 *
 	 * @param command {@code {@link #command}}
+	 * @param control {@code {@link #control}}
 	 */
-	QSCUndnemoUDPCommand(String command) {
+	QSCUndnemoUDPCommand(String command, boolean control) {
 		this.command = command;
+		this.control = control;
+		this.hasArgument = false;
+		this.minArgument = 0;
+		this.maxArgument = -1;
+	}
+
+	/**
+	 * QSCUndnemoUDPCommand constructor for commands with an integer argument
+	 *
+	 * @param command {@code {@link #command}}
+	 * @param control {@code {@link #control}}
+	 * @param minArgument {@code {@link #minArgument}}
+	 * @param maxArgument {@code {@link #maxArgument}}
+	 */
+	QSCUndnemoUDPCommand(String command, boolean control, int minArgument, int maxArgument) {
+		this.command = command;
+		this.control = control;
+		this.hasArgument = true;
+		this.minArgument = minArgument;
+		this.maxArgument = maxArgument;
 	}
 
 	/**
@@ -44,4 +69,40 @@ public enum QSCUndnemoUDPCommand {
 	public String getCommand() {
 		return command;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Retrieves {@code {@link #hasArgument}}
+	 *
+	 * @return true if the command takes an integer argument
+	 */
+	public boolean hasArgument() {
+		return hasArgument;
+	}
+
+	/**
+	 * Retrieves {@code {@link #minArgument}}
+	 *
+	 * @return lowest argument value the command is pre-encoded for
+	 */
+	public int getMinArgument() {
+		return minArgument;
+	}
+
+	/**
+	 * Retrieves {@code {@link #maxArgument}}
+	 *
+	 * @return highest argument value the command is pre-encoded for
+	 */
+	public int getMaxArgument() {
+		return maxArgument;
+	}
+
+	/**
+	 * Retrieves {@code {@link #control}}
+	 *
+	 * @return true if the command changes the device state and is sent with control priority
+	 */
+	public boolean isControl() {
+		return control;
+	}
+}
@@ -0,0 +1,366 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * UDP proxy placed between {@link UDPCommunicator} and a device (or {@link QSCUndnemoDeviceSimulator}) that injects network faults:
+ * loss, duplication, reordering, delay jitter and truncation, in both directions.
+ * It can also drop requests arriving faster than a small embedded device drains its input queue.
+ * <p>
+ * Like a NAT, every client address gets its own upstream socket, so a reply is only delivered to the socket that sent the request,
+ * including late replies to a socket that has been closed since.
+ *
+ * @author Duy Nguyen
+ * @version 1.0
+ * @since 1.0.0
+ */
+class FaultInjectingUDPProxy implements AutoCloseable {
+
+	/**
+	 * Upstream socket of one client address
+	 */
+	private class Route {
+
+		private final SocketAddress clientAddress;
+		private final DatagramSocket upstream;
+		private final Thread worker;
+		private byte[] heldForReorder;
+		private volatile long lastUsed = System.currentTimeMillis();
+
+		Route(SocketAddress clientAddress) throws SocketException {
+			this.clientAddress = clientAddress;
+			this.upstream = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+			this.worker = new Thread(this::relayReplies, "FaultInjectingUDPProxy-upstream-" + upstream.getLocalPort());
+			this.worker.setDaemon(true);
+			this.worker.start();
+		}
+
+		/**
+		 * Relay replies from the device to the client of this route
+		 */
+		private void relayReplies() {
+			byte[] buffer = new byte[2048];
+			DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+			while (!upstream.isClosed()) {
+				try {
+					packet.setData(buffer, 0, buffer.length);
+					upstream.receive(packet);
+					forward(Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength()), this, false);
+				} catch (IOException e) {
+					// Socket closed
+				}
+			}
+		}
+
+		void close() {
+			upstream.close();
+		}
+	}
+
+	private static final long ROUTE_IDLE_TIMEOUT_MS = 5000;
+
+	private final DatagramSocket downstream;
+	private final SocketAddress deviceAddress;
+	private final Map<SocketAddress, Route> routes = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "FaultInjectingUDPProxy-scheduler");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private final Thread worker;
+	private final Random random;
+
+	private volatile double lossRate;
+	private volatile double duplicationRate;
+	private volatile double reorderRate;
+	private volatile double truncationRate;
+	private volatile long baseDelayMs;
+	private volatile long jitterMs;
+	private int policerBurst;
+	private long policerNanosPerRequest;
+	private long policerDrainedAt;
+
+	private final AtomicLong forwarded = new AtomicLong();
+	private final AtomicLong dropped = new AtomicLong();
+	private final AtomicLong duplicated = new AtomicLong();
+	private final AtomicLong reordered = new AtomicLong();
+	private final AtomicLong truncated = new AtomicLong();
+	private final AtomicLong requests = new AtomicLong();
+	private final AtomicLong policed = new AtomicLong();
+
+	/**
+	 * Start a proxy on an ephemeral loopback port
+	 *
+	 * @param devicePort port of the device on the loopback address
+	 * @param seed seed of the fault generator, so a failing run can be replayed
+	 * @throws SocketException if the socket cannot be bound
+	 */
+	FaultInjectingUDPProxy(int devicePort, long seed) throws SocketException {
+		this.deviceAddress = new InetSocketAddress(InetAddress.getLoopbackAddress(), devicePort);
+		this.random = new Random(seed);
+		this.downstream = new DatagramSocket(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+		this.worker = new Thread(this::relayRequests, "FaultInjectingUDPProxy-downstream-" + downstream.getLocalPort());
+		this.worker.setDaemon(true);
+		this.worker.start();
+		// Clients open a new socket for almost every request, expire idle routes like a NAT would
+		this.scheduler.scheduleWithFixedDelay(this::expireRoutes, ROUTE_IDLE_TIMEOUT_MS, ROUTE_IDLE_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Close routes that have not carried a request for {@link #ROUTE_IDLE_TIMEOUT_MS}
+	 */
+	private void expireRoutes() {
+		long now = System.currentTimeMillis();
+		routes.values().removeIf(route -> {
+			if (now - route.lastUsed > ROUTE_IDLE_TIMEOUT_MS) {
+				route.close();
+				return true;
+			}
+			return false;
+		});
+	}
+
+	/**
+	 * @return port clients must send to
+	 */
+	int getPort() {
+		return downstream.getLocalPort();
+	}
+
+	/**
+	 * @param lossRate probability that a datagram is dropped
+	 * @return this proxy
+	 */
+	FaultInjectingUDPProxy withLoss(double lossRate) {
+		this.lossRate = lossRate;
+		return this;
+	}
+
+	/**
+	 * @param duplicationRate probability that a datagram is delivered twice
+	 * @return this proxy
+	 */
+	FaultInjectingUDPProxy withDuplication(double duplicationRate) {
+		this.duplicationRate = duplicationRate;
+		return this;
+	}
+
+	/**
+	 * @param reorderRate probability that a datagram is held back and delivered after the next one
+	 * @return this proxy
+	 */
+	FaultInjectingUDPProxy withReordering(double reorderRate) {
+		this.reorderRate = reorderRate;
+		return this;
+	}
+
+	/**
+	 * @param truncationRate probability that a datagram is cut at a random length
+	 * @return this proxy
+	 */
+	FaultInjectingUDPProxy withTruncation(double truncationRate) {
+		this.truncationRate = truncationRate;
+		return this;
+	}
+
+	/**
+	 * @param baseDelayMs delay applied to every datagram, in each direction
+	 * @param jitterMs maximum random delay added to the base delay
+	 * @return this proxy
+	 */
+	FaultInjectingUDPProxy withDelay(long baseDelayMs, long jitterMs) {
+		this.baseDelayMs = baseDelayMs;
+		this.jitterMs = jitterMs;
+		return this;
+	}
+
+	/**
+	 * @param burst requests the device queue holds
+	 * @param requestsPerSecond rate the device drains its queue at, requests arriving at a full queue are dropped
+	 * @return this proxy
+	 */
+	synchronized FaultInjectingUDPProxy withRequestPolicer(int burst, int requestsPerSecond) {
+		this.policerBurst = burst;
+		this.policerNanosPerRequest = 1_000_000_000L / requestsPerSecond;
+		this.policerDrainedAt = System.nanoTime();
+		return this;
+	}
+
+	long getPoliced() {
+		return policed.get();
+	}
+
+	long getRequests() {
+		return requests.get();
+	}
+
+	long getForwarded() {
+		return forwarded.get();
+	}
+
+	long getDropped() {
+		return dropped.get();
+	}
+
+	long getDuplicated() {
+		return duplicated.get();
+	}
+
+	long getReordered() {
+		return reordered.get();
+	}
+
+	long getTruncated() {
+		return truncated.get();
+	}
+
+	/**
+	 * Relay requests from clients to the device
+	 */
+	private void relayRequests() {
+		byte[] buffer = new byte[2048];
+		DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+		while (!downstream.isClosed()) {
+			try {
+				packet.setData(buffer, 0, buffer.length);
+				downstream.receive(packet);
+				requests.incrementAndGet();
+				SocketAddress clientAddress = packet.getSocketAddress();
+				Route route = routes.get(clientAddress);
+				if (route == null) {
+					route = new Route(clientAddress);
+					routes.put(clientAddress, route);
+				}
+				route.lastUsed = System.currentTimeMillis();
+				forward(Arrays.copyOfRange(packet.getData(), packet.getOffset(), packet.getOffset() + packet.getLength()), route, true);
+			} catch (IOException e) {
+				// Socket closed
+			}
+		}
+	}
+
+	/**
+	 * Apply faults to a datagram and deliver it
+	 *
+	 * @param data datagram payload
+	 * @param route route of the client
+	 * @param toDevice true for a request, false for a reply
+	 */
+	private void forward(byte[] data, Route route, boolean toDevice) {
+		byte[] releasedAfter = null;
+		synchronized (this) {
+			if (toDevice && policerBurst > 0) {
+				long now = System.nanoTime();
+				if (policerDrainedAt - now >= policerBurst * policerNanosPerRequest) {
+					policed.incrementAndGet();
+					return;
+				}
+				policerDrainedAt = Math.max(policerDrainedAt, now) + policerNanosPerRequest;
+			}
+			if (random.nextDouble() < lossRate) {
+				dropped.incrementAndGet();
+				return;
+			}
+			if (data.length > 1 && random.nextDouble() < truncationRate) {
+				data = Arrays.copyOf(data, 1 + random.nextInt(data.length - 1));
+				truncated.incrementAndGet();
+			}
+			if (random.nextDouble() < duplicationRate) {
+				duplicated.incrementAndGet();
+				schedule(data, route, toDevice, nextDelay());
+			}
+			if (route.heldForReorder != null) {
+				releasedAfter = route.heldForReorder;
+				route.heldForReorder = null;
+			} else if (random.nextDouble() < reorderRate) {
+				reordered.incrementAndGet();
+				route.heldForReorder = data;
+				byte[] held = data;
+				// Release the held datagram even if nothing else is sent on this route
+				scheduler.schedule(() -> {
+					synchronized (this) {
+						if (route.heldForReorder == held) {
+							route.heldForReorder = null;
+							deliver(held, route, toDevice);
+						}
+					}
+				}, nextDelay() + 20, TimeUnit.MILLISECONDS);
+				return;
+			}
+		}
+		long delay = nextDelay();
+		schedule(data, route, toDevice, delay);
+		if (releasedAfter != null) {
+			schedule(releasedAfter, route, toDevice, delay + 1);
+		}
+	}
+
+	/**
+	 * @return delay of the next datagram
+	 */
+	private synchronized long nextDelay() {
+		return baseDelayMs + (jitterMs > 0 ? (long) (random.nextDouble() * jitterMs) : 0);
+	}
+
+	/**
+	 * Deliver a datagram after a delay
+	 */
+	private void schedule(byte[] data, Route route, boolean toDevice, long delayMs) {
+		if (delayMs <= 0) {
+			deliver(data, route, toDevice);
+		} else {
+			scheduler.schedule(() -> deliver(data, route, toDevice), delayMs, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Send a datagram to the device through the route upstream socket, or to the client through the downstream socket
+	 */
+	private void deliver(byte[] data, Route route, boolean toDevice) {
+		try {
+			if (toDevice) {
+				route.upstream.send(new DatagramPacket(data, data.length, deviceAddress));
+			} else {
+				downstream.send(new DatagramPacket(data, data.length, route.clientAddress));
+			}
+			forwarded.incrementAndGet();
+		} catch (IOException e) {
+			// Socket closed
+		}
+	}
+
+	/**
+	 * @return summary of the injected faults
+	 */
+	String describeFaults() {
+		return String.format("requests=%d forwarded=%d dropped=%d duplicated=%d reordered=%d truncated=%d policed=%d",
+				requests.get(), forwarded.get(), dropped.get(), duplicated.get(), reordered.get(), truncated.get(), policed.get());
+	}
+
+	@Override
+	public void close() {
+		downstream.close();
+		for (Route route : routes.values()) {
+			route.close();
+		}
+		scheduler.shutdownNow();
+		worker.interrupt();
+	}
+}
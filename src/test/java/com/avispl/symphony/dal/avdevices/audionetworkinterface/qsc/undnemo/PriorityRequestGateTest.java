@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoUDPCommand;
+
+/**
+ * Unit test for {@link PriorityRequestGate}.
+ * Test the passing order of waiting requests
+ *
+ * @author Duy Nguyen
+ * @version 1.0
+ * @since 1.0.0
+ */
+class PriorityRequestGateTest {
+
+	private static final long TIMEOUT_MS = 5000;
+
+	private final PriorityRequestGate gate = new PriorityRequestGate();
+	private final List<String> passed = Collections.synchronizedList(new ArrayList<>());
+
+	/**
+	 * Queue monitoring requests one after the other while the gate is held
+	 * Expect them to pass in arrival order
+	 */
+	@Test
+	void testSamePriorityPassesInArrivalOrder() throws Exception {
+		gate.acquire(PriorityRequestGate.Priority.MONITORING);
+		List<Thread> threads = new ArrayList<>();
+		for (int request = 0; request < 5; request++) {
+			threads.add(queue("monitoring-" + request, PriorityRequestGate.Priority.MONITORING));
+		}
+		gate.release();
+		join(threads);
+		Assertions.assertEquals(
+				"[monitoring-0, monitoring-1, monitoring-2, monitoring-3, monitoring-4]", passed.toString());
+		Assertions.assertEquals(6, gate.getPassedCount(PriorityRequestGate.Priority.MONITORING));
+	}
+
+	/**
+	 * Queue monitoring requests, then control requests while the gate is held
+	 * Expect every control request to pass before the monitoring requests that arrived earlier
+	 */
+	@Test
+	void testControlOvertakesMonitoring() throws Exception {
+		gate.acquire(PriorityRequestGate.Priority.MONITORING);
+		List<Thread> threads = new ArrayList<>();
+		threads.add(queue("monitoring-0", PriorityRequestGate.Priority.MONITORING));
+		threads.add(queue("monitoring-1", PriorityRequestGate.Priority.MONITORING));
+		threads.add(queue("control-0", PriorityRequestGate.Priority.CONTROL));
+		threads.add(queue("control-1", PriorityRequestGate.Priority.CONTROL));
+		Assertions.assertEquals(2, gate.getWaitingCount(PriorityRequestGate.Priority.CONTROL));
+		gate.release();
+		join(threads);
+		Assertions.assertEquals("[control-0, control-1, monitoring-0, monitoring-1]", passed.toString());
+		Assertions.assertEquals(0, gate.getWaitingCount(PriorityRequestGate.Priority.MONITORING));
+	}
+
+	/**
+	 * Check the priority of every UDP command
+	 * Expect the commands changing the device state to be controls, the others to be monitoring
+	 */
+	@Test
+	void testCommandPriority() {
+		Set<QSCUndnemoUDPCommand> controls = EnumSet.of(QSCUndnemoUDPCommand.SET_ACT_CH_IDX, QSCUndnemoUDPCommand.SET_SBB, QSCUndnemoUDPCommand.SET_SDB,
+				QSCUndnemoUDPCommand.SET_SPKR_MUTE, QSCUndnemoUDPCommand.SET_VOLUME);
+		for (QSCUndnemoUDPCommand command : QSCUndnemoUDPCommand.values()) {
+			Assertions.assertEquals(controls.contains(command), command.isControl(), command.name());
+		}
+	}
+
+	/**
+	 * Start a thread passing the gate, and wait until it is waiting at the gate
+	 *
+	 * @param name name recorded when the request passes
+	 * @param priority priority of the request
+	 * @return started thread
+	 */
+	private Thread queue(String name, PriorityRequestGate.Priority priority) throws InterruptedException {
+		int waiting = gate.getWaitingCount(priority);
+		Thread thread = new Thread(() -> {
+			gate.acquire(priority);
+			passed.add(name);
+			gate.release();
+		}, name);
+		thread.start();
+		long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+		while (gate.getWaitingCount(priority) == waiting) {
+			Assertions.assertTrue(System.currentTimeMillis() < deadline, name + " not waiting at the gate before timeout");
+			Thread.sleep(1);
+		}
+		return thread;
+	}
+
+	/**
+	 * Wait for every thread to pass the gate
+	 *
+	 * @param threads threads started by {@link #queue(String, PriorityRequestGate.Priority)}
+	 */
+	private static void join(List<Thread> threads) throws InterruptedException {
+		for (Thread thread : threads) {
+			thread.join(TIMEOUT_MS);
+			Assertions.assertFalse(thread.isAlive(), thread.getName() + " did not pass the gate before timeout");
+		}
+	}
+}
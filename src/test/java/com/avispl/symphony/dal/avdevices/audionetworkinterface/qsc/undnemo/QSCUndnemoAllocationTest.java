@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.avispl.symphony.api.dal.dto.control.AdvancedControllableProperty;
+import com.avispl.symphony.api.dal.dto.monitor.ExtendedStatistics;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto.ChannelTableStatistics;
+
+/**
+ * Allocation regression tests for the paths run for every datagram and every monitoring cycle of {@link QSCUndnemoCommunicator}.
+ * Bytes allocated by the test thread are read from {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}
+ * after a warm-up, so the JIT has compiled the paths measured. Each bound is the allocation measured on Java 17 when it was set plus 10%,
+ * above the variation between runs (about 3%): a change allocating more on these paths has to lower its allocation or raise the bound on purpose.
+ * Strings take twice the bytes on Java 8, where the bounds are doubled.
+ *
+ * @author Duy Nguyen
+ * @version 1.0
+ * @since 1.0.0
+ */
+class QSCUndnemoAllocationTest {
+
+	private static final int WARM_UP = 2000;
+	private static final int ITERATIONS = 500;
+	// Strings are backed by char arrays up to Java 8, by byte arrays for Latin-1 text since Java 9
+	private static final int STRING_FACTOR = System.getProperty("java.specification.version").startsWith("1.") ? 2 : 1;
+
+	private final com.sun.management.ThreadMXBean threadMXBean = getThreadMXBean();
+	private QSCUndnemoDeviceSimulator simulator;
+	private QSCUndnemoCommunicator qscUndnemoCommunicator;
+
+	/**
+	 * Operation whose allocation is measured
+	 */
+	private interface Operation {
+
+		/**
+		 * Run the operation once
+		 *
+		 * @throws Exception if the operation fails
+		 */
+		void run() throws Exception;
+	}
+
+	@BeforeEach
+	public void init() throws Exception {
+		Assumptions.assumeTrue(threadMXBean != null && threadMXBean.isThreadAllocatedMemorySupported(), "Thread allocation counters are not supported by this JVM");
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+		simulator = new QSCUndnemoDeviceSimulator();
+		qscUndnemoCommunicator = new QSCUndnemoCommunicator();
+		// The simulator listens on the loopback address, the device port cannot be bound twice
+		qscUndnemoCommunicator.setLocalPort(0);
+		qscUndnemoCommunicator.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+		qscUndnemoCommunicator.setPort(simulator.getPort());
+		qscUndnemoCommunicator.setWarmStartDirectory("");
+		qscUndnemoCommunicator.init();
+	}
+
+	@AfterEach
+	public void destroy() {
+		if (qscUndnemoCommunicator != null) {
+			qscUndnemoCommunicator.destroy();
+		}
+		if (simulator != null) {
+			simulator.close();
+		}
+	}
+
+	/**
+	 * Parse a CH_INFO reply, run for each of the 64 channels of a sweep
+	 * Expect at most 1200 bytes allocated by one parse, 1088 measured
+	 */
+	@Test
+	void testParseChannelInfoAllocation() throws Exception {
+		String reply = "ACK CH_INFO 1 (12) \"MXA910-Room12-d\" \"Automix Out\" \"Ceiling Mic 12\"\r";
+		long bytes = measure(() -> qscUndnemoCommunicator.parseUDPResponse(reply));
+		Assertions.assertTrue(bytes <= 1_200 * STRING_FACTOR, "parseUDPResponse allocated " + bytes + " bytes per CH_INFO reply");
+	}
+
+	/**
+	 * Parse the reply to a GET command, run for each scalar statistic of a monitoring cycle
+	 * Expect at most 580 bytes allocated by one parse, 520 measured
+	 */
+	@Test
+	void testParseScalarAllocation() throws Exception {
+		String reply = "ACK VOLUME 5\r";
+		long bytes = measure(() -> qscUndnemoCommunicator.parseUDPResponse(reply));
+		Assertions.assertTrue(bytes <= 580 * STRING_FACTOR, "parseUDPResponse allocated " + bytes + " bytes per scalar reply");
+	}
+
+	/**
+	 * Retrieve the 64 channels from the simulator, as one sweep does
+	 * Expect at most 330 KB allocated by one sweep, requests and replies included, 292-298 KB measured
+	 */
+	@Test
+	void testRetrieveChannelInfoAllocation() throws Exception {
+		List<Integer> indexes = new ArrayList<>();
+		for (int index = 1; index <= 64; index++) {
+			indexes.add(index);
+		}
+		long bytes = measure(WARM_UP / 20, ITERATIONS / 10, () -> {
+			Assertions.assertTrue(qscUndnemoCommunicator.retrieveChannelInfo(indexes).isEmpty());
+		});
+		Assertions.assertTrue(bytes <= 330_000 * STRING_FACTOR, "retrieveChannelInfo allocated " + bytes + " bytes per sweep of 64 channels");
+	}
+
+	/**
+	 * Render the 64 cached channels into the statistics of a cycle and read them back like the platform does
+	 * Expect at most 16.5 KB allocated, the active channel request included, 14.7 KB measured
+	 */
+	@Test
+	void testPopulateChannelInfoAllocation() throws Exception {
+		List<Integer> indexes = new ArrayList<>();
+		for (int index = 1; index <= 64; index++) {
+			indexes.add(index);
+		}
+		Assertions.assertTrue(qscUndnemoCommunicator.retrieveChannelInfo(indexes).isEmpty());
+		long bytes = measure(() -> {
+			ChannelTableStatistics statistics = new ChannelTableStatistics();
+			List<AdvancedControllableProperty> controls = new ArrayList<>();
+			qscUndnemoCommunicator.populateChannelInfoMonitoringAndControllingProperties(statistics, controls);
+			Assertions.assertTrue(render(statistics) > 0);
+		});
+		Assertions.assertTrue(bytes <= 16_500 * STRING_FACTOR, "populateChannelInfoMonitoringAndControllingProperties allocated " + bytes + " bytes per cycle");
+	}
+
+	/**
+	 * Monitoring cycle with every channel cached, rendered like the platform does
+	 * Expect at most 27 KB allocated by one cycle, 24.4 KB measured
+	 */
+	@Test
+	void testPollCycleAllocation() throws Exception {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (qscUndnemoCommunicator.isChannelSweepRunning() || countChannels(qscUndnemoCommunicator.getMultipleStatistics()) < 64) {
+			Assertions.assertTrue(System.currentTimeMillis() < deadline, "No complete sweep before timeout");
+			Thread.sleep(20);
+		}
+		long bytes = measure(() -> {
+			ExtendedStatistics statistics = (ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0);
+			Assertions.assertTrue(render(statistics.getStatistics()) > 0);
+		});
+		Assertions.assertTrue(bytes <= 27_000 * STRING_FACTOR, "getMultipleStatistics allocated " + bytes + " bytes per cycle");
+	}
+
+	/**
+	 * Measure the bytes allocated by an operation with the default warm-up and iterations
+	 *
+	 * @param operation operation to measure
+	 * @return average bytes allocated by one run
+	 */
+	private long measure(Operation operation) throws Exception {
+		return measure(WARM_UP, ITERATIONS, operation);
+	}
+
+	/**
+	 * Measure the bytes allocated by the test thread while running an operation
+	 *
+	 * @param warmUp runs before the measure
+	 * @param iterations runs measured
+	 * @param operation operation to measure
+	 * @return average bytes allocated by one run
+	 */
+	private long measure(int warmUp, int iterations, Operation operation) throws Exception {
+		for (int i = 0; i < warmUp; i++) {
+			operation.run();
+		}
+		long threadId = Thread.currentThread().getId();
+		long before = threadMXBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < iterations; i++) {
+			operation.run();
+		}
+		return (threadMXBean.getThreadAllocatedBytes(threadId) - before) / iterations;
+	}
+
+	/**
+	 * Read every statistic, as the platform does when it serializes them
+	 *
+	 * @param statistics statistics to read
+	 * @return total length of the names and values
+	 */
+	private static int render(Map<String, String> statistics) {
+		int length = 0;
+		for (Map.Entry<String, String> statistic : statistics.entrySet()) {
+			length += statistic.getKey().length() + statistic.getValue().length();
+		}
+		return length;
+	}
+
+	/**
+	 * Count the channels served
+	 *
+	 * @param statistics statistics returned by getMultipleStatistics()
+	 * @return number of channel groups holding a device name
+	 */
+	private static int countChannels(List<?> statistics) {
+		int channels = 0;
+		for (String name : ((ExtendedStatistics) statistics.get(0)).getStatistics().keySet()) {
+			if (name.endsWith("#DeviceName")) {
+				channels++;
+			}
+		}
+		return channels;
+	}
+
+	/**
+	 * Get the thread MXBean with allocation counters
+	 *
+	 * @return thread MXBean, null if this JVM does not provide allocation counters
+	 */
+	private static com.sun.management.ThreadMXBean getThreadMXBean() {
+		java.lang.management.ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+		return threadMXBean instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threadMXBean : null;
+	}
+}
@@ -0,0 +1,417 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.avispl.symphony.api.dal.dto.control.ControllableProperty;
+import com.avispl.symphony.api.dal.dto.monitor.ExtendedStatistics;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoMetric;
+
+/**
+ * End-to-end benchmark of {@link QSCUndnemoCommunicator} against {@link QSCUndnemoDeviceSimulator} stand-ins behind {@link FaultInjectingUDPProxy}.
+ * Every scenario polls one or several devices at the same time, each from its own thread, for {@code bench.cycles} cycles (200 by default)
+ * with a control every {@link #CONTROL_EVERY} cycles, and measures the cold sweep time, the cycle and control round-trip times,
+ * the CPU time and the bytes allocated by the adapter threads, and the datagrams sent per cycle.
+ * Scenarios vary the number of devices polled concurrently, the round-trip time and the loss rate.
+ * <p>
+ * Results are written as JSON to {@code bench.report} ({@code target/qsc-undnemo-benchmark.json} by default) so runs before and after
+ * a transport change can be compared. Excluded from the default build, run with {@code mvn test -P benchmark}.
+ *
+ * @author Duy Nguyen
+ * @version 1.0
+ * @since 1.0.0
+ */
+@Tag("Benchmark")
+class QSCUndnemoBenchmark {
+
+	private static final int CYCLES = Integer.getInteger("bench.cycles", 200);
+	private static final long SEED = Long.getLong("bench.seed", 20221018L);
+	private static final String REPORT = System.getProperty("bench.report", Paths.get("target", "qsc-undnemo-benchmark.json").toString());
+	private static final int TIMEOUT = 200;
+	private static final int CONTROL_EVERY = 10;
+	private static final int[] DEVICES = { 1, 4 };
+	private static final int[] RTT_MS = { 0, 10 };
+	private static final double[] LOSS = { 0, 0.02 };
+	// Threads of the stand-ins are not part of the adapter cost
+	private static final String[] STAND_IN_THREAD_PREFIXES = { "QSCUndnemoDeviceSimulator", "FaultInjectingUDPProxy" };
+
+	private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Run every scenario and write the report
+	 * Expect every scenario to complete its cold sweep, cycle failures are only counted
+	 */
+	@Test
+	void benchmarkPollCycle() throws Exception {
+		List<ScenarioResult> results = new ArrayList<>();
+		for (int devices : DEVICES) {
+			for (int rttMs : RTT_MS) {
+				for (double loss : LOSS) {
+					ScenarioResult result = runScenario(devices, rttMs, loss);
+					System.out.println(result);
+					results.add(result);
+				}
+			}
+		}
+		Path report = Paths.get(REPORT).toAbsolutePath();
+		if (report.getParent() != null) {
+			Files.createDirectories(report.getParent());
+		}
+		Files.write(report, toJson(results).getBytes(StandardCharsets.UTF_8));
+		System.out.println("Benchmark report written to " + report);
+	}
+
+	/**
+	 * Poll several devices at the same time, each from its own thread
+	 *
+	 * @param deviceCount number of devices polled concurrently
+	 * @param rttMs round-trip time added by the proxies
+	 * @param loss loss rate of the proxies, in each direction
+	 * @return measurements of the scenario
+	 */
+	private ScenarioResult runScenario(int deviceCount, int rttMs, double loss) throws Exception {
+		ScenarioResult result = new ScenarioResult(deviceCount, rttMs, loss);
+		List<StandIn> standIns = new ArrayList<>();
+		try {
+			for (int i = 0; i < deviceCount; i++) {
+				standIns.add(new StandIn(SEED + i, rttMs, loss));
+			}
+			for (StandIn standIn : standIns) {
+				result.coldSweepNanos.add(standIn.sweep());
+			}
+
+			Map<Long, long[]> threadCostsBefore = snapshotThreadCosts();
+			long requestsBefore = 0;
+			long retriesBefore = 0;
+			for (StandIn standIn : standIns) {
+				requestsBefore += standIn.proxy.getRequests();
+				retriesBefore += standIn.communicator.getRetryCount();
+			}
+			List<Thread> pollers = new ArrayList<>();
+			for (StandIn standIn : standIns) {
+				Thread poller = new Thread(() -> standIn.poll(result), "QSCUndnemoBenchmark-poller-" + pollers.size());
+				pollers.add(poller);
+			}
+			long start = System.nanoTime();
+			for (Thread poller : pollers) {
+				poller.start();
+			}
+			for (Thread poller : pollers) {
+				poller.join();
+			}
+			result.wallNanos = System.nanoTime() - start;
+			// The sweep executors of the adapters are still alive, the pollers added their own cost when they ended
+			Map<Long, long[]> threadCostsAfter = snapshotThreadCosts();
+			for (Map.Entry<Long, long[]> cost : threadCostsAfter.entrySet()) {
+				long[] before = threadCostsBefore.getOrDefault(cost.getKey(), new long[2]);
+				result.addCost(cost.getValue()[0] - before[0], cost.getValue()[1] - before[1]);
+			}
+			for (StandIn standIn : standIns) {
+				result.requests += standIn.proxy.getRequests();
+				result.retries += standIn.communicator.getRetryCount();
+			}
+			result.requests -= requestsBefore;
+			result.retries -= retriesBefore;
+		} finally {
+			for (StandIn standIn : standIns) {
+				standIn.close();
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Retrieves CPU time and allocated bytes of every live thread but the stand-in and poller threads
+	 *
+	 * @return {cpu nanos, allocated bytes} by thread id, -1 for a figure the JVM does not measure
+	 */
+	private Map<Long, long[]> snapshotThreadCosts() {
+		Map<Long, long[]> costs = new HashMap<>();
+		for (ThreadInfo thread : threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds())) {
+			if (thread == null || isStandInOrPoller(thread.getThreadName()) || thread.getThreadId() == Thread.currentThread().getId()) {
+				continue;
+			}
+			costs.put(thread.getThreadId(), new long[] { threadMXBean.getThreadCpuTime(thread.getThreadId()), getAllocatedBytes(thread.getThreadId()) });
+		}
+		return costs;
+	}
+
+	/**
+	 * Check whether a thread belongs to a stand-in or is a poller, pollers record their own cost
+	 *
+	 * @param threadName name of the thread
+	 * @return true if the thread is not measured by {@link #snapshotThreadCosts()}
+	 */
+	private boolean isStandInOrPoller(String threadName) {
+		if (threadName.startsWith("QSCUndnemoBenchmark-poller")) {
+			return true;
+		}
+		for (String prefix : STAND_IN_THREAD_PREFIXES) {
+			if (threadName.startsWith(prefix)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Retrieves bytes allocated by a thread, on JVMs that measure it
+	 *
+	 * @param threadId id of the thread
+	 * @return allocated bytes, -1 if not measured
+	 */
+	private long getAllocatedBytes(long threadId) {
+		if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(threadId);
+		}
+		return -1;
+	}
+
+	/**
+	 * Render the report
+	 *
+	 * @param results measurements of every scenario
+	 * @return JSON document
+	 */
+	private String toJson(List<ScenarioResult> results) {
+		StringBuilder json = new StringBuilder();
+		json.append("{\n");
+		json.append("  \"timestamp\": \"").append(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ssXXX").format(new Date())).append("\",\n");
+		json.append("  \"javaVersion\": \"").append(System.getProperty("java.version")).append("\",\n");
+		json.append("  \"availableProcessors\": ").append(Runtime.getRuntime().availableProcessors()).append(",\n");
+		json.append("  \"cyclesPerDevice\": ").append(CYCLES).append(",\n");
+		json.append("  \"controlEvery\": ").append(CONTROL_EVERY).append(",\n");
+		json.append("  \"timeoutMs\": ").append(TIMEOUT).append(",\n");
+		json.append("  \"seed\": ").append(SEED).append(",\n");
+		json.append("  \"scenarios\": [");
+		for (int i = 0; i < results.size(); i++) {
+			json.append(i == 0 ? "\n" : ",\n").append(results.get(i).toJson());
+		}
+		json.append("\n  ]\n}\n");
+		return json.toString();
+	}
+
+	/**
+	 * Device simulator, fault injecting proxy and adapter of one device
+	 */
+	private static class StandIn implements AutoCloseable {
+
+		private final QSCUndnemoDeviceSimulator simulator;
+		private final FaultInjectingUDPProxy proxy;
+		private final QSCUndnemoCommunicator communicator;
+		private final Path warmStartDirectory;
+		private final double loss;
+
+		StandIn(long seed, int rttMs, double loss) throws Exception {
+			simulator = new QSCUndnemoDeviceSimulator();
+			proxy = new FaultInjectingUDPProxy(simulator.getPort(), seed);
+			// Half of the round trip in each direction
+			proxy.withDelay(rttMs / 2, 0);
+			warmStartDirectory = Files.createTempDirectory("qsc-undnemo-benchmark");
+			communicator = new QSCUndnemoCommunicator();
+			communicator.setLocalPort(0);
+			communicator.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+			communicator.setPort(proxy.getPort());
+			communicator.setTimeout(TIMEOUT);
+			communicator.setWarmStartDirectory(warmStartDirectory.toString());
+			communicator.init();
+			this.loss = loss;
+		}
+
+		/**
+		 * Poll until the first full channel table is served, loss is only injected after it so every scenario polls from a full channel table
+		 *
+		 * @return time to the first full channel table in nanoseconds
+		 */
+		long sweep() throws Exception {
+			long start = System.nanoTime();
+			long deadline = System.currentTimeMillis() + 30000;
+			while (countChannels((ExtendedStatistics) communicator.getMultipleStatistics().get(0)) < 64 || communicator.isChannelSweepRunning()) {
+				Assertions.assertTrue(System.currentTimeMillis() < deadline, "No complete sweep before timeout");
+				Thread.sleep(1);
+			}
+			long elapsed = System.nanoTime() - start;
+			proxy.withLoss(loss);
+			return elapsed;
+		}
+
+		/**
+		 * Drive the adapter for {@link #CYCLES} cycles, called by the poller thread of this device
+		 *
+		 * @param result measurements of the scenario
+		 */
+		void poll(ScenarioResult result) {
+			ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+			long cpuBefore = threadMXBean.getCurrentThreadCpuTime();
+			long allocatedBefore = getCurrentThreadAllocatedBytes(threadMXBean);
+			List<Long> cycleTimes = new ArrayList<>();
+			List<Long> controlTimes = new ArrayList<>();
+			int failedCycles = 0;
+			int failedControls = 0;
+			for (int cycle = 0; cycle < CYCLES; cycle++) {
+				if (cycle % CONTROL_EVERY == CONTROL_EVERY - 1) {
+					ControllableProperty property = new ControllableProperty();
+					property.setProperty(QSCUndnemoMetric.VOLUME.getName());
+					property.setValue(1 + cycle / CONTROL_EVERY % 10);
+					long start = System.nanoTime();
+					try {
+						communicator.controlProperty(property);
+						controlTimes.add(System.nanoTime() - start);
+					} catch (Exception e) {
+						failedControls++;
+					}
+				}
+				long start = System.nanoTime();
+				try {
+					communicator.getMultipleStatistics();
+				} catch (Exception e) {
+					failedCycles++;
+				}
+				cycleTimes.add(System.nanoTime() - start);
+			}
+			long cpu = threadMXBean.getCurrentThreadCpuTime() - cpuBefore;
+			long allocated = getCurrentThreadAllocatedBytes(threadMXBean) - allocatedBefore;
+			synchronized (result) {
+				result.cycleNanos.addAll(cycleTimes);
+				result.controlNanos.addAll(controlTimes);
+				result.failedCycles += failedCycles;
+				result.failedControls += failedControls;
+				result.addCost(cpu, allocated);
+			}
+		}
+
+		/**
+		 * Retrieves bytes allocated by the current thread, on JVMs that measure it
+		 *
+		 * @param threadMXBean thread MXBean of the JVM
+		 * @return allocated bytes, -1 if not measured
+		 */
+		private static long getCurrentThreadAllocatedBytes(ThreadMXBean threadMXBean) {
+			if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+				return ((com.sun.management.ThreadMXBean) threadMXBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+			}
+			return -1;
+		}
+
+		/**
+		 * Count the channels served
+		 *
+		 * @param statistics served statistics
+		 * @return number of channel groups holding a device name
+		 */
+		private static int countChannels(ExtendedStatistics statistics) {
+			int channels = 0;
+			for (String name : statistics.getStatistics().keySet()) {
+				if (name.endsWith("#" + QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName())) {
+					channels++;
+				}
+			}
+			return channels;
+		}
+
+		@Override
+		public void close() throws IOException {
+			communicator.destroy();
+			proxy.close();
+			simulator.close();
+			try (Stream<Path> files = Files.list(warmStartDirectory)) {
+				files.forEach(file -> file.toFile().delete());
+			}
+			Files.delete(warmStartDirectory);
+		}
+	}
+
+	/**
+	 * Measurements of one scenario
+	 */
+	private static class ScenarioResult {
+
+		private final int devices;
+		private final int rttMs;
+		private final double loss;
+		private final List<Long> coldSweepNanos = new ArrayList<>();
+		private final List<Long> cycleNanos = new ArrayList<>();
+		private final List<Long> controlNanos = new ArrayList<>();
+		private int failedCycles;
+		private int failedControls;
+		private long requests;
+		private long retries;
+		private long wallNanos;
+		private long cpuNanos;
+		private long allocatedBytes;
+		private boolean allocationMeasured = true;
+
+		ScenarioResult(int devices, int rttMs, double loss) {
+			this.devices = devices;
+			this.rttMs = rttMs;
+			this.loss = loss;
+		}
+
+		void addCost(long cpu, long allocated) {
+			cpuNanos += Math.max(0, cpu);
+			if (allocated < 0) {
+				allocationMeasured = false;
+			}
+			allocatedBytes += Math.max(0, allocated);
+		}
+
+		private String getName() {
+			return String.format(Locale.ROOT, "devices=%d rtt=%dms loss=%.0f%%", devices, rttMs, loss * 100);
+		}
+
+		private static String percentilesJson(List<Long> nanos) {
+			if (nanos.isEmpty()) {
+				return "null";
+			}
+			List<Long> sorted = new ArrayList<>(nanos);
+			Collections.sort(sorted);
+			long total = 0;
+			for (long value : sorted) {
+				total += value;
+			}
+			return String.format(Locale.ROOT, "{\"count\": %d, \"mean\": %.3f, \"p50\": %.3f, \"p95\": %.3f, \"p99\": %.3f, \"max\": %.3f}", sorted.size(),
+					total / 1e6 / sorted.size(), sorted.get(sorted.size() / 2) / 1e6, sorted.get((int) (sorted.size() * 0.95)) / 1e6,
+					sorted.get((int) (sorted.size() * 0.99)) / 1e6, sorted.get(sorted.size() - 1) / 1e6);
+		}
+
+		String toJson() {
+			int cycles = Math.max(1, cycleNanos.size());
+			return String.format(Locale.ROOT, "    {%n      \"name\": \"%s\",%n      \"devices\": %d,%n      \"rttMs\": %d,%n      \"loss\": %.3f,%n"
+							+ "      \"coldSweepMs\": %s,%n      \"cycleMs\": %s,%n      \"controlMs\": %s,%n      \"failedCycles\": %d,%n      \"failedControls\": %d,%n"
+							+ "      \"cyclesPerSecond\": %.1f,%n      \"datagramsPerCycle\": %.2f,%n      \"retriesPerCycle\": %.3f,%n"
+							+ "      \"cpuMsPerCycle\": %.4f,%n      \"allocatedBytesPerCycle\": %s,%n      \"allocationRateMBps\": %s%n    }",
+					getName(), devices, rttMs, loss, percentilesJson(coldSweepNanos), percentilesJson(cycleNanos), percentilesJson(controlNanos), failedCycles,
+					failedControls, cycleNanos.size() / (wallNanos / 1e9), (double) requests / cycles, (double) retries / cycles, cpuNanos / 1e6 / cycles,
+					allocationMeasured ? String.valueOf(allocatedBytes / cycles) : "null",
+					allocationMeasured ? String.format(Locale.ROOT, "%.3f", allocatedBytes / 1e6 / (wallNanos / 1e9)) : "null");
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT, "Benchmark [%s] cycles=%d failedCycles=%d failedControls=%d%n%s", getName(), cycleNanos.size(), failedCycles, failedControls, toJson());
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.util.BitSet;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link QSCUndnemoCommunicator#parseChannelIndexFilter(String)}.
+ * Test the channel index filter option against a table of values and the channel indexes they select
+ *
+ * @author Duy Nguyen
+ * @version 1.0
+ * @since 1.0.0
+ */
+class QSCUndnemoChannelIndexFilterTest {
+
+	/**
+	 * Filter option values and the channel indexes they select, written as ranges. An empty selection monitors every channel
+	 */
+	private static final String[][] FILTERS = {
+			{ null, "" },
+			{ "", "" },
+			{ "\"\"", "" },
+			{ "1-16,33", "1-16,33" },
+			{ "40-48,1-2,64", "1-2,40-48,64" },
+			{ " 3 , 5 - 7 ", "3,5-7" },
+			{ "1-4,3-6", "1-6" },
+			{ "5-5", "5" },
+			// Reversed range
+			{ "16-1", "" },
+			// Leading minus: a negative index, or the lower bound of a range
+			{ "-5", "" },
+			{ "-5-3", "1-3" },
+			// Clamped to 1-64
+			{ "0", "" },
+			{ "65", "" },
+			{ "0-2", "1-2" },
+			{ "60-70", "60-64" },
+			// Too large for an int
+			{ "99999999999", "" },
+			{ "1-99999999999,8", "8" },
+			// Invalid entries
+			{ "a,1-b,2", "2" },
+			{ "1--3,4-", "" },
+			{ ",,,", "" },
+	};
+
+	/**
+	 * Parse every value of {@link #FILTERS}
+	 * Expect each value to select its channel indexes
+	 */
+	@Test
+	void testParseChannelIndexFilter() {
+		for (String[] filter : FILTERS) {
+			BitSet indexes = QSCUndnemoCommunicator.parseChannelIndexFilter(filter[0]);
+			Assertions.assertEquals(filter[1], toRanges(indexes), "Filter option: " + filter[0]);
+			Assertions.assertTrue(indexes.isEmpty() || indexes.nextSetBit(0) >= 1 && indexes.length() <= 65, "Filter option: " + filter[0]);
+		}
+	}
+
+	/**
+	 * Write channel indexes as ranges, e.g. 1-16,33
+	 *
+	 * @param indexes channel indexes
+	 * @return ranges separated by commas
+	 */
+	private static String toRanges(BitSet indexes) {
+		StringBuilder ranges = new StringBuilder();
+		for (int start = indexes.nextSetBit(0); start >= 0; start = indexes.nextSetBit(start)) {
+			int end = indexes.nextClearBit(start) - 1;
+			if (ranges.length() > 0) {
+				ranges.append(',');
+			}
+			ranges.append(start);
+			if (end > start) {
+				ranges.append('-').append(end);
+			}
+			start = end + 1;
+		}
+		return ranges.toString();
+	}
+}
@@ -57,7 +57,7 @@ class QSCUndnemoCommunicatorTest extends TestCase {
 		Thread.sleep(30000);
 		ExtendedStatistics extendedStatistics = (ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0);
 		Map<String, String> stats = extendedStatistics.getStatistics();
-		Assertions.assertEquals(262, stats.size());
+		Assertions.assertEquals(334, stats.size());
 		Assertions.assertEquals("1", stats.get("SpeakerMute"));
 		Assertions.assertEquals("1", stats.get("DisplayBrightness"));
 		Assertions.assertEquals("1", stats.get("ButtonBrightness"));
@@ -99,7 +99,7 @@ class QSCUndnemoCommunicatorTest extends TestCase {
 		Thread.sleep(30000);
 		ExtendedStatistics extendedStatistics = (ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0);
 		Map<String, String> stats = extendedStatistics.getStatistics();
-		Assertions.assertEquals(262, stats.size());
+		Assertions.assertEquals(334, stats.size());
 		Assertions.assertEquals("1", stats.get("SpeakerMute"));
 		Assertions.assertEquals("1", stats.get("DisplayBrightness"));
 		Assertions.assertEquals("1", stats.get("ButtonBrightness"));
@@ -137,7 +137,7 @@ class QSCUndnemoCommunicatorTest extends TestCase {
 		Thread.sleep(30000);
 		ExtendedStatistics extendedStatistics = (ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0);
 		Map<String, String> stats = extendedStatistics.getStatistics();
-		Assertions.assertEquals(18, stats.size());
+		Assertions.assertEquals(29, stats.size());
 		Assertions.assertEquals("1", stats.get("SpeakerMute"));
 		Assertions.assertEquals("1", stats.get("DisplayBrightness"));
 		Assertions.assertEquals("1", stats.get("ButtonBrightness"));
@@ -0,0 +1,259 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loopback stand-in for a QSC Attero Tech unDNEMO unit.
+ * Answers the UDP commands used by {@link QSCUndnemoCommunicator} with the same reply format as the device.
+ *
+ * @author Duy Nguyen
+ * @version 1.0
+ * @since 1.0.0
+ */
+class QSCUndnemoDeviceSimulator implements AutoCloseable {
+
+	static final String VERSION = "1.0.3";
+
+	private final DatagramSocket socket;
+	private final Thread worker;
+	private final AtomicLong requestCount = new AtomicLong();
+	private final String[] deviceNames = new String[65];
+	private volatile int activeChannelIndex = 3;
+	private volatile int speakerMute = 1;
+	private volatile int volume = 5;
+	private volatile int buttonBrightness = 7;
+	private volatile int displayBrightness = 8;
+	private volatile long processingDelayMs;
+
+	/**
+	 * Start a simulator on an ephemeral loopback port
+	 *
+	 * @throws SocketException if the socket cannot be bound
+	 */
+	QSCUndnemoDeviceSimulator() throws SocketException {
+		this(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+	}
+
+	/**
+	 * Start a simulator bound to the given address
+	 *
+	 * @param bindAddress address to bind
+	 * @throws SocketException if the socket cannot be bound
+	 */
+	QSCUndnemoDeviceSimulator(InetSocketAddress bindAddress) throws SocketException {
+		for (int i = 1; i <= 64; i++) {
+			// Every fourth channel has nothing assigned, like a partially patched unit
+			deviceNames[i] = i % 4 == 0 ? "" : "MXA910-Room" + i + "-d";
+		}
+		socket = new DatagramSocket(null);
+		socket.setReuseAddress(true);
+		socket.bind(bindAddress);
+		worker = new Thread(this::serve, "QSCUndnemoDeviceSimulator-" + socket.getLocalPort());
+		worker.setDaemon(true);
+		worker.start();
+	}
+
+	/**
+	 * @return port the simulator listens on
+	 */
+	int getPort() {
+		return socket.getLocalPort();
+	}
+
+	/**
+	 * @return number of requests received so far
+	 */
+	long getRequestCount() {
+		return requestCount.get();
+	}
+
+	/**
+	 * @param processingDelayMs delay applied before every reply
+	 */
+	void setProcessingDelayMs(long processingDelayMs) {
+		this.processingDelayMs = processingDelayMs;
+	}
+
+	int getActiveChannelIndex() {
+		return activeChannelIndex;
+	}
+
+	void setActiveChannelIndex(int activeChannelIndex) {
+		this.activeChannelIndex = activeChannelIndex;
+	}
+
+	int getVolume() {
+		return volume;
+	}
+
+	void setVolume(int volume) {
+		this.volume = volume;
+	}
+
+	int getSpeakerMute() {
+		return speakerMute;
+	}
+
+	int getButtonBrightness() {
+		return buttonBrightness;
+	}
+
+	int getDisplayBrightness() {
+		return displayBrightness;
+	}
+
+	/**
+	 * @param index channel index (1-64)
+	 * @param deviceName device name assigned to the channel, empty when nothing is assigned
+	 */
+	void setDeviceName(int index, String deviceName) {
+		deviceNames[index] = deviceName;
+	}
+
+	/**
+	 * Expected device name of a channel
+	 *
+	 * @param index channel index (1-64)
+	 * @return device name
+	 */
+	String getDeviceName(int index) {
+		return deviceNames[index];
+	}
+
+	/**
+	 * Expected enable state of a channel
+	 *
+	 * @param index channel index (1-64)
+	 * @return "1" if a device is assigned, "0" otherwise
+	 */
+	String getEnableState(int index) {
+		return deviceNames[index].isEmpty() ? "0" : "1";
+	}
+
+	/**
+	 * Expected display name of a channel
+	 *
+	 * @param index channel index (1-64)
+	 * @return display name
+	 */
+	String getDisplayName(int index) {
+		return deviceNames[index].isEmpty() ? "No Channel Assigned" : "Automix Out";
+	}
+
+	/**
+	 * Build the reply to a command
+	 *
+	 * @param command command without the trailing CR
+	 * @return reply including the trailing CR
+	 */
+	String reply(String command) {
+		String[] parts = command.trim().split(" ");
+		String name = parts[0];
+		int argument = -1;
+		if (parts.length == 2) {
+			try {
+				argument = Integer.parseInt(parts[1]);
+			} catch (NumberFormatException e) {
+				return "NACK\r";
+			}
+		} else if (parts.length > 2) {
+			return "NACK\r";
+		}
+		switch (name) {
+			case "VERSION":
+				return "ACK VERSION " + VERSION + "\r";
+			case "ACT_CH_IDX":
+				return "ACK ACT_CH_IDX " + activeChannelIndex + "\r";
+			case "SPKR_MUTE":
+				return "ACK SPKR_MUTE " + speakerMute + "\r";
+			case "VOLUME":
+				return "ACK VOLUME " + volume + "\r";
+			case "GBB":
+				return "ACK GBB " + buttonBrightness + "\r";
+			case "GDB":
+				return "ACK GDB " + displayBrightness + "\r";
+			case "CH_INFO":
+				if (argument < 1 || argument > 64) {
+					return "NACK\r";
+				}
+				String deviceName = deviceNames[argument];
+				String channelName = deviceName.isEmpty() ? "" : "Automix Out";
+				return "ACK CH_INFO " + getEnableState(argument) + " (" + argument + ") \"" + deviceName + "\" \"" + channelName + "\" \"" + getDisplayName(argument) + "\"\r";
+			case "SET_ACT_CH_IDX":
+				if (argument < 1 || argument > 64) {
+					return "NACK\r";
+				}
+				activeChannelIndex = argument;
+				return "ACK SET_ACT_CH_IDX " + argument + "\r";
+			case "SET_SPKR_MUTE":
+				if (argument < 0 || argument > 1) {
+					return "NACK\r";
+				}
+				speakerMute = argument;
+				return "ACK SET_SPKR_MUTE " + argument + "\r";
+			case "SET_VOLUME":
+				if (argument < 1 || argument > 10) {
+					return "NACK\r";
+				}
+				volume = argument;
+				return "ACK SET_VOLUME " + argument + "\r";
+			case "SBB":
+				if (argument < 0 || argument > 10) {
+					return "NACK\r";
+				}
+				buttonBrightness = argument;
+				return "ACK SBB " + argument + "\r";
+			case "SDB":
+				if (argument < 0 || argument > 10) {
+					return "NACK\r";
+				}
+				displayBrightness = argument;
+				return "ACK SDB " + argument + "\r";
+			default:
+				return "NACK\r";
+		}
+	}
+
+	/**
+	 * Receive loop of the simulator
+	 */
+	private void serve() {
+		byte[] buffer = new byte[512];
+		DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+		while (!socket.isClosed()) {
+			try {
+				packet.setData(buffer, 0, buffer.length);
+				socket.receive(packet);
+				requestCount.incrementAndGet();
+				String command = new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.US_ASCII);
+				byte[] reply = reply(command).getBytes(StandardCharsets.US_ASCII);
+				long delay = processingDelayMs;
+				if (delay > 0) {
+					Thread.sleep(delay);
+				}
+				socket.send(new DatagramPacket(reply, reply.length, packet.getSocketAddress()));
+			} catch (IOException e) {
+				// Socket closed
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		socket.close();
+		worker.interrupt();
+	}
+}
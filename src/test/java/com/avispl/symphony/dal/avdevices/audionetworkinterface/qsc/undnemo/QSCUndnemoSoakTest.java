@@ -0,0 +1,786 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.lang.management.ManagementFactory;
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.icmp4j.IcmpPingResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import com.avispl.symphony.api.dal.dto.control.ControllableProperty;
+import com.avispl.symphony.api.dal.dto.monitor.ExtendedStatistics;
+import com.avispl.symphony.api.dal.error.ResourceNotReachableException;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto.DiscoveredDevice;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoConstant;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoMetric;
+
+/**
+ * Soak test for {@link QSCUndnemoCommunicator} over a {@link FaultInjectingUDPProxy}.
+ * Every scenario drives getMultipleStatistics() and controlProperty() for {@code soak.cycles} cycles (2000 by default)
+ * and reports cycle time, retries and correctness. Served values must never be wrong, missing values are only counted.
+ * <p>
+ * Excluded from the default build, run with {@code mvn test -P soak}.
+ *
+ * @author Duy Nguyen
+ * @version 1.0
+ * @since 1.0.0
+ */
+@Tag("Soak")
+class QSCUndnemoSoakTest {
+
+	private static final int CYCLES = Integer.getInteger("soak.cycles", 2000);
+	private static final long SEED = Long.getLong("soak.seed", 20221018L);
+	private static final int TIMEOUT = 100;
+	private static final int CONTROL_EVERY = 10;
+
+	private QSCUndnemoDeviceSimulator simulator;
+	private FaultInjectingUDPProxy proxy;
+	private QSCUndnemoCommunicator qscUndnemoCommunicator;
+	private Path warmStartDirectory;
+
+	@BeforeEach
+	public void init() throws Exception {
+		simulator = new QSCUndnemoDeviceSimulator();
+		proxy = new FaultInjectingUDPProxy(simulator.getPort(), SEED);
+		warmStartDirectory = Files.createTempDirectory("qsc-undnemo-soak");
+		qscUndnemoCommunicator = createCommunicator();
+	}
+
+	@AfterEach
+	public void destroy() throws IOException {
+		qscUndnemoCommunicator.destroy();
+		proxy.close();
+		simulator.close();
+		try (Stream<Path> files = Files.list(warmStartDirectory)) {
+			files.forEach(file -> file.toFile().delete());
+		}
+		Files.delete(warmStartDirectory);
+	}
+
+	/**
+	 * Create and initialize a communicator sending through the proxy
+	 *
+	 * @return initialized communicator
+	 */
+	private QSCUndnemoCommunicator createCommunicator() throws Exception {
+		return createCommunicator(new QSCUndnemoCommunicator(), false);
+	}
+
+	/**
+	 * Configure and initialize a communicator sending through the proxy
+	 *
+	 * @param communicator communicator to configure
+	 * @param pingProbe true to enable the pre-flight ping probe
+	 * @return initialized communicator
+	 */
+	private QSCUndnemoCommunicator createCommunicator(QSCUndnemoCommunicator communicator, boolean pingProbe) throws Exception {
+		// The proxy listens on the loopback address, the device port cannot be bound twice
+		communicator.setLocalPort(0);
+		communicator.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+		communicator.setPort(proxy.getPort());
+		communicator.setTimeout(TIMEOUT);
+		communicator.setWarmStartDirectory(warmStartDirectory.toString());
+		communicator.setPingProbe(pingProbe);
+		communicator.init();
+		return communicator;
+	}
+
+	/**
+	 * Restart of the adapter after a complete sweep
+	 * Expect the channel table saved by the first instance to be served by the first cycle of the second instance
+	 */
+	@Test
+	void testSoakWarmStart() throws Exception {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (countChannels((ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0)) < 64 || qscUndnemoCommunicator.isChannelSweepRunning()) {
+			Assertions.assertTrue(System.currentTimeMillis() < deadline, "No complete sweep before timeout");
+			Thread.sleep(50);
+		}
+		qscUndnemoCommunicator.destroy();
+		qscUndnemoCommunicator = createCommunicator();
+
+		ExtendedStatistics statistics = (ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0);
+		Assertions.assertEquals(64, countChannels(statistics));
+		SoakReport report = new SoakReport("warm start");
+		verify(statistics.getStatistics(), report, simulator);
+		Assertions.assertEquals(0, report.wrongValues);
+	}
+
+	/**
+	 * Two adapters in one JVM polling two devices at the same time, each bound to an ephemeral local port
+	 * Expect no reply of one device to be read by the adapter of the other
+	 */
+	@Test
+	void testSoakSharedHost() throws Exception {
+		try (QSCUndnemoDeviceSimulator otherSimulator = new QSCUndnemoDeviceSimulator()) {
+			otherSimulator.setVolume(9);
+			otherSimulator.setActiveChannelIndex(12);
+			for (int index = 1; index <= 64; index++) {
+				otherSimulator.setDeviceName(index, "Other-Room" + index + "-d");
+			}
+			QSCUndnemoCommunicator otherCommunicator = new QSCUndnemoCommunicator();
+			otherCommunicator.setLocalPort(0);
+			otherCommunicator.setHost(InetAddress.getLoopbackAddress().getHostAddress());
+			otherCommunicator.setPort(otherSimulator.getPort());
+			otherCommunicator.setTimeout(TIMEOUT);
+			otherCommunicator.setWarmStartDirectory(warmStartDirectory.toString());
+			otherCommunicator.init();
+			SoakReport otherReport = new SoakReport("shared host, other device");
+			Thread otherPoller = new Thread(() -> {
+				for (int cycle = 0; cycle < CYCLES; cycle++) {
+					long start = System.nanoTime();
+					try {
+						ExtendedStatistics statistics = (ExtendedStatistics) otherCommunicator.getMultipleStatistics().get(0);
+						otherReport.cycleTimesNanos.add(System.nanoTime() - start);
+						verify(statistics.getStatistics(), otherReport, otherSimulator);
+						Thread.sleep(1);
+					} catch (Exception e) {
+						otherReport.failedCycles++;
+					}
+				}
+			}, "QSCUndnemoSoakTest-other-poller");
+			try {
+				otherPoller.start();
+				SoakReport report = runSoak("shared host");
+				otherPoller.join();
+				System.out.println(otherReport);
+				Assertions.assertEquals(0, report.wrongValues);
+				Assertions.assertEquals(0, otherReport.wrongValues);
+				Assertions.assertEquals(0L, report.retries);
+				Assertions.assertEquals(0L, otherCommunicator.getRetryCount());
+			} finally {
+				otherCommunicator.destroy();
+			}
+		}
+	}
+
+	/**
+	 * Discovery probe sent to the simulator, unicast because loopback does not deliver broadcasts to a socket bound to one address
+	 * Expect the simulator reported once with its version, after the whole discovery window
+	 */
+	@Test
+	void testSoakDiscovery() throws Exception {
+		QSCUndnemoDiscovery discovery = new QSCUndnemoDiscovery(simulator.getPort());
+		discovery.setLocalPort(0);
+		discovery.setWindow(300);
+		long start = System.currentTimeMillis();
+		List<DiscoveredDevice> devices = discovery.discover(InetAddress.getLoopbackAddress());
+		long elapsed = System.currentTimeMillis() - start;
+		System.out.println("Soak [discovery] " + devices + " in " + elapsed + " ms");
+
+		Assertions.assertEquals(1, devices.size());
+		Assertions.assertEquals(InetAddress.getLoopbackAddress().getHostAddress(), devices.get(0).getAddress());
+		Assertions.assertEquals(QSCUndnemoDeviceSimulator.VERSION, devices.get(0).getVersion());
+		Assertions.assertTrue(elapsed >= 300, "Discovery ended before its window");
+	}
+
+	/**
+	 * Channel filter, then port changed after init while the communicator keeps monitoring
+	 * Expect a filter change to request only the newly included channels, and the port change to move every request to the new port
+	 * over one new socket, without any channel requested again, any failed cycle or the new endpoint's warm start file overwritten
+	 */
+	@Test
+	void testSoakHotReconfiguration() throws Exception {
+		qscUndnemoCommunicator.setChannelIndex("1-8");
+		awaitChannels(8);
+		long requestsBefore = simulator.getRequestCount();
+		qscUndnemoCommunicator.getMultipleStatistics();
+		long cycleRequests = simulator.getRequestCount() - requestsBefore;
+
+		requestsBefore = simulator.getRequestCount();
+		qscUndnemoCommunicator.setChannelIndex("1-4,9-12");
+		long deadline = System.currentTimeMillis() + 10000;
+		while (qscUndnemoCommunicator.isChannelSweepRunning()) {
+			Assertions.assertTrue(System.currentTimeMillis() < deadline, "No complete sweep before timeout");
+			Thread.sleep(5);
+		}
+		ExtendedStatistics statistics = (ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0);
+		Assertions.assertEquals(8, countChannels(statistics));
+		Assertions.assertEquals(cycleRequests + 4, simulator.getRequestCount() - requestsBefore, "Only channels 9-12 are expected to be requested");
+		for (int index = 5; index <= 8; index++) {
+			Assertions.assertFalse(statistics.getStatistics().containsKey(String.format("Channel %02d#%s", index, QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName())));
+		}
+
+		try (FaultInjectingUDPProxy otherProxy = new FaultInjectingUDPProxy(simulator.getPort(), SEED)) {
+			long oldProxyRequests = proxy.getRequests();
+			long socketsBefore = qscUndnemoCommunicator.getSocketOpenCount();
+			qscUndnemoCommunicator.setPort(otherProxy.getPort());
+			SoakReport report = new SoakReport("port changed");
+			requestsBefore = simulator.getRequestCount();
+			for (int cycle = 0; cycle < 10; cycle++) {
+				verify(((ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0)).getStatistics(), report, simulator);
+			}
+			Assertions.assertEquals(0, report.wrongValues);
+			Assertions.assertEquals(10 * cycleRequests, simulator.getRequestCount() - requestsBefore, "No channel is expected to be requested again");
+			Assertions.assertEquals(oldProxyRequests, proxy.getRequests());
+			Assertions.assertEquals(10 * cycleRequests, otherProxy.getRequests());
+			Assertions.assertEquals(socketsBefore + 1, qscUndnemoCommunicator.getSocketOpenCount());
+			Path newWarmStartFile = warmStartDirectory.resolve(String.format("%s_%d.bin", InetAddress.getLoopbackAddress().getHostAddress(), otherProxy.getPort()));
+			Assertions.assertFalse(Files.exists(newWarmStartFile), "Warm start file of the new endpoint written before any channel was retrieved from it");
+		}
+	}
+
+
+	/**
+	 * Local port of the adapter taken by another socket, so binding the channel fails on every cycle
+	 * Expect every channel opened to be closed right away instead of leaking one file descriptor per attempt
+	 */
+	@Test
+	void testSoakLocalPortTaken() throws Exception {
+		try (DatagramSocket blocker = new DatagramSocket(0)) {
+			qscUndnemoCommunicator.destroy();
+			qscUndnemoCommunicator.setLocalPort(blocker.getLocalPort());
+			qscUndnemoCommunicator.init();
+			long socketsBefore = qscUndnemoCommunicator.getSocketOpenCount();
+			long descriptorsBefore = getOpenFileDescriptorCount();
+			for (int cycle = 0; cycle < 10; cycle++) {
+				try {
+					qscUndnemoCommunicator.getMultipleStatistics();
+				} catch (Exception e) {
+					// No channel to send from
+				}
+			}
+			long deadline = System.currentTimeMillis() + 10000;
+			while (qscUndnemoCommunicator.isChannelSweepRunning()) {
+				Assertions.assertTrue(System.currentTimeMillis() < deadline, "Channel sweep still running before timeout");
+				Thread.sleep(20);
+			}
+			Assertions.assertTrue(qscUndnemoCommunicator.getSocketOpenCount() > socketsBefore, "No channel was opened");
+			Assertions.assertEquals(qscUndnemoCommunicator.getSocketOpenCount(), qscUndnemoCommunicator.getSocketCloseCount(), "Channels left open");
+			// The counters only record close() calls, the descriptors tell whether the channels were actually closed
+			long descriptorsAfter = getOpenFileDescriptorCount();
+			Assertions.assertTrue(descriptorsAfter <= descriptorsBefore + 2, "Open file descriptors went from " + descriptorsBefore + " to " + descriptorsAfter);
+		}
+	}
+
+	/**
+	 * Retrieves number of file descriptors open by the JVM
+	 *
+	 * @return open file descriptor count
+	 */
+	private static long getOpenFileDescriptorCount() {
+		return ((com.sun.management.UnixOperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getOpenFileDescriptorCount();
+	}
+
+	/**
+	 * Active channel changed on the front panel after the adapter set it, then set again to the index the adapter last set
+	 * Expect the control to reach the device instead of being skipped on the stale tracked index
+	 */
+	@Test
+	void testSoakActiveChannelChangedOnDevice() throws Exception {
+		qscUndnemoCommunicator.getMultipleStatistics();
+		ControllableProperty property = new ControllableProperty();
+		property.setProperty(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName());
+		property.setValue("12");
+		qscUndnemoCommunicator.controlProperty(property);
+		Assertions.assertEquals(12, simulator.getActiveChannelIndex());
+
+		simulator.setActiveChannelIndex(3);
+		qscUndnemoCommunicator.controlProperty(property);
+		Assertions.assertEquals(12, simulator.getActiveChannelIndex(), "Control skipped on the stale tracked index");
+	}
+
+	/**
+	 * Cycle statistics through a cold sweep, a cached cycle and a cycle served from the cache after a control
+	 * Expect the sweep counted by the cycle after it, cached cycles to count their own requests only and the table age to grow until refreshed
+	 */
+	@Test
+	void testSoakCycleStatistics() throws Exception {
+		Map<String, String> stats = ((ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0)).getStatistics();
+		Assertions.assertNull(stats.get(QSCUndnemoMetric.CHANNEL_TABLE_AGE.getName()), "No channel retrieved by the first cycle");
+		Assertions.assertEquals("0", stats.get(QSCUndnemoMetric.CHANNELS_REFRESHED_THIS_CYCLE.getName()));
+		Assertions.assertTrue(Long.parseLong(stats.get(QSCUndnemoMetric.LAST_CYCLE_DURATION.getName())) >= 0);
+		long deadline = System.currentTimeMillis() + 10000;
+		while (qscUndnemoCommunicator.isChannelSweepRunning()) {
+			Assertions.assertTrue(System.currentTimeMillis() < deadline, "No complete sweep before timeout");
+			Thread.sleep(5);
+		}
+
+		stats = ((ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0)).getStatistics();
+		Assertions.assertEquals("64", stats.get(QSCUndnemoMetric.CHANNELS_REFRESHED_THIS_CYCLE.getName()));
+		Assertions.assertTrue(Long.parseLong(stats.get(QSCUndnemoMetric.REQUESTS_THIS_CYCLE.getName())) > 64);
+
+		Thread.sleep(200);
+		long requestsBefore = simulator.getRequestCount();
+		stats = ((ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0)).getStatistics();
+		Assertions.assertEquals("0", stats.get(QSCUndnemoMetric.CHANNELS_REFRESHED_THIS_CYCLE.getName()));
+		Assertions.assertEquals(String.valueOf(simulator.getRequestCount() - requestsBefore), stats.get(QSCUndnemoMetric.REQUESTS_THIS_CYCLE.getName()));
+		long tableAge = Long.parseLong(stats.get(QSCUndnemoMetric.CHANNEL_TABLE_AGE.getName()));
+		Assertions.assertTrue(tableAge >= 200, "Channel table age " + tableAge + " ms");
+
+		ControllableProperty property = new ControllableProperty();
+		property.setProperty(QSCUndnemoMetric.VOLUME.getName());
+		property.setValue(7);
+		qscUndnemoCommunicator.controlProperty(property);
+		Thread.sleep(100);
+		stats = ((ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0)).getStatistics();
+		Assertions.assertTrue(Long.parseLong(stats.get(QSCUndnemoMetric.CHANNEL_TABLE_AGE.getName())) >= tableAge + 100, "Channel table age not updated after a control");
+		Assertions.assertEquals("7", stats.get(QSCUndnemoMetric.VOLUME.getName()));
+	}
+	/**
+	 * Poll until a number of channels is served and no sweep is running
+	 *
+	 * @param channels number of channels expected
+	 * @return statistics of the last cycle
+	 */
+	private ExtendedStatistics awaitChannels(int channels) throws Exception {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (true) {
+			ExtendedStatistics statistics = (ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0);
+			if (countChannels(statistics) == channels && !qscUndnemoCommunicator.isChannelSweepRunning()) {
+				return statistics;
+			}
+			Assertions.assertTrue(System.currentTimeMillis() < deadline, "Channels not served before timeout");
+			Thread.sleep(20);
+		}
+	}
+
+	/**
+	 * Destroy while monitoring requests are blocked on a link that drops everything, with the default 4 s timeout
+	 * Expect destroy and the blocked monitoring cycle to end at once instead of after the timeouts and retries
+	 */
+	@Test
+	void testSoakDestroyCancelsBlockedRequests() throws Exception {
+		proxy.withLoss(1.0);
+		qscUndnemoCommunicator.destroy();
+		qscUndnemoCommunicator.setTimeout(4000);
+		qscUndnemoCommunicator.init();
+		Thread poller = new Thread(() -> {
+			try {
+				qscUndnemoCommunicator.getMultipleStatistics();
+			} catch (Exception e) {
+				// Cancelled by destroy
+			}
+		}, "QSCUndnemoSoakTest-blocked-poller");
+		poller.start();
+		Thread.sleep(300);
+		Assertions.assertTrue(qscUndnemoCommunicator.getRequestsInFlight() > 0, "No request blocked on the link");
+
+		long start = System.nanoTime();
+		qscUndnemoCommunicator.destroy();
+		poller.join(1000);
+		long elapsedMs = (System.nanoTime() - start) / 1000000;
+		Assertions.assertFalse(poller.isAlive(), "Monitoring cycle still blocked after destroy");
+		Assertions.assertTrue(elapsedMs < 1000, "Destroy took " + elapsedMs + " ms");
+
+		// Reconfigured adapter works again
+		proxy.withLoss(0);
+		qscUndnemoCommunicator.setTimeout(TIMEOUT);
+		qscUndnemoCommunicator.init();
+		ExtendedStatistics statistics = (ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0);
+		Assertions.assertEquals(String.valueOf(simulator.getVolume()), statistics.getStatistics().get(QSCUndnemoMetric.VOLUME.getName()));
+	}
+
+	/**
+	 * Destroy while monitoring requests wait for a token of a device limited to one datagram per second, with the default 4 s timeout
+	 * Expect destroy and the waiting monitoring cycle to end at once instead of after the wait for the token
+	 */
+	@Test
+	void testSoakDestroyCancelsTokenWait() throws Exception {
+		// The 4 s timeout leaves time to wait for the next token, a shorter one gives up the request at once
+		qscUndnemoCommunicator.destroy();
+		qscUndnemoCommunicator.setTimeout(4000);
+		qscUndnemoCommunicator.init();
+		qscUndnemoCommunicator.setMaxPacketsPerSecond(1);
+		qscUndnemoCommunicator.setMaxPacketBurst(1);
+		Thread poller = new Thread(() -> {
+			try {
+				qscUndnemoCommunicator.getMultipleStatistics();
+			} catch (Exception e) {
+				// Cancelled by destroy
+			}
+		}, "QSCUndnemoSoakTest-token-poller");
+		poller.start();
+		Thread.sleep(300);
+		Assertions.assertTrue(qscUndnemoCommunicator.getRateLimiter().getLimitedCount() > 0, "No request waiting for a token");
+
+		long start = System.nanoTime();
+		qscUndnemoCommunicator.destroy();
+		poller.join(1000);
+		long elapsedMs = (System.nanoTime() - start) / 1000000;
+		Assertions.assertFalse(poller.isAlive(), "Monitoring cycle still waiting for a token after destroy");
+		Assertions.assertTrue(elapsedMs < 300, "Destroy took " + elapsedMs + " ms");
+	}
+
+	/**
+	 * Device going down and coming back with the pre-flight ping probe enabled, pings answered by a stand-in, then pings failing to be sent
+	 * Expect cycles to fail as not reachable without UDP request while the device does not answer ping, a normal cycle once it answers again,
+	 * and the ping figures to come back once pings can be sent again
+	 */
+	@Test
+	void testSoakPingProbeSkipsDownDevice() throws Exception {
+		AtomicBoolean down = new AtomicBoolean();
+		AtomicBoolean unavailable = new AtomicBoolean();
+		qscUndnemoCommunicator.destroy();
+		qscUndnemoCommunicator = createCommunicator(new QSCUndnemoCommunicator() {
+			@Override
+			protected IcmpPingResponse ping(String host, int timeoutMs) {
+				if (unavailable.get()) {
+					throw new IllegalStateException("No ping support");
+				}
+				IcmpPingResponse response = new IcmpPingResponse();
+				response.setSuccessFlag(!down.get());
+				response.setTimeoutFlag(down.get());
+				response.setRtt(down.get() ? 0 : 1);
+				return response;
+			}
+		}, true);
+		Map<String, String> statistics = ((ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0)).getStatistics();
+		Assertions.assertEquals("1", statistics.get(QSCUndnemoMetric.PING_ROUND_TRIP_TIME.getName()));
+		Assertions.assertEquals("0", statistics.get(QSCUndnemoMetric.PING_PACKET_LOSS.getName()));
+		long deadline = System.currentTimeMillis() + 10000;
+		while (qscUndnemoCommunicator.isChannelSweepRunning()) {
+			Assertions.assertTrue(System.currentTimeMillis() < deadline, "No complete sweep before timeout");
+			Thread.sleep(5);
+		}
+
+		down.set(true);
+		proxy.withLoss(1.0);
+		long requestsBefore = proxy.getRequests();
+		long start = System.nanoTime();
+		ResourceNotReachableException exception = Assertions.assertThrows(ResourceNotReachableException.class, () -> qscUndnemoCommunicator.getMultipleStatistics());
+		long elapsedMs = (System.nanoTime() - start) / 1000000;
+		Assertions.assertEquals(requestsBefore, proxy.getRequests(), "UDP requests sent to a device that does not answer ping");
+		Assertions.assertTrue(elapsedMs < TIMEOUT, "Cycle against a down device took " + elapsedMs + " ms");
+		// One answered ping, then two lost pings
+		Assertions.assertTrue(exception.getMessage().contains("1 ms") && exception.getMessage().contains("67%"), exception.getMessage());
+
+		down.set(false);
+		proxy.withLoss(0);
+		statistics = ((ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0)).getStatistics();
+		Assertions.assertEquals(String.valueOf(simulator.getVolume()), statistics.get(QSCUndnemoMetric.VOLUME.getName()));
+
+		unavailable.set(true);
+		statistics = ((ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0)).getStatistics();
+		Assertions.assertNull(statistics.get(QSCUndnemoMetric.PING_PACKET_LOSS.getName()));
+		unavailable.set(false);
+		statistics = ((ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0)).getStatistics();
+		Assertions.assertEquals("1", statistics.get(QSCUndnemoMetric.PING_ROUND_TRIP_TIME.getName()));
+	}
+
+	/**
+	 * Count the channels served
+	 *
+	 * @param statistics served statistics
+	 * @return number of channel groups holding a device name
+	 */
+	private int countChannels(ExtendedStatistics statistics) {
+		int channels = 0;
+		for (String name : statistics.getStatistics().keySet()) {
+			if (name.endsWith("#" + QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName())) {
+				channels++;
+			}
+		}
+		return channels;
+	}
+
+	/**
+	 * Baseline without faults
+	 * Expect every cycle to succeed without retries and to be reported by the runtime MBean
+	 */
+	@Test
+	void testSoakCleanLink() throws Exception {
+		SoakReport report = runSoak("clean");
+		Assertions.assertEquals(0, report.wrongValues);
+		Assertions.assertEquals(0, report.failedCycles);
+		Assertions.assertEquals(0L, report.retries);
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = ((QSCUndnemoRuntime) qscUndnemoCommunicator.getRuntime()).getObjectName();
+		Assertions.assertTrue(server.isRegistered(name));
+		Assertions.assertEquals((long) CYCLES, server.getAttribute(name, "CycleCount"));
+		Assertions.assertTrue((Double) server.getAttribute(name, "ChannelCacheHitRatio") > 0);
+		Assertions.assertEquals(0, server.getAttribute(name, "RequestsInFlight"));
+		Assertions.assertTrue((Long) server.getAttribute(name, "SocketOpenCount") > 0);
+		// A control only waits for the exchange in progress, not for the rest of the sweep
+		Assertions.assertTrue((Double) server.getAttribute(name, "ControlQueueWaitMaxMs") < TIMEOUT);
+		String trace = (String) server.invoke(name, "dumpExchangeTrace", new Object[0], new String[0]);
+		Assertions.assertTrue(trace.contains("ANSWERED  > VOLUME\\r < ACK VOLUME "), trace);
+		qscUndnemoCommunicator.destroy();
+		Assertions.assertFalse(server.isRegistered(name));
+	}
+
+	/**
+	 * 5% loss in each direction
+	 * Expect no wrong value and full channel tables once the missing channels are requested again
+	 */
+	@Test
+	void testSoakLossyLink() throws Exception {
+		proxy.withLoss(0.05);
+		SoakReport report = runSoak("loss 5%");
+		Assertions.assertEquals(0, report.wrongValues);
+		Assertions.assertTrue(report.fullChannelTables > 0, "No full channel table was served");
+		Assertions.assertTrue(Long.parseLong(report.lastStatistics.get(QSCUndnemoMetric.CHANNEL_RETRY_RECOVERED.getName())) > 0, "No failed channel was recovered");
+	}
+
+	/**
+	 * 5% loss in each direction with monitoring requests hedged after the 90th latency percentile
+	 * Expect no wrong value, lost requests to be sent again before the timeout, full channel tables and every failed channel recovered
+	 */
+	@Test
+	void testSoakLossyLinkHedged() throws Exception {
+		qscUndnemoCommunicator.destroy();
+		qscUndnemoCommunicator.setHedgePercentile(90);
+		qscUndnemoCommunicator.init();
+		proxy.withLoss(0.05);
+		SoakReport report = runSoak("loss 5%, hedged at p90");
+		awaitChannelRecovery(report);
+		Assertions.assertEquals(0, report.wrongValues);
+		Assertions.assertTrue(report.fullChannelTables > 0, "No full channel table was served");
+		// Hedging may keep every channel from failing, there is then nothing to recover
+		if (Long.parseLong(report.lastStatistics.get(QSCUndnemoMetric.CHANNEL_RETRY_FAILURES.getName())) > 0) {
+			Assertions.assertTrue(Long.parseLong(report.lastStatistics.get(QSCUndnemoMetric.CHANNEL_RETRY_RECOVERED.getName())) > 0, "No failed channel was recovered");
+		}
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = ((QSCUndnemoRuntime) qscUndnemoCommunicator.getRuntime()).getObjectName();
+		Assertions.assertTrue((Long) server.getAttribute(name, "HedgedRequestCount") > 0, "No request was hedged");
+	}
+
+	/**
+	 * Device dropping requests beyond a queue of 8 drained at 400 requests per second, adapter limited to 300 datagrams per second
+	 * Expect no request to be dropped by the device, so no retry and no wrong value
+	 */
+	@Test
+	void testSoakRateLimitedBurstSensitiveDevice() throws Exception {
+		proxy.withRequestPolicer(8, 400);
+		qscUndnemoCommunicator.setMaxPacketsPerSecond(300);
+		qscUndnemoCommunicator.setMaxPacketBurst(8);
+		SoakReport report = runSoak("device queue 8 @ 400/s, limited to 300/s");
+		Assertions.assertEquals(0, report.wrongValues);
+		Assertions.assertEquals(0L, proxy.getPoliced(), "Requests were dropped by the device queue");
+		Assertions.assertEquals(0L, report.retries);
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		ObjectName name = ((QSCUndnemoRuntime) qscUndnemoCommunicator.getRuntime()).getObjectName();
+		Assertions.assertTrue((Long) server.getAttribute(name, "RateLimitedPacketCount") > 0, "No datagram was held back");
+	}
+
+	/**
+	 * 10% duplication and 10% reordering
+	 * Expect no wrong value
+	 */
+	@Test
+	void testSoakDuplicationAndReordering() throws Exception {
+		proxy.withDuplication(0.1).withReordering(0.1);
+		SoakReport report = runSoak("duplication 10%, reordering 10%");
+		Assertions.assertEquals(0, report.wrongValues);
+		Assertions.assertTrue(report.fullChannelTables > 0, "No full channel table was served");
+	}
+
+	/**
+	 * 5-35 ms delay in each direction
+	 * Expect no wrong value
+	 */
+	@Test
+	void testSoakDelayJitter() throws Exception {
+		proxy.withDelay(5, 30);
+		SoakReport report = runSoak("delay 5ms + jitter 30ms");
+		Assertions.assertEquals(0, report.wrongValues);
+		Assertions.assertTrue(report.fullChannelTables > 0, "No full channel table was served");
+	}
+
+	/**
+	 * 5% truncation
+	 * Expect truncated replies to be rejected instead of served
+	 */
+	@Test
+	void testSoakTruncation() throws Exception {
+		proxy.withTruncation(0.05);
+		SoakReport report = runSoak("truncation 5%");
+		Assertions.assertEquals(0, report.wrongValues);
+	}
+
+	/**
+	 * All faults at once
+	 * Expect no wrong value
+	 */
+	@Test
+	void testSoakCombinedFaults() throws Exception {
+		proxy.withLoss(0.02).withDuplication(0.05).withReordering(0.05).withTruncation(0.02).withDelay(1, 10);
+		SoakReport report = runSoak("combined");
+		Assertions.assertEquals(0, report.wrongValues);
+	}
+
+	/**
+	 * Drive the communicator for {@link #CYCLES} cycles and print the report
+	 *
+	 * @param scenario name of the scenario
+	 * @return report of the run
+	 */
+	private SoakReport runSoak(String scenario) throws Exception {
+		SoakReport report = new SoakReport(scenario);
+		long retriesBefore = qscUndnemoCommunicator.getRetryCount();
+		for (int cycle = 0; cycle < CYCLES; cycle++) {
+			if (cycle % CONTROL_EVERY == CONTROL_EVERY - 1) {
+				// Alternate volume and active channel controls
+				int round = cycle / CONTROL_EVERY;
+				boolean activeChannelControl = round % 2 == 1;
+				int value = activeChannelControl ? 1 + (round * 7) % 64 : 1 + round % 10;
+				ControllableProperty property = new ControllableProperty();
+				property.setProperty(activeChannelControl ? QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName() : QSCUndnemoMetric.VOLUME.getName());
+				property.setValue(activeChannelControl ? String.format("%02d", value) : value);
+				long start = System.nanoTime();
+				try {
+					qscUndnemoCommunicator.controlProperty(property);
+					report.controlTimesNanos.add(System.nanoTime() - start);
+					int deviceValue = activeChannelControl ? simulator.getActiveChannelIndex() : simulator.getVolume();
+					if (deviceValue != value) {
+						report.wrongValues++;
+						report.describeWrongValue("Control of " + property.getProperty() + " " + value + " was acknowledged but the device has " + deviceValue);
+					}
+				} catch (Exception e) {
+					report.failedControls++;
+				}
+			}
+			long start = System.nanoTime();
+			try {
+				ExtendedStatistics statistics = (ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0);
+				report.cycleTimesNanos.add(System.nanoTime() - start);
+				report.lastStatistics = statistics.getStatistics();
+				verify(statistics.getStatistics(), report, simulator);
+			} catch (Exception e) {
+				report.cycleTimesNanos.add(System.nanoTime() - start);
+				report.failedCycles++;
+			}
+			// Leave the channel sweep some room, the platform polls every 30 seconds
+			Thread.sleep(1);
+		}
+		report.retries = qscUndnemoCommunicator.getRetryCount() - retriesBefore;
+		report.faults = proxy.describeFaults();
+		System.out.println(report);
+		return report;
+	}
+
+	/**
+	 * Keep polling over the same link until no failed channel is pending and a full channel table was served,
+	 * the retry backoff of a failed channel may outlast a short soak
+	 *
+	 * @param report report of the soak, updated with the cycles run
+	 */
+	private void awaitChannelRecovery(SoakReport report) throws Exception {
+		long deadline = System.currentTimeMillis() + 10000;
+		while (report.fullChannelTables == 0 || report.lastStatistics == null
+				|| !"0".equals(report.lastStatistics.get(QSCUndnemoMetric.CHANNEL_RETRY_PENDING.getName()))) {
+			Assertions.assertTrue(System.currentTimeMillis() < deadline, "Failed channels not recovered before timeout");
+			try {
+				ExtendedStatistics statistics = (ExtendedStatistics) qscUndnemoCommunicator.getMultipleStatistics().get(0);
+				report.lastStatistics = statistics.getStatistics();
+				verify(statistics.getStatistics(), report, simulator);
+			} catch (Exception e) {
+				report.failedCycles++;
+			}
+			Thread.sleep(20);
+		}
+	}
+
+	/**
+	 * Compare served statistics with the simulator state
+	 *
+	 * @param stats served statistics
+	 * @param report report to update
+	 * @param simulator device the statistics were served for
+	 */
+	private void verify(Map<String, String> stats, SoakReport report, QSCUndnemoDeviceSimulator simulator) {
+		String volume = stats.get(QSCUndnemoMetric.VOLUME.getName());
+		if (volume != null && !volume.equals(String.valueOf(simulator.getVolume()))) {
+			report.wrongValues++;
+			report.describeWrongValue("Volume " + volume + " but the device has " + simulator.getVolume());
+		}
+		String buttonBrightness = stats.get(QSCUndnemoMetric.BUTTON_BRIGHTNESS.getName());
+		if (buttonBrightness != null && !buttonBrightness.equals(String.valueOf(simulator.getButtonBrightness()))) {
+			report.wrongValues++;
+			report.describeWrongValue("ButtonBrightness " + buttonBrightness + " but the device has " + simulator.getButtonBrightness());
+		}
+		String activeChannelIndex = stats.get(QSCUndnemoMetric.ACTIVE_CHANNEL_INDEX.getName());
+		if (activeChannelIndex != null && !activeChannelIndex.equals(String.format("%02d", simulator.getActiveChannelIndex()))) {
+			report.wrongValues++;
+			report.describeWrongValue("ActiveChannel " + activeChannelIndex + " but the device has " + simulator.getActiveChannelIndex());
+		}
+		int channels = 0;
+		for (int index = 1; index <= 64; index++) {
+			String group = index == simulator.getActiveChannelIndex() ? QSCUndnemoConstant.ACTIVE_CHANNEL : String.format("Channel %02d", index);
+			String deviceName = stats.get(group + "#" + QSCUndnemoMetric.CHANNEL_INFO_DEVICE_NAME.getName());
+			if (deviceName == null) {
+				continue;
+			}
+			channels++;
+			if (!deviceName.equals(simulator.getDeviceName(index))
+					|| !simulator.getEnableState(index).equals(stats.get(group + "#" + QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE.getName()))
+					|| !simulator.getDisplayName(index).equals(stats.get(group + "#" + QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME.getName()))) {
+				report.wrongValues++;
+				report.describeWrongValue(group + " " + deviceName + " but the device has " + simulator.getDeviceName(index));
+			}
+		}
+		if (channels == 64) {
+			report.fullChannelTables++;
+		}
+	}
+
+	/**
+	 * Result of a soak run
+	 */
+	private static class SoakReport {
+
+		private final String scenario;
+		private final List<Long> cycleTimesNanos = new ArrayList<>();
+		private final List<Long> controlTimesNanos = new ArrayList<>();
+		private final List<String> wrongValueSamples = new ArrayList<>();
+		private int failedCycles;
+		private int failedControls;
+		private int fullChannelTables;
+		private int wrongValues;
+		private long retries;
+		private String faults;
+		private Map<String, String> lastStatistics = Collections.emptyMap();
+
+		SoakReport(String scenario) {
+			this.scenario = scenario;
+		}
+
+		void describeWrongValue(String description) {
+			if (wrongValueSamples.size() < 10) {
+				wrongValueSamples.add(description);
+			}
+		}
+
+		private static String percentiles(List<Long> nanos) {
+			if (nanos.isEmpty()) {
+				return "n/a";
+			}
+			List<Long> sorted = new ArrayList<>(nanos);
+			Collections.sort(sorted);
+			return String.format("p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms", sorted.get(sorted.size() / 2) / 1e6,
+					sorted.get((int) (sorted.size() * 0.95)) / 1e6, sorted.get((int) (sorted.size() * 0.99)) / 1e6, sorted.get(sorted.size() - 1) / 1e6);
+		}
+
+		@Override
+		public String toString() {
+			return String.format("Soak [%s] cycles=%d failedCycles=%d fullChannelTables=%d controls=%d failedControls=%d retries=%d wrongValues=%d%n"
+							+ "  cycle time: %s%n  control time: %s%n  channel retries: pending=%s failures=%s attempts=%s recovered=%s%n  proxy: %s%s",
+					scenario, cycleTimesNanos.size(), failedCycles, fullChannelTables, controlTimesNanos.size() + failedControls, failedControls, retries, wrongValues,
+					percentiles(cycleTimesNanos), percentiles(controlTimesNanos), lastStatistics.get(QSCUndnemoMetric.CHANNEL_RETRY_PENDING.getName()),
+					lastStatistics.get(QSCUndnemoMetric.CHANNEL_RETRY_FAILURES.getName()), lastStatistics.get(QSCUndnemoMetric.CHANNEL_RETRY_ATTEMPTS.getName()),
+					lastStatistics.get(QSCUndnemoMetric.CHANNEL_RETRY_RECOVERED.getName()), faults, wrongValueSamples.isEmpty() ? "" : "\n  wrong values: " + wrongValueSamples);
+		}
+	}
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.dto.StateChangeEvent;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoMetric;
+import com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils.QSCUndnemoStateChangeType;
+
+/**
+ * Unit test for {@link QSCUndnemoStatePublisher}.
+ * Test demand, buffering, serialized delivery and termination of subscriptions
+ *
+ * @author Duy Nguyen
+ * @version 1.0
+ * @since 1.0.0
+ */
+class QSCUndnemoStatePublisherTest {
+
+	private static final long SIGNAL_TIMEOUT_MS = 2000;
+	private static final long NO_SIGNAL_WAIT_MS = 200;
+	private static final String COMPLETE = "complete";
+
+	private QSCUndnemoStatePublisher publisher;
+
+	/**
+	 * Subscriber recording every signal it receives, in order
+	 */
+	private static class RecordingSubscriber implements QSCUndnemoStatePublisher.Subscriber {
+
+		private final BlockingQueue<Object> signals = new LinkedBlockingQueue<>();
+		private QSCUndnemoStatePublisher.Subscription subscription;
+
+		@Override
+		public void onSubscribe(QSCUndnemoStatePublisher.Subscription subscription) {
+			this.subscription = subscription;
+		}
+
+		@Override
+		public void onNext(StateChangeEvent event) {
+			signals.add(event);
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			signals.add(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			signals.add(COMPLETE);
+		}
+
+		/**
+		 * Wait for the next signal
+		 *
+		 * @return event, throwable or {@link #COMPLETE}
+		 */
+		Object next() throws InterruptedException {
+			Object signal = signals.poll(SIGNAL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+			Assertions.assertNotNull(signal, "No signal before timeout");
+			return signal;
+		}
+
+		/**
+		 * Check that no signal arrives for a while
+		 */
+		void assertNoSignal() throws InterruptedException {
+			Object signal = signals.poll(NO_SIGNAL_WAIT_MS, TimeUnit.MILLISECONDS);
+			Assertions.assertNull(signal, "Unexpected signal: " + signal);
+		}
+	}
+
+	@BeforeEach
+	public void init() {
+		publisher = new QSCUndnemoStatePublisher();
+	}
+
+	@AfterEach
+	public void destroy() {
+		publisher.close();
+	}
+
+	/**
+	 * Request zero events
+	 * Expect the subscription to end with onError
+	 */
+	@Test
+	void testRequestNonPositiveSignalsError() throws Exception {
+		RecordingSubscriber subscriber = subscribe();
+		subscriber.subscription.request(0);
+		Assertions.assertTrue(subscriber.next() instanceof IllegalArgumentException);
+		publisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, "1");
+		publisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, "2");
+		subscriber.assertNoSignal();
+	}
+
+	/**
+	 * Publish a metric for the first time, then change it
+	 * Expect no event for the first value and one event carrying both values for the change
+	 */
+	@Test
+	void testFirstValueRecordedWithoutEvent() throws Exception {
+		RecordingSubscriber subscriber = subscribe();
+		subscriber.subscription.request(Long.MAX_VALUE);
+		publisher.publishIfChanged(QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME, 3, "Mic 3");
+		subscriber.assertNoSignal();
+		publisher.publishIfChanged(QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME, 3, "Mic 3");
+		publisher.publishIfChanged(QSCUndnemoMetric.CHANNEL_INFO_DISPLAY_NAME, 3, "Lectern");
+		StateChangeEvent event = (StateChangeEvent) subscriber.next();
+		Assertions.assertEquals(QSCUndnemoStateChangeType.CHANNEL_RENAMED, event.getType());
+		Assertions.assertEquals(3, event.getChannelIndex());
+		Assertions.assertEquals("Mic 3", event.getPreviousValue());
+		Assertions.assertEquals("Lectern", event.getCurrentValue());
+		subscriber.assertNoSignal();
+	}
+
+	/**
+	 * Publish more changes than the buffer holds before any demand
+	 * Expect the oldest events dropped and counted, the newest delivered once requested
+	 */
+	@Test
+	void testFullBufferDropsOldest() throws Exception {
+		publisher.setBufferSize(2);
+		RecordingSubscriber subscriber = subscribe();
+		publisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, "0");
+		for (int value = 1; value <= 5; value++) {
+			publisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, String.valueOf(value));
+		}
+		Assertions.assertEquals(3, publisher.getDroppedEvents());
+		subscriber.subscription.request(10);
+		Assertions.assertEquals("4", ((StateChangeEvent) subscriber.next()).getCurrentValue());
+		Assertions.assertEquals("5", ((StateChangeEvent) subscriber.next()).getCurrentValue());
+		subscriber.assertNoSignal();
+	}
+
+	/**
+	 * Request one event at a time
+	 * Expect no more events delivered than requested
+	 */
+	@Test
+	void testDeliveryBoundedByDemand() throws Exception {
+		RecordingSubscriber subscriber = subscribe();
+		publisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, "0");
+		publisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, "1");
+		publisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, "2");
+		subscriber.subscription.request(1);
+		Assertions.assertEquals("1", ((StateChangeEvent) subscriber.next()).getCurrentValue());
+		subscriber.assertNoSignal();
+		subscriber.subscription.request(1);
+		Assertions.assertEquals("2", ((StateChangeEvent) subscriber.next()).getCurrentValue());
+	}
+
+	/**
+	 * Publish changes from several threads to a subscriber that is slow to handle each event
+	 * Expect every event delivered and onNext never called concurrently
+	 */
+	@Test
+	void testDeliverySerializedPerSubscriber() throws Exception {
+		int threads = 4;
+		int changesPerThread = 50;
+		AtomicInteger inOnNext = new AtomicInteger();
+		AtomicInteger overlaps = new AtomicInteger();
+		CountDownLatch delivered = new CountDownLatch(threads * changesPerThread);
+		publisher.subscribe(new QSCUndnemoStatePublisher.Subscriber() {
+			@Override
+			public void onSubscribe(QSCUndnemoStatePublisher.Subscription subscription) {
+				subscription.request(Long.MAX_VALUE);
+			}
+
+			@Override
+			public void onNext(StateChangeEvent event) {
+				if (inOnNext.incrementAndGet() > 1) {
+					overlaps.incrementAndGet();
+				}
+				Thread.yield();
+				inOnNext.decrementAndGet();
+				delivered.countDown();
+			}
+
+			@Override
+			public void onError(Throwable throwable) {
+			}
+
+			@Override
+			public void onComplete() {
+			}
+		});
+		List<Thread> publishers = new ArrayList<>();
+		for (int thread = 1; thread <= threads; thread++) {
+			int channelIndex = thread;
+			publishers.add(new Thread(() -> {
+				for (int value = 0; value <= changesPerThread; value++) {
+					publisher.publishIfChanged(QSCUndnemoMetric.CHANNEL_INFO_ENABLE_STATE, channelIndex, String.valueOf(value));
+				}
+			}));
+		}
+		for (Thread thread : publishers) {
+			thread.start();
+		}
+		for (Thread thread : publishers) {
+			thread.join();
+		}
+		Assertions.assertTrue(delivered.await(SIGNAL_TIMEOUT_MS, TimeUnit.MILLISECONDS), delivered.getCount() + " events not delivered");
+		Assertions.assertEquals(0, overlaps.get(), "onNext called concurrently");
+	}
+
+	/**
+	 * Cancel a subscription with outstanding demand
+	 * Expect no event delivered after the cancel
+	 */
+	@Test
+	void testCancelStopsDelivery() throws Exception {
+		RecordingSubscriber subscriber = subscribe();
+		subscriber.subscription.request(Long.MAX_VALUE);
+		publisher.publishIfChanged(QSCUndnemoMetric.SPEAKER_MUTE, 0, "0");
+		publisher.publishIfChanged(QSCUndnemoMetric.SPEAKER_MUTE, 0, "1");
+		Assertions.assertEquals(QSCUndnemoStateChangeType.SPEAKER_MUTE_CHANGED, ((StateChangeEvent) subscriber.next()).getType());
+		subscriber.subscription.cancel();
+		publisher.publishIfChanged(QSCUndnemoMetric.SPEAKER_MUTE, 0, "0");
+		subscriber.assertNoSignal();
+	}
+
+	/**
+	 * Close the publisher while an event is buffered
+	 * Expect the buffered event delivered, then onComplete
+	 */
+	@Test
+	void testCloseCompletesAfterBufferedEvents() throws Exception {
+		RecordingSubscriber subscriber = subscribe();
+		publisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, "0");
+		publisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, "1");
+		subscriber.subscription.request(1);
+		Assertions.assertEquals("1", ((StateChangeEvent) subscriber.next()).getCurrentValue());
+		publisher.publishIfChanged(QSCUndnemoMetric.VOLUME, 0, "2");
+		publisher.close();
+		subscriber.subscription.request(1);
+		Assertions.assertEquals("2", ((StateChangeEvent) subscriber.next()).getCurrentValue());
+		Assertions.assertEquals(COMPLETE, subscriber.next());
+		subscriber.assertNoSignal();
+	}
+
+	/**
+	 * Subscribe a recording subscriber
+	 *
+	 * @return subscriber, with its subscription
+	 */
+	private RecordingSubscriber subscribe() {
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		publisher.subscribe(subscriber);
+		Assertions.assertNotNull(subscriber.subscription);
+		return subscriber;
+	}
+}
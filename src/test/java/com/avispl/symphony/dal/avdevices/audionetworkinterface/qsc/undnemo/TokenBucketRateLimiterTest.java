@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link TokenBucketRateLimiter}.
+ * Test the burst, the deadline of a reservation and the token state kept when the limit changes
+ *
+ * @author Duy Nguyen
+ * @version 1.0
+ * @since 1.0.0
+ */
+class TokenBucketRateLimiterTest {
+
+	/**
+	 * Send the burst, then one more datagram
+	 * Expect the burst to pass at once and the next datagram to wait
+	 */
+	@Test
+	void testBurstThenWait() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(50, 4);
+		for (int i = 0; i < 4; i++) {
+			Assertions.assertEquals(0L, reserve(limiter), "Datagram " + i + " of the burst waited");
+		}
+		Assertions.assertTrue(reserve(limiter) > 0, "Datagram beyond the burst did not wait");
+		Assertions.assertEquals(1L, limiter.getLimitedCount());
+	}
+
+	/**
+	 * Reserve the slot of a datagram beyond the burst with a deadline before that slot, then without deadline
+	 * Expect no slot reserved before the deadline, and the next datagram to wait for the first slot only
+	 */
+	@Test
+	void testReserveBeyondDeadline() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(10, 1);
+		Assertions.assertEquals(0L, reserve(limiter));
+		Assertions.assertEquals(-1L, limiter.reserve(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10)));
+		long wait = reserve(limiter);
+		Assertions.assertTrue(wait > TimeUnit.MILLISECONDS.toNanos(50) && wait <= TimeUnit.MILLISECONDS.toNanos(100), "Waited " + wait + " ns");
+		Assertions.assertEquals(1L, limiter.getLimitedCount());
+	}
+
+	/**
+	 * Set the same limit again after the burst is used
+	 * Expect the bucket to stay empty instead of starting full again
+	 */
+	@Test
+	void testSetLimitKeepsTokens() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(50, 4);
+		for (int i = 0; i < 4; i++) {
+			reserve(limiter);
+		}
+		limiter.setLimit(50, 4);
+		Assertions.assertTrue(reserve(limiter) > 0, "Setting the limit handed out a fresh burst");
+	}
+
+	/**
+	 * Lower the burst of a full bucket
+	 * Expect the tokens to be capped to the new burst
+	 */
+	@Test
+	void testSetLimitCapsTokens() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(50, 16);
+		limiter.setLimit(50, 2);
+		Assertions.assertEquals(0L, reserve(limiter));
+		Assertions.assertEquals(0L, reserve(limiter));
+		Assertions.assertTrue(reserve(limiter) > 0, "Tokens beyond the new burst were kept");
+	}
+
+	/**
+	 * Limit a bucket that was not limited
+	 * Expect the bucket to start full
+	 */
+	@Test
+	void testSetLimitFromUnlimited() {
+		TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(0, 4);
+		for (int i = 0; i < 10; i++) {
+			Assertions.assertEquals(0L, reserve(limiter));
+		}
+		limiter.setLimit(50, 4);
+		for (int i = 0; i < 4; i++) {
+			Assertions.assertEquals(0L, reserve(limiter), "Datagram " + i + " of the burst waited");
+		}
+		Assertions.assertTrue(reserve(limiter) > 0);
+	}
+
+	/**
+	 * Reserve the slot of a datagram with a deadline far enough to be always met
+	 *
+	 * @param limiter rate limiter
+	 * @return time to wait before sending in nanoseconds
+	 */
+	private static long reserve(TokenBucketRateLimiter limiter) {
+		return limiter.reserve(System.nanoTime() + TimeUnit.MINUTES.toNanos(1));
+	}
+}
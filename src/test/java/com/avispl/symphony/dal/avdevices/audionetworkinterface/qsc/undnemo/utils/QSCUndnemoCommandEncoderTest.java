@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022 AVI-SPL Inc. All Rights Reserved.
+ */
+package com.avispl.symphony.dal.avdevices.audionetworkinterface.qsc.undnemo.utils;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit test for {@link QSCUndnemoCommandEncoder}.
+ * Test the bytes of commands with and without argument, inside and outside the pre-encoded argument range
+ *
+ * @author Duy Nguyen
+ * @version 1.0
+ * @since 1.0.0
+ */
+class QSCUndnemoCommandEncoderTest {
+
+	/**
+	 * Commands, arguments (null for none) and the text sent to the device
+	 */
+	private static final Object[][] COMMANDS = {
+			{ QSCUndnemoUDPCommand.GET_CMD_VERSION, null, "VERSION\r" },
+			{ QSCUndnemoUDPCommand.GET_CMD_ACT_CH_IDX, null, "ACT_CH_IDX\r" },
+			{ QSCUndnemoUDPCommand.GET_CMD_GBB, null, "GBB\r" },
+			{ QSCUndnemoUDPCommand.GET_CMD_CH_INFO, 1, "CH_INFO 1\r" },
+			{ QSCUndnemoUDPCommand.GET_CMD_CH_INFO, 64, "CH_INFO 64\r" },
+			{ QSCUndnemoUDPCommand.SET_ACT_CH_IDX, 12, "SET_ACT_CH_IDX 12\r" },
+			{ QSCUndnemoUDPCommand.SET_SBB, 0, "SBB 0\r" },
+			{ QSCUndnemoUDPCommand.SET_VOLUME, 10, "SET_VOLUME 10\r" },
+			// Outside the pre-encoded range, encoded on the fly
+			{ QSCUndnemoUDPCommand.GET_CMD_CH_INFO, 0, "CH_INFO 0\r" },
+			{ QSCUndnemoUDPCommand.GET_CMD_CH_INFO, 65, "CH_INFO 65\r" },
+			{ QSCUndnemoUDPCommand.SET_VOLUME, 11, "SET_VOLUME 11\r" },
+			{ QSCUndnemoUDPCommand.SET_SDB, -1, "SDB -1\r" },
+			{ QSCUndnemoUDPCommand.SET_SPKR_MUTE, Integer.MAX_VALUE, "SET_SPKR_MUTE 2147483647\r" },
+	};
+
+	/**
+	 * Encode every command of {@link #COMMANDS}
+	 * Expect the ASCII text of each command
+	 */
+	@Test
+	void testEncode() {
+		for (Object[] row : COMMANDS) {
+			QSCUndnemoUDPCommand command = (QSCUndnemoUDPCommand) row[0];
+			byte[] bytes = row[1] == null ? QSCUndnemoCommandEncoder.encode(command) : QSCUndnemoCommandEncoder.encode(command, (Integer) row[1]);
+			Assertions.assertEquals(row[2], new String(bytes, StandardCharsets.US_ASCII), command + " " + row[1]);
+		}
+	}
+
+	/**
+	 * Encode every command with every argument of its pre-encoded range
+	 * Expect the command, a space and the argument, terminated by a single CR, and the same shared array on every call
+	 */
+	@Test
+	void testEncodeArgumentRange() {
+		for (QSCUndnemoUDPCommand command : QSCUndnemoUDPCommand.values()) {
+			if (!command.hasArgument()) {
+				Assertions.assertSame(QSCUndnemoCommandEncoder.encode(command), QSCUndnemoCommandEncoder.encode(command));
+				continue;
+			}
+			for (int argument = command.getMinArgument(); argument <= command.getMaxArgument(); argument++) {
+				byte[] bytes = QSCUndnemoCommandEncoder.encode(command, argument);
+				Assertions.assertEquals(command.getCommand() + " " + argument + "\r", new String(bytes, StandardCharsets.US_ASCII));
+				Assertions.assertEquals(1, countCarriageReturns(bytes), command + " " + argument);
+				Assertions.assertSame(bytes, QSCUndnemoCommandEncoder.encode(command, argument));
+			}
+		}
+	}
+
+	/**
+	 * Encode a command with an argument it does not take, and without the argument it requires
+	 * Expect IllegalArgumentException
+	 */
+	@Test
+	void testEncodeArgumentMismatch() {
+		Assertions.assertThrows(IllegalArgumentException.class, () -> QSCUndnemoCommandEncoder.encode(QSCUndnemoUDPCommand.GET_CMD_VOLUME, 1));
+		Assertions.assertThrows(IllegalArgumentException.class, () -> QSCUndnemoCommandEncoder.encode(QSCUndnemoUDPCommand.SET_VOLUME));
+	}
+
+	/**
+	 * Count the CR bytes of an encoded command
+	 *
+	 * @param bytes encoded command
+	 * @return number of CR bytes
+	 */
+	private static int countCarriageReturns(byte[] bytes) {
+		int count = 0;
+		for (byte b : bytes) {
+			if (b == '\r') {
+				count++;
+			}
+		}
+		return count;
+	}
+}